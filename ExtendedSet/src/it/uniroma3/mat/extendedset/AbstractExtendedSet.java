@@ -639,6 +639,23 @@ public abstract class AbstractExtendedSet<T> extends AbstractSet<T> implements E
 		return toString();
 	}
 
+	/**
+	 * Removes the view wrapper, if any, so that operands obtained through
+	 * {@link #unmodifiable()}, {@link #headSet(Object)},
+	 * {@link #tailSet(Object)}, and {@link #subSet(Object, Object)} can still
+	 * benefit from fast paths
+	 * 
+	 * @param c
+	 *            the collection
+	 * @return the internal representation of the view, or <code>c</code> if
+	 *         it is not a view
+	 */
+	protected static Collection<?> unwrap(Collection<?> c) {
+		if (c instanceof AbstractExtendedSet<?>.FilteredSet)
+			return ((AbstractExtendedSet<?>.FilteredSet) c).raw();
+		return c;
+	}
+
 	/**
 	 * Base class for {@link ExtendedSubSet} and {@link UnmodifiableExtendedSet}
 	 */
@@ -653,9 +670,7 @@ public abstract class AbstractExtendedSet<T> extends AbstractSet<T> implements E
 		 * operations by directly working on internal representation
 		 */
 		@Override public ExtendedSet<T> convert(Collection<?> c) {
-			if (c instanceof AbstractExtendedSet.FilteredSet)
-				convert(((AbstractExtendedSet.FilteredSet) c).raw());
-			return raw().convert(c);
+			return raw().convert(unwrap(c));
 		}
 
 		@Override public ExtendedSet<T> convert(Object... e) {
@@ -683,6 +698,7 @@ public abstract class AbstractExtendedSet<T> extends AbstractSet<T> implements E
 		@Override public T last() {return raw().last();}
 		@Override public double bitmapCompressionRatio() {return raw().bitmapCompressionRatio();}
 		@Override public double collectionCompressionRatio() {return raw().collectionCompressionRatio();}
+		@Override public long sizeInBytes() {return raw().sizeInBytes();}
 		@Override public List<? extends ExtendedSet<T>> powerSet() {return raw().powerSet();}
 		@Override public List<? extends ExtendedSet<T>> powerSet(int mins, int maxs) {return raw().powerSet(mins, maxs);}
 		@Override public int powerSetSize() {return raw().powerSetSize();}
@@ -244,6 +244,16 @@ public interface ExtendedSet<T> extends SortedSet<T>, Cloneable, Comparable<Exte
 	 */
 	public double collectionCompressionRatio();
 
+	/**
+	 * Estimates the heap space retained by the set, in bytes, including object
+	 * headers and allocated but unused space of internal arrays. Objects
+	 * shared among sets, such as the universe of indexed sets, and the
+	 * elements themselves are not counted.
+	 * 
+	 * @return the estimated memory footprint, in bytes
+	 */
+	public long sizeInBytes();
+
 	/**
 	 * Extended version of the {@link Iterator} interface that allows to "skip"
 	 * some elements of the set
@@ -19,10 +19,19 @@
 package it.uniroma3.mat.extendedset.intset;
 
 
+import it.uniroma3.mat.extendedset.utilities.SizeOf;
+
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * This class provides a skeletal implementation of the {@link IntSet}
@@ -32,6 +41,57 @@ import java.util.NoSuchElementException;
  * @version $Id$
  */
 public abstract class AbstractIntSet implements IntSet {
+	/**
+	 * Maximum fraction of allocated but unused space of internal arrays that
+	 * is tolerated after operations that may shrink the set
+	 */
+	private static volatile double trimThreshold = 0.5D;
+
+	/**
+	 * Sets the automatic compaction policy of all array-backed {@link IntSet}
+	 * implementations.
+	 * <p>
+	 * After removals and bulk operations that may shrink a set, internal
+	 * arrays are trimmed when the fraction of unused allocated space exceeds
+	 * the given threshold. The default value is 0.5, namely arrays are
+	 * trimmed when they are more than twice of the needed space. Lower values
+	 * save memory at the price of more copies, while 1 disables the automatic
+	 * compaction. Note that appending elements through {@link #add(int)} never
+	 * trims arrays, see {@link #trimToSize()}.
+	 * 
+	 * @param threshold
+	 *            fraction of unused space, between 0 and 1
+	 * @throws IllegalArgumentException
+	 *             if the threshold is not between 0 and 1
+	 */
+	public static void setTrimThreshold(double threshold) {
+		if (!(threshold >= 0D && threshold <= 1D))
+			throw new IllegalArgumentException("threshold must be between 0 and 1: " + threshold);
+		trimThreshold = threshold;
+	}
+
+	/**
+	 * @return the current automatic compaction threshold
+	 * @see #setTrimThreshold(double)
+	 */
+	public static double getTrimThreshold() {
+		return trimThreshold;
+	}
+
+	/**
+	 * Checks the automatic compaction policy
+	 * 
+	 * @param used
+	 *            number of used array elements
+	 * @param allocated
+	 *            number of allocated array elements
+	 * @return <code>true</code> if the array should be trimmed
+	 * @see #setTrimThreshold(double)
+	 */
+	protected static boolean shouldTrim(int used, int allocated) {
+		return allocated - used > trimThreshold * allocated;
+	}
+
 	/** 
 	 * {@inheritDoc}
 	 */
@@ -204,6 +264,197 @@ public abstract class AbstractIntSet implements IntSet {
 	@Override
 	public abstract double collectionCompressionRatio();
 
+	/** 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public abstract long sizeInBytes();
+
+	/** 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void trimToSize() {
+		// nothing to trim
+	}
+
+	/** 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IntSet unmodifiable() {
+		return new UnmodifiableIntSet();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IntSet subSet(int from, int to) {
+		if (from > to)
+			throw new IllegalArgumentException("from: " + from + " > to: " + to);
+		return new RangeIntSet(Math.max(from, 0), Math.max(to, 0) - 1);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IntSet headSet(int to) {
+		return new RangeIntSet(0, Math.max(to, 0) - 1);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IntSet tailSet(int from) {
+		return new RangeIntSet(Math.max(from, 0), Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Computes the number of elements between <code>min</code> and
+	 * <code>max</code>, both included. It is used by {@link #subSet(int, int)}
+	 * views, and subclasses should override it to avoid the iteration over
+	 * the range.
+	 *
+	 * @param min
+	 *            first element of the range
+	 * @param max
+	 *            last element of the range, not less than <code>min</code>
+	 * @return the number of elements within the range
+	 */
+	protected int rangeSize(int min, int max) {
+		IntIterator itr = iterator();
+		if (itr.hasNext())
+			itr.skipAllBefore(min);
+		int res = 0;
+		while (itr.hasNext() && itr.next() <= max)
+			res++;
+		return res;
+	}
+
+	/**
+	 * Computes the number of elements between <code>min</code> and
+	 * <code>max</code>, both included, that are also contained in the given
+	 * set. It is used by {@link #subSet(int, int)} views to compute
+	 * intersections without copying the range. The default implementation
+	 * merges the iterators of both sets, skipping the elements outside the
+	 * range, and subclasses can override it with a range-restricted kernel.
+	 *
+	 * @param other
+	 *            the other set
+	 * @param min
+	 *            first element of the range
+	 * @param max
+	 *            last element of the range, not less than <code>min</code>
+	 * @return the number of common elements within the range
+	 */
+	protected int rangeIntersectionSize(IntSet other, int min, int max) {
+		return rangeIntersection(other, min, max, null);
+	}
+
+	/**
+	 * Computes the elements between <code>min</code> and <code>max</code>,
+	 * both included, that are also contained in the given set. See
+	 * {@link #rangeIntersectionSize(IntSet, int, int)}.
+	 *
+	 * @param other
+	 *            the other set
+	 * @param min
+	 *            first element of the range
+	 * @param max
+	 *            last element of the range, not less than <code>min</code>
+	 * @return the common elements within the range
+	 */
+	protected IntSet rangeIntersection(IntSet other, int min, int max) {
+		IntSet res = empty();
+		rangeIntersection(other, min, max, res);
+		return res;
+	}
+
+	/**
+	 * Merges the iterators of the current set and the given set within a
+	 * range
+	 *
+	 * @param other
+	 *            the other set
+	 * @param min
+	 *            first element of the range
+	 * @param max
+	 *            last element of the range
+	 * @param res
+	 *            where to add the common elements, or <code>null</code> to
+	 *            only count them
+	 * @return the number of common elements within the range
+	 */
+	private int rangeIntersection(IntSet other, int min, int max, IntSet res) {
+		final IntIterator thisItr = iterator();
+		final IntIterator otherItr = other.iterator();
+		if (!thisItr.hasNext() || !otherItr.hasNext())
+			return 0;
+		thisItr.skipAllBefore(min);
+		otherItr.skipAllBefore(min);
+		if (!thisItr.hasNext() || !otherItr.hasNext())
+			return 0;
+		int count = 0;
+		int thisValue = thisItr.next();
+		int otherValue = otherItr.next();
+		while (thisValue <= max && otherValue <= max) {
+			if (thisValue < otherValue) {
+				if (!thisItr.hasNext())
+					break;
+				thisItr.skipAllBefore(otherValue);
+				if (!thisItr.hasNext())
+					break;
+				thisValue = thisItr.next();
+			} else if (thisValue > otherValue) {
+				if (!otherItr.hasNext())
+					break;
+				otherItr.skipAllBefore(thisValue);
+				if (!otherItr.hasNext())
+					break;
+				otherValue = otherItr.next();
+			} else {
+				count++;
+				if (res != null)
+					res.add(thisValue);
+				if (!thisItr.hasNext() || !otherItr.hasNext())
+					break;
+				thisValue = thisItr.next();
+				otherValue = otherItr.next();
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Creates a new set that contains the elements between <code>min</code>
+	 * and <code>max</code>, both included. It is used by
+	 * {@link #subSet(int, int)} views to perform set operations, and
+	 * subclasses should override it to copy the internal representation of
+	 * the range at once.
+	 *
+	 * @param min
+	 *            first element of the range
+	 * @param max
+	 *            last element of the range, not less than <code>min</code>
+	 * @return the elements within the range
+	 */
+	protected IntSet rangeCopy(int min, int max) {
+		IntSet res = empty();
+		IntIterator itr = iterator();
+		if (itr.hasNext())
+			itr.skipAllBefore(min);
+		while (itr.hasNext()) {
+			int e = itr.next();
+			if (e > max)
+				break;
+			res.add(e);
+		}
+		return res;
+	}
+
 	/** 
 	 * {@inheritDoc}
 	 */
@@ -519,12 +770,64 @@ public abstract class AbstractIntSet implements IntSet {
 		return res;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Iterator<IntSet> powerSetIterator() {
+		return powerSetIterator(1, Integer.MAX_VALUE, false);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Iterator<IntSet> powerSetIterator(int min, int max) {
+		return powerSetIterator(min, max, false);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Iterator<IntSet> powerSetIterator(int min, int max, boolean reuse) {
+		if (min < 1 || max < min)
+			throw new IllegalArgumentException();
+		final int[] elements = size() < min ? new int[0] : toArray();
+		return new PowerSetIterator(elements, min, Math.min(max, elements.length), reuse);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Stream<IntSet> powerSetStream() {
+		return powerSetStream(1, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Stream<IntSet> powerSetStream(int min, int max) {
+		if (min < 1 || max < min)
+			throw new IllegalArgumentException();
+		final int[] elements = size() < min ? new int[0] : toArray();
+		max = Math.min(max, elements.length);
+		final BigInteger count = powerSetBigSize(elements.length, min, max);
+		if (count.bitLength() >= 64)
+			return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+					new PowerSetIterator(elements, min, max, false),
+					Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+		return StreamSupport.stream(new PowerSetSpliterator(elements, min, max, 0L, count.longValue()), false);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public int powerSetSize() {
-		return isEmpty() ? 0 : (int) Math.pow(2, size()) - 1;
+		return saturatedInt(powerSetBigSize());
 	}
 
 	/**
@@ -532,41 +835,272 @@ public abstract class AbstractIntSet implements IntSet {
 	 */
 	@Override
 	public int powerSetSize(int min, int max) {
+		return saturatedInt(powerSetBigSize(min, max));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public BigInteger powerSetBigSize() {
+		return BigInteger.ONE.shiftLeft(size()).subtract(BigInteger.ONE);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public BigInteger powerSetBigSize(int min, int max) {
 		if (min < 1 || max < min)
 			throw new IllegalArgumentException();
-		final int size = size();
+		return powerSetBigSize(size(), min, max);
+	}
 
-		// special cases
-		if (size < min)
-			return 0;
-		if (size == min)
-			return 1;
+	/**
+	 * Sums the binomial coefficients from <code>(n choose min)</code> to
+	 * <code>(n choose max)</code>
+	 * 
+	 * @param n
+	 *            set size
+	 * @param min
+	 *            minimum subset size
+	 * @param max
+	 *            maximum subset size
+	 * @return the number of subsets
+	 */
+	private static BigInteger powerSetBigSize(int n, int min, int max) {
+		max = Math.min(max, n);
+		if (min > max)
+			return BigInteger.ZERO;
+		if (min == 1 && max == n)
+			return BigInteger.ONE.shiftLeft(n).subtract(BigInteger.ONE);
+		BigInteger b = binomial(n, min);
+		BigInteger res = b;
+		for (int k = min; k < max; k++) {
+			b = b.multiply(BigInteger.valueOf(n - k)).divide(BigInteger.valueOf(k + 1));
+			res = res.add(b);
+		}
+		return res;
+	}
 
-		/*
-		 * Compute the sum of binomial coefficients ranging from (size choose
-		 * max) to (size choose min) using dynamic programming
+	/**
+	 * @return the binomial coefficient <code>(n choose k)</code>
+	 */
+	private static BigInteger binomial(int n, int k) {
+		if (k < 0 || k > n)
+			return BigInteger.ZERO;
+		k = Math.min(k, n - k);
+		BigInteger res = BigInteger.ONE;
+		for (int i = 1; i <= k; i++)
+			res = res.multiply(BigInteger.valueOf(n - k + i)).divide(BigInteger.valueOf(i));
+		return res;
+	}
+
+	/**
+	 * @return the given value, or {@link Integer#MAX_VALUE} if it is greater
+	 */
+	private static int saturatedInt(BigInteger x) {
+		return x.bitLength() < 32 ? x.intValue() : Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Iterates over the subsets of a power-set, level by level and, within each
+	 * level, in lexicographical order. Subsets are represented by the indices
+	 * of their elements, that are then mapped to the elements of the set.
+	 */
+	private class PowerSetIterator implements Iterator<IntSet> {
+		/** elements of the set, sorted */
+		private final int[] elements;
+
+		/** maximum subset size */
+		private final int max;
+
+		/** indices of the elements of the next subset */
+		private final int[] combination;
+
+		/** size of the next subset */
+		private int level;
+
+		/** number of subsets to return */
+		private long remaining;
+
+		/** instance returned at each step, or <code>null</code> */
+		private final IntSet scratch;
+
+		/** indices of the elements of {@link #scratch} */
+		private final int[] current;
+
+		/** size of {@link #scratch} */
+		private int currentLevel;
+
+		/**
+		 * Iterates from the first subset of size <code>min</code>
 		 */
+		PowerSetIterator(int[] elements, int min, int max, boolean reuse) {
+			this(elements, max, min, new int[max], Long.MAX_VALUE, reuse);
+			for (int i = 0; i < min && i < max; i++)
+				combination[i] = i;
+		}
 
-		// trivial cases
-		max = Math.min(size, max);
-		if (max == min && (max == 0 || max == size))
-			return 1;
-
-		// compute all binomial coefficients for "n"
-		int[] b = new int[size + 1];    
-		for (int i = 0; i <= size; i++)
-			b[i] = 1;
-		for (int i = 1; i <= size; i++)   
-			for (int j = i - 1; j > 0; j--)             
-				b[j] += b[j - 1];        
-		
-		// sum binomial coefficients
-		int res = 0;
-		for (int i = min; i <= max; i++)
-			res += b[i];
-		return res;
+		/**
+		 * Iterates from the given subset
+		 */
+		PowerSetIterator(int[] elements, int max, int level, int[] combination, long remaining, boolean reuse) {
+			this.elements = elements;
+			this.max = max;
+			this.level = level;
+			this.combination = combination;
+			this.remaining = remaining;
+			this.scratch = reuse ? empty() : null;
+			this.current = reuse ? new int[max] : null;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return remaining > 0 && level <= max;
+		}
+
+		@Override
+		public IntSet next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			final IntSet res;
+			if (scratch == null) {
+				res = empty();
+				for (int i = 0; i < level; i++)
+					res.add(elements[combination[i]]);
+			} else {
+				// only replace the elements after the common prefix
+				int p = 0;
+				while (p < level && p < currentLevel && current[p] == combination[p])
+					p++;
+				for (int i = currentLevel - 1; i >= p; i--)
+					scratch.remove(elements[current[i]]);
+				for (int i = p; i < level; i++)
+					scratch.add(elements[current[i] = combination[i]]);
+				currentLevel = level;
+				res = scratch;
+			}
+			advance();
+			remaining--;
+			return res;
+		}
+
+		/**
+		 * Computes the next combination
+		 */
+		private void advance() {
+			final int n = elements.length;
+			int i = level - 1;
+			while (i >= 0 && combination[i] == n - level + i)
+				i--;
+			if (i >= 0) {
+				combination[i]++;
+				for (int j = i + 1; j < level; j++)
+					combination[j] = combination[j - 1] + 1;
+			} else {
+				level++;
+				for (int j = 0; j < level && j < combination.length; j++)
+					combination[j] = j;
+			}
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
 	}
-	
+
+	/**
+	 * Splittable iterator over a range of subsets of a power-set, identified
+	 * by their positions. The first subset of each range is computed through
+	 * the combinatorial number system.
+	 */
+	private class PowerSetSpliterator implements Spliterator<IntSet> {
+		/** elements of the set, sorted */
+		private final int[] elements;
+
+		/** minimum subset size */
+		private final int min;
+
+		/** maximum subset size */
+		private final int max;
+
+		/** position of the first subset */
+		private long from;
+
+		/** position after the last subset */
+		private final long to;
+
+		/** iterator from {@link #from}, created by the first advance */
+		private PowerSetIterator itr;
+
+		/**
+		 * Iterates over the subsets from position <code>from</code>
+		 * (included) to position <code>to</code> (excluded)
+		 */
+		PowerSetSpliterator(int[] elements, int min, int max, long from, long to) {
+			this.elements = elements;
+			this.min = min;
+			this.max = max;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super IntSet> action) {
+			if (itr == null) {
+				if (from >= to)
+					return false;
+				itr = iteratorAt(from);
+			}
+			if (!itr.hasNext())
+				return false;
+			action.accept(itr.next());
+			return true;
+		}
+
+		/**
+		 * @param rank
+		 *            position of the subset
+		 * @return the iterator from the given subset
+		 */
+		private PowerSetIterator iteratorAt(long rank) {
+			final int n = elements.length;
+			int level = min;
+			for (long count; rank >= (count = binomial(n, level).longValue()); level++)
+				rank -= count;
+			final int[] combination = new int[max];
+			int v = 0;
+			for (int i = 0; i < level; i++) {
+				for (long count; rank >= (count = binomial(n - v - 1, level - i - 1).longValue()); v++)
+					rank -= count;
+				combination[i] = v++;
+			}
+			return new PowerSetIterator(elements, max, level, combination, to - from, false);
+		}
+
+		@Override
+		public Spliterator<IntSet> trySplit() {
+			if (itr != null || to - from < 2)
+				return null;
+			final long mid = from + (to - from) / 2;
+			final Spliterator<IntSet> prefix = new PowerSetSpliterator(elements, min, max, from, mid);
+			from = mid;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return itr == null ? to - from : itr.remaining;
+		}
+
+		@Override
+		public int characteristics() {
+			return ORDERED | DISTINCT | SIZED | SUBSIZED | NONNULL;
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -645,4 +1179,275 @@ public abstract class AbstractIntSet implements IntSet {
 			h = (h << 5) - h + itr.next();
 		return h;
 	}
+
+	/**
+	 * Read-only view of the set, see {@link #unmodifiable()}
+	 */
+	protected class UnmodifiableIntSet extends AbstractIntSet {
+		// exception message when writing operations are performed on {@link #unmodifiable()}
+		private final static String UNSUPPORTED_MSG = "The class is read-only!";
+
+		/*
+		 * Unsupported writing methods
+		 */
+		@Override public boolean add(int i) {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+		@Override public boolean addAll(IntSet c) {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+		@Override public boolean remove(int i) {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+		@Override public boolean removeAll(IntSet c) {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+		@Override public boolean retainAll(IntSet c) {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+		@Override public void clear() {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+		@Override public void clear(int from, int to) {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+		@Override public void fill(int from, int to) {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+		@Override public void complement() {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+		@Override public void flip(int e) {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+		@Override public void trimToSize() {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+
+		/*
+		 * Special purpose methods
+		 */
+
+		// create new iterators where the remove() operation is not permitted
+		@Override public IntIterator iterator() {return unmodifiable(AbstractIntSet.this.iterator());}
+		@Override public IntIterator descendingIterator() {return unmodifiable(AbstractIntSet.this.descendingIterator());}
+		private IntIterator unmodifiable(final IntIterator itr) {
+			return new IntIterator() {
+				@Override public boolean hasNext() {return itr.hasNext();}
+				@Override public int next() {return itr.next();}
+				@Override public void skipAllBefore(int element) {itr.skipAllBefore(element);}
+				@Override public void remove() {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+			};
+		}
+		@Override public IntSet unmodifiable() {return this;}
+		@Override public IntSet subSet(int from, int to) {return AbstractIntSet.this.subSet(from, to);}
+		@Override public IntSet headSet(int to) {return AbstractIntSet.this.headSet(to);}
+		@Override public IntSet tailSet(int from) {return AbstractIntSet.this.tailSet(from);}
+		@Override public long sizeInBytes() {return SizeOf.object(SizeOf.REFERENCE);}
+
+		/*
+		 * Read-only methods, with operands unwrapped to allow for fast paths
+		 */
+		@Override public IntSet intersection(IntSet other) {return AbstractIntSet.this.intersection(unwrap(other));}
+		@Override public IntSet union(IntSet other) {return AbstractIntSet.this.union(unwrap(other));}
+		@Override public IntSet difference(IntSet other) {return AbstractIntSet.this.difference(unwrap(other));}
+		@Override public IntSet symmetricDifference(IntSet other) {return AbstractIntSet.this.symmetricDifference(unwrap(other));}
+		@Override public IntSet complemented() {return AbstractIntSet.this.complemented();}
+		@Override public boolean containsAll(IntSet c) {return AbstractIntSet.this.containsAll(unwrap(c));}
+		@Override public boolean containsAny(IntSet other) {return AbstractIntSet.this.containsAny(unwrap(other));}
+		@Override public boolean containsAtLeast(IntSet other, int minElements) {return AbstractIntSet.this.containsAtLeast(unwrap(other), minElements);}
+		@Override public int intersectionSize(IntSet other) {return AbstractIntSet.this.intersectionSize(unwrap(other));}
+		@Override public int unionSize(IntSet other) {return AbstractIntSet.this.unionSize(unwrap(other));}
+		@Override public int symmetricDifferenceSize(IntSet other) {return AbstractIntSet.this.symmetricDifferenceSize(unwrap(other));}
+		@Override public int differenceSize(IntSet other) {return AbstractIntSet.this.differenceSize(unwrap(other));}
+		@Override public int complementSize() {return AbstractIntSet.this.complementSize();}
+		@Override public IntSet empty() {return AbstractIntSet.this.empty();}
+		@Override public IntSet clone() {return AbstractIntSet.this.clone();}
+		@Override public double bitmapCompressionRatio() {return AbstractIntSet.this.bitmapCompressionRatio();}
+		@Override public double collectionCompressionRatio() {return AbstractIntSet.this.collectionCompressionRatio();}
+		@Override public String debugInfo() {return AbstractIntSet.this.debugInfo();}
+		@Override public int get(int i) {return AbstractIntSet.this.get(i);}
+		@Override public int indexOf(int e) {return AbstractIntSet.this.indexOf(e);}
+		@Override public IntSet convert(int... a) {return AbstractIntSet.this.convert(a);}
+		@Override public IntSet convert(Collection<Integer> c) {return AbstractIntSet.this.convert(c);}
+		@Override public int first() {return AbstractIntSet.this.first();}
+		@Override public int last() {return AbstractIntSet.this.last();}
+		@Override public int size() {return AbstractIntSet.this.size();}
+		@Override public boolean isEmpty() {return AbstractIntSet.this.isEmpty();}
+		@Override public boolean contains(int i) {return AbstractIntSet.this.contains(i);}
+		@Override public int[] toArray(int[] a) {return AbstractIntSet.this.toArray(a);}
+		@Override public String toString() {return AbstractIntSet.this.toString();}
+		@Override public boolean equals(Object obj) {return AbstractIntSet.this.equals(obj instanceof IntSet ? unwrap((IntSet) obj) : obj);}
+		@Override public int hashCode() {return AbstractIntSet.this.hashCode();}
+		private IntSet container() {return AbstractIntSet.this;}
+	}
+
+	/**
+	 * Read-only view of a range of the set, see {@link #subSet(int, int)}
+	 */
+	protected class RangeIntSet extends AbstractIntSet {
+		// exception message when writing operations are performed on {@link #subSet(int, int)}
+		private final static String UNSUPPORTED_MSG = "The class is read-only!";
+
+		/** first element of the range */
+		private final int min;
+
+		/** last element of the range */
+		private final int max;
+
+		/**
+		 * Creates the view of the range from <code>min</code> to
+		 * <code>max</code>, both included. The range is empty when
+		 * <code>min</code> is greater than <code>max</code>.
+		 */
+		protected RangeIntSet(int min, int max) {
+			this.min = min;
+			this.max = max;
+		}
+
+		/*
+		 * Unsupported writing methods
+		 */
+		@Override public boolean add(int i) {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+		@Override public boolean addAll(IntSet c) {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+		@Override public boolean remove(int i) {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+		@Override public boolean removeAll(IntSet c) {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+		@Override public boolean retainAll(IntSet c) {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+		@Override public void clear() {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+		@Override public void clear(int from, int to) {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+		@Override public void fill(int from, int to) {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+		@Override public void complement() {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+		@Override public void flip(int e) {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+		@Override public void trimToSize() {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+
+		/*
+		 * Iterators, bounded by the range
+		 */
+		@Override public IntIterator iterator() {
+			final IntIterator itr = AbstractIntSet.this.iterator();
+			if (itr.hasNext())
+				itr.skipAllBefore(min);
+			return new IntIterator() {
+				private int next = fetch();
+				private int fetch() {return itr.hasNext() ? itr.next() : Integer.MIN_VALUE;}
+				@Override public boolean hasNext() {return next >= min && next <= max;}
+				@Override public int next() {
+					if (!hasNext())
+						throw new NoSuchElementException();
+					int res = next;
+					next = fetch();
+					return res;
+				}
+				@Override public void skipAllBefore(int element) {
+					if (element <= next)
+						return;
+					if (itr.hasNext())
+						itr.skipAllBefore(element);
+					next = fetch();
+				}
+				@Override public void remove() {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+			};
+		}
+		@Override public IntIterator descendingIterator() {
+			final IntIterator itr = AbstractIntSet.this.descendingIterator();
+			if (itr.hasNext())
+				itr.skipAllBefore(max);
+			return new IntIterator() {
+				private int next = fetch();
+				private int fetch() {return itr.hasNext() ? itr.next() : Integer.MIN_VALUE;}
+				@Override public boolean hasNext() {return next >= min && next <= max;}
+				@Override public int next() {
+					if (!hasNext())
+						throw new NoSuchElementException();
+					int res = next;
+					next = fetch();
+					return res;
+				}
+				@Override public void skipAllBefore(int element) {
+					if (element >= next)
+						return;
+					if (itr.hasNext())
+						itr.skipAllBefore(element);
+					next = fetch();
+				}
+				@Override public void remove() {throw new UnsupportedOperationException(UNSUPPORTED_MSG);}
+			};
+		}
+
+		/*
+		 * Methods computed on the range of the container
+		 */
+		@Override public boolean contains(int i) {return i >= min && i <= max && AbstractIntSet.this.contains(i);}
+		@Override public int size() {return min > max ? 0 : AbstractIntSet.this.rangeSize(min, max);}
+		@Override public boolean isEmpty() {return !iterator().hasNext();}
+		@Override public int first() {
+			IntIterator itr = iterator();
+			if (!itr.hasNext())
+				throw new NoSuchElementException();
+			return itr.next();
+		}
+		@Override public int last() {
+			IntIterator itr = descendingIterator();
+			if (!itr.hasNext())
+				throw new NoSuchElementException();
+			return itr.next();
+		}
+		@Override public int get(int i) {
+			if (i < 0 || i >= size())
+				throw new IndexOutOfBoundsException(Integer.toString(i));
+			return AbstractIntSet.this.get(offset() + i);
+		}
+		@Override public int indexOf(int e) {return contains(e) ? AbstractIntSet.this.indexOf(e) - offset() : -1;}
+		private int offset() {return min == 0 ? 0 : AbstractIntSet.this.rangeSize(0, min - 1);}
+		@Override public IntSet subSet(int from, int to) {
+			if (from > to)
+				throw new IllegalArgumentException("from: " + from + " > to: " + to);
+			return AbstractIntSet.this.new RangeIntSet(Math.max(from, min), Math.min(Math.max(to, 0) - 1, max));
+		}
+		@Override public IntSet headSet(int to) {return AbstractIntSet.this.new RangeIntSet(min, Math.min(Math.max(to, 0) - 1, max));}
+		@Override public IntSet tailSet(int from) {return AbstractIntSet.this.new RangeIntSet(Math.max(from, min), max);}
+		@Override public IntSet unmodifiable() {return this;}
+		@Override public long sizeInBytes() {return SizeOf.object(SizeOf.REFERENCE + 2 * 4);}
+		@Override public String debugInfo() {return "range [" + min + ", " + max + "] of " + AbstractIntSet.this.debugInfo();}
+
+		/*
+		 * Intersections and sizes, computed on the range of the container
+		 */
+		@Override public IntSet intersection(IntSet other) {
+			return min > max ? AbstractIntSet.this.empty() : AbstractIntSet.this.rangeIntersection(unwrap(other), min, max);
+		}
+		@Override public int intersectionSize(IntSet other) {
+			return min > max ? 0 : AbstractIntSet.this.rangeIntersectionSize(unwrap(other), min, max);
+		}
+		@Override public boolean containsAll(IntSet c) {
+			IntSet o = unwrap(c);
+			return intersectionSize(o) == o.size();
+		}
+		@Override public boolean containsAny(IntSet other) {return intersectionSize(other) > 0;}
+		@Override public boolean containsAtLeast(IntSet other, int minElements) {
+			return minElements == 0 || (minElements > 0 && intersectionSize(other) >= minElements);
+		}
+		@Override public int unionSize(IntSet other) {
+			IntSet o = unwrap(other);
+			return size() + o.size() - intersectionSize(o);
+		}
+		@Override public int symmetricDifferenceSize(IntSet other) {
+			IntSet o = unwrap(other);
+			return size() + o.size() - 2 * intersectionSize(o);
+		}
+		@Override public int differenceSize(IntSet other) {return size() - intersectionSize(other);}
+		@Override public int complementSize() {return isEmpty() ? 0 : last() - size() + 1;}
+
+		/*
+		 * Read-only methods that return new sets, performed on a copy of the
+		 * range
+		 */
+		private IntSet copy() {return min > max ? AbstractIntSet.this.empty() : AbstractIntSet.this.rangeCopy(min, max);}
+		@Override public IntSet union(IntSet other) {return copy().union(unwrap(other));}
+		@Override public IntSet difference(IntSet other) {return copy().difference(unwrap(other));}
+		@Override public IntSet symmetricDifference(IntSet other) {return copy().symmetricDifference(unwrap(other));}
+		@Override public IntSet complemented() {return copy().complemented();}
+		@Override public IntSet empty() {return AbstractIntSet.this.empty();}
+		@Override public IntSet clone() {return copy();}
+		@Override public double bitmapCompressionRatio() {return copy().bitmapCompressionRatio();}
+		@Override public double collectionCompressionRatio() {return copy().collectionCompressionRatio();}
+		@Override public IntSet convert(int... a) {return AbstractIntSet.this.convert(a);}
+		@Override public IntSet convert(Collection<Integer> c) {return AbstractIntSet.this.convert(c);}
+	}
+
+	/**
+	 * Removes the read-only view wrapper, if any, so that operands obtained
+	 * through {@link #unmodifiable()} can still benefit from fast paths.
+	 * Range views obtained through {@link #subSet(int, int)} are replaced by
+	 * a copy of the range.
+	 * 
+	 * @param c
+	 *            the set
+	 * @return the wrapped set, or <code>c</code> if it is not a view
+	 */
+	protected static IntSet unwrap(IntSet c) {
+		if (c instanceof AbstractIntSet.UnmodifiableIntSet)
+			return ((AbstractIntSet.UnmodifiableIntSet) c).container();
+		if (c instanceof AbstractIntSet.RangeIntSet)
+			return ((AbstractIntSet.RangeIntSet) c).copy();
+		return c;
+	}
 }
@@ -20,6 +20,8 @@
 package it.uniroma3.mat.extendedset.intset;
 
 
+import it.uniroma3.mat.extendedset.utilities.SizeOf;
+
 import java.util.*;
 
 /**
@@ -73,6 +75,14 @@ public class ArraySet extends AbstractIntSet {
 		return isEmpty() ? 0D : 1D;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long sizeInBytes() {
+		return SizeOf.object(SizeOf.REFERENCE + 4) + SizeOf.array(elements);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -153,12 +163,47 @@ public class ArraySet extends AbstractIntSet {
 		// NOTE: do not use super.clone() since it is 10 times slower!
 		ArraySet c = empty();
 		if (!isEmpty()) {
-			c.elements = Arrays.copyOf(elements, elements.length);
+			c.elements = Arrays.copyOf(elements, size);
 			c.size = size;
 		}
 		return c;
 	}
 	
+	/**
+	 * @param e
+	 *            element to look for
+	 * @return the index of the first element not less than <code>e</code>
+	 */
+	private int lowerBound(int e) {
+		int i = Arrays.binarySearch(elements, 0, size, e);
+		return i < 0 ? -(i + 1) : i;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected int rangeSize(int min, int max) {
+		if (isEmpty())
+			return 0;
+		return (max == Integer.MAX_VALUE ? size : lowerBound(max + 1)) - lowerBound(min);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected ArraySet rangeCopy(int min, int max) {
+		ArraySet c = empty();
+		int n = rangeSize(min, max);
+		if (n > 0) {
+			int from = lowerBound(min);
+			c.elements = Arrays.copyOfRange(elements, from, from + n);
+			c.size = n;
+		}
+		return c;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -186,18 +231,182 @@ public class ArraySet extends AbstractIntSet {
 	}
 
 	/**
-	 * Removes unused allocated words at the end of {@link #words} only when they
-	 * are more than twice of the needed space
+	 * Removes unused allocated elements at the end of {@link #elements}
+	 * according to the policy of {@link #setTrimThreshold(double)}
 	 */
 	private void compact() {
 		if (size == 0) {
 			elements = null;
 			return;
 		}
-		if (elements != null && (size << 1) < elements.length)
+		if (elements != null && shouldTrim(size, elements.length))
+			elements = Arrays.copyOf(elements, size);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void trimToSize() {
+		if (size == 0)
+			elements = null;
+		else if (elements.length > size)
 			elements = Arrays.copyOf(elements, size);
 	}
 
+	/**
+	 * When the larger array is at least this many times bigger than the
+	 * smaller one, {@link #intersect(int[], int, int[], int, int[], int)} uses
+	 * galloping instead of the block-wise merge
+	 */
+	private final static int GALLOPING_THRESHOLD = 32;
+
+	/**
+	 * Number of elements compared at once by the block-wise merge
+	 */
+	private final static int BLOCK_SIZE = 4;
+
+	/**
+	 * Intersects two sorted arrays of distinct integers.
+	 * <p>
+	 * The kernel is chosen according to the size ratio: galloping search of
+	 * the smaller array into the larger one for skewed sizes, block-wise merge
+	 * otherwise.
+	 *
+	 * @param a
+	 *            first sorted array
+	 * @param aSize
+	 *            number of used elements of <code>a</code>
+	 * @param b
+	 *            second sorted array
+	 * @param bSize
+	 *            number of used elements of <code>b</code>
+	 * @param res
+	 *            where to put common elements, or <code>null</code> to just
+	 *            count them. It must be able to contain
+	 *            <code>min(aSize, bSize)</code> elements.
+	 * @param limit
+	 *            the computation stops as soon as at least <code>limit</code>
+	 *            common elements have been found
+	 * @return number of common elements (it might exceed <code>limit</code>)
+	 */
+	private static int intersect(int[] a, int aSize, int[] b, int bSize, int[] res, int limit) {
+		if (aSize > bSize)
+			return intersect(b, bSize, a, aSize, res, limit);
+		if (aSize == 0)
+			return 0;
+		if (bSize / GALLOPING_THRESHOLD >= aSize)
+			return gallopingIntersect(a, aSize, b, bSize, res, limit);
+		return blockIntersect(a, aSize, b, bSize, res, limit);
+	}
+
+	/**
+	 * Intersects two sorted arrays by comparing blocks of
+	 * {@link #BLOCK_SIZE} elements: blocks that do not overlap are skipped as
+	 * a whole, while overlapping blocks are compared all-against-all without
+	 * data-dependent branches. Remaining elements are merged one by one.
+	 *
+	 * @see #intersect(int[], int, int[], int, int[], int)
+	 */
+	private static int blockIntersect(int[] a, int aSize, int[] b, int bSize, int[] res, int limit) {
+		int i = 0;
+		int j = 0;
+		int n = 0;
+		final int aLimit = aSize - BLOCK_SIZE;
+		final int bLimit = bSize - BLOCK_SIZE;
+		while (i <= aLimit && j <= bLimit) {
+			final int aMax = a[i + 3];
+			final int bMax = b[j + 3];
+			if (aMax < b[j]) {
+				i += BLOCK_SIZE;
+				continue;
+			}
+			if (bMax < a[i]) {
+				j += BLOCK_SIZE;
+				continue;
+			}
+
+			// overlapping blocks
+			final int b0 = b[j], b1 = b[j + 1], b2 = b[j + 2], b3 = b[j + 3];
+			for (int k = i; k < i + BLOCK_SIZE; k++) {
+				final int v = a[k];
+				if ((v == b0) | (v == b1) | (v == b2) | (v == b3)) {
+					if (res != null)
+						res[n] = v;
+					n++;
+				}
+			}
+			if (n >= limit)
+				return n;
+
+			// advance the block with the smallest maximum
+			if (aMax <= bMax)
+				i += BLOCK_SIZE;
+			if (bMax <= aMax)
+				j += BLOCK_SIZE;
+		}
+
+		// tail
+		while (i < aSize && j < bSize) {
+			final int x = a[i];
+			final int y = b[j];
+			if (x < y) {
+				i++;
+			} else if (x > y) {
+				j++;
+			} else {
+				if (res != null)
+					res[n] = x;
+				if (++n >= limit)
+					return n;
+				i++;
+				j++;
+			}
+		}
+		return n;
+	}
+
+	/**
+	 * Intersects a small sorted array with a much larger one by looking for
+	 * each element of the former within the latter through exponential
+	 * search followed by binary search.
+	 *
+	 * @see #intersect(int[], int, int[], int, int[], int)
+	 */
+	private static int gallopingIntersect(int[] small, int smallSize, int[] large, int largeSize, int[] res, int limit) {
+		int n = 0;
+		int lo = 0;
+		for (int i = 0; i < smallSize && lo < largeSize; i++) {
+			final int v = small[i];
+
+			// exponential search
+			if (large[lo] < v) {
+				int step = 1;
+				int hi = lo + 1;
+				while (hi < largeSize && large[hi] < v) {
+					lo = hi;
+					step <<= 1;
+					hi = lo + step;
+				}
+				lo = Arrays.binarySearch(large, lo + 1, Math.min(hi + 1, largeSize), v);
+				if (lo < 0) {
+					lo = -(lo + 1);
+					continue;
+				}
+			} else if (large[lo] != v) {
+				continue;
+			}
+
+			// found
+			if (res != null)
+				res[n] = v;
+			if (++n >= limit)
+				return n;
+			lo++;
+		}
+		return n;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -324,31 +533,7 @@ public class ArraySet extends AbstractIntSet {
 			return false;
 
 		final ArraySet o = convert(other);
-		final int[] thisElements = elements;		// faster
-		final int[] otherElements = o.elements;		// faster
-		int otherSize = o.size;
-		int thisIndex = -1;
-		int otherIndex = -1;
-		while (thisIndex < (size - 1) && otherIndex < (otherSize - 1)) {
-			thisIndex++;
-			otherIndex++;
-			while (thisElements[thisIndex] != otherElements[otherIndex]) {
-				while (thisElements[thisIndex] > otherElements[otherIndex]) {
-					if (otherIndex == otherSize - 1)
-						return false;
-					otherIndex++;
-				}
-				if (thisElements[thisIndex] == otherElements[otherIndex])
-					break;
-				while (thisElements[thisIndex] < otherElements[otherIndex]) {
-					if (thisIndex == size - 1)
-						return false;
-					thisIndex++;
-				}
-			}
-			return true;
-		}
-		return false;
+		return intersect(elements, size, o.elements, o.size, null, 1) > 0;
 	}
 
 	/**
@@ -364,34 +549,7 @@ public class ArraySet extends AbstractIntSet {
 			return size() >= minElements;
 			
 		final ArraySet o = convert(other);
-		final int[] thisElements = elements;		// faster
-		final int[] otherElements = o.elements;		// faster
-		int otherSize = o.size;
-		int thisIndex = -1;
-		int otherIndex = -1;
-		int res = 0;
-		while (thisIndex < (size - 1) && otherIndex < (otherSize - 1)) {
-			thisIndex++;
-			otherIndex++;
-			while (thisElements[thisIndex] != otherElements[otherIndex]) {
-				while (thisElements[thisIndex] > otherElements[otherIndex]) {
-					if (otherIndex == otherSize - 1)
-						return false;
-					otherIndex++;
-				}
-				if (thisElements[thisIndex] == otherElements[otherIndex])
-					break;
-				while (thisElements[thisIndex] < otherElements[otherIndex]) {
-					if (thisIndex == size - 1)
-						return false;
-					thisIndex++;
-				}
-			}
-			res++;
-			if (res >= minElements)
-				return true;
-		}
-		return false;
+		return intersect(elements, size, o.elements, o.size, null, minElements) >= minElements;
 	}
 
 	/** 
@@ -517,32 +675,7 @@ public class ArraySet extends AbstractIntSet {
 			return size();
 
 		final ArraySet o = convert(other);
-		final int[] thisElements = elements;		// faster
-		final int[] otherElements = o.elements;		// faster
-		int otherSize = o.size;
-		int thisIndex = -1;
-		int otherIndex = -1;
-		int res = 0;
-		while (thisIndex < (size - 1) && otherIndex < (otherSize - 1)) {
-			thisIndex++;
-			otherIndex++;
-			while (thisElements[thisIndex] != otherElements[otherIndex]) {
-				while (thisElements[thisIndex] > otherElements[otherIndex]) {
-					if (otherIndex == otherSize - 1)
-						return res;
-					otherIndex++;
-				}
-				if (thisElements[thisIndex] == otherElements[otherIndex])
-					break;
-				while (thisElements[thisIndex] < otherElements[otherIndex]) {
-					if (thisIndex == size - 1)
-						return res;
-					thisIndex++;
-				}
-			}
-			res++;
-		}
-		return res;
+		return intersect(elements, size, o.elements, o.size, null, Integer.MAX_VALUE);
 	}
 	
 	/**
@@ -556,46 +689,9 @@ public class ArraySet extends AbstractIntSet {
 			return clone();
 		
 		final ArraySet o = convert(other);
-		int otherSize = o.size;
-		int thisIndex = -1;
-		int otherIndex = -1;
-		int resSize = 0;
-		final int[] thisElements = elements;		// faster
-		final int[] otherElements = o.elements;		// faster
-		final int[] resElements = new int[Math.min(size, otherSize)];
-		while (thisIndex < (size - 1) && otherIndex < (otherSize - 1)) {
-			thisIndex++;
-			otherIndex++;
-			while (thisElements[thisIndex] != otherElements[otherIndex]) {
-				while (thisElements[thisIndex] > otherElements[otherIndex]) {
-					if (otherIndex == otherSize - 1) {
-						ArraySet res = empty();
-						res.elements = resElements;
-						res.size = resSize;
-						res.compact();
-						return res;
-					}
-					otherIndex++;
-				}
-				if (thisElements[thisIndex] == otherElements[otherIndex])
-					break;
-				while (thisElements[thisIndex] < otherElements[otherIndex]) {
-					if (thisIndex == size - 1) {
-						ArraySet res = empty();
-						res.elements = resElements;
-						res.size = resSize;
-						res.compact();
-						return res;
-					}
-					thisIndex++;
-				}
-			}
-			resElements[resSize++] = thisElements[thisIndex];
-		}
-		
 		ArraySet res = empty();
-		res.elements = resElements;
-		res.size = resSize;
+		res.elements = new int[Math.min(size, o.size)];
+		res.size = intersect(elements, size, o.elements, o.size, res.elements, Integer.MAX_VALUE);
 		res.compact();
 		return res;
 	}
@@ -876,6 +972,7 @@ public class ArraySet extends AbstractIntSet {
 	 * @return
 	 */
 	private ArraySet convert(IntSet c) {
+		c = unwrap(c);
 		if (c instanceof ArraySet)
 			return (ArraySet) c;
 		
@@ -899,7 +996,7 @@ public class ArraySet extends AbstractIntSet {
 		int[] resElements = null;
 		int resSize = 0;
 		int last = -1;
-		if (a != null) {
+		if (a != null && a.length > 0) {
 			resElements = new int[a.length];
 			a = Arrays.copyOf(a, a.length);
 			Arrays.sort(a);
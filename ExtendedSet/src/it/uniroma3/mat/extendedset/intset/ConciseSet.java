@@ -21,6 +21,9 @@ package it.uniroma3.mat.extendedset.intset;
 
 
 import it.uniroma3.mat.extendedset.utilities.BitCount;
+import it.uniroma3.mat.extendedset.utilities.IntSetMetrics;
+import it.uniroma3.mat.extendedset.utilities.IntSetMetrics.Operation;
+import it.uniroma3.mat.extendedset.utilities.SizeOf;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
@@ -102,6 +105,15 @@ public class ConciseSet extends AbstractIntSet implements java.io.Serializable {
 	 * that <i>do</i> modify {@link #words}
 	 */
 	protected transient volatile int modCount = 0;
+
+	/**
+	 * Rank/select index, see {@link #buildRankIndex()}. It is valid as long as
+	 * {@link #modCount} equals {@link #rankIndexModCount}.
+	 */
+	private transient RankIndex rankIndex;
+
+	/** value of {@link #modCount} when {@link #rankIndex} has been built */
+	private transient int rankIndexModCount;
 	
 	/**
 	 * The highest representable integer.
@@ -204,6 +216,48 @@ public class ConciseSet extends AbstractIntSet implements java.io.Serializable {
 		return res;
 	}
 
+	/**
+	 * Gets a copy of the compressed representation of the set, namely the
+	 * sequence of 31-bit literals and sequences that makes up the bitmap. It
+	 * can be stored and then converted back through
+	 * {@link #fromWords(int[], int, int)}.
+	 * 
+	 * @return the compressed words, or an empty array if the set is empty
+	 */
+	public int[] toWords() {
+		if (isEmpty())
+			return new int[0];
+		return Arrays.copyOf(words, lastWordIndex + 1);
+	}
+
+	/**
+	 * Creates a set of the same kind of this set (see {@link #empty()}) from
+	 * the given compressed representation, as provided by {@link #toWords()}.
+	 * 
+	 * @param a
+	 *            array containing the words
+	 * @param from
+	 *            index of the first word (included)
+	 * @param to
+	 *            index of the last word (excluded)
+	 * @return the new set
+	 */
+	public ConciseSet fromWords(int[] a, int from, int to) {
+		ConciseSet res = empty();
+		if (from == to)
+			return res;
+		if (simulateWAH) {
+			// words may contain sequences with a set bit, not allowed in WAH
+			res.addAll(new ConciseSet().fromWords(a, from, to));
+			return res;
+		}
+		res.words = Arrays.copyOfRange(a, from, to);
+		res.lastWordIndex = to - from - 1;
+		res.updateLast();
+		res.size = -1;
+		return res;
+	}
+
 	/**
 	 * Calculates the modulus division by 31 in a faster way than using <code>n % 31</code>
 	 * <p>
@@ -451,13 +505,22 @@ public class ConciseSet extends AbstractIntSet implements java.io.Serializable {
 	}
 
 	/**
-	 * Removes unused allocated words at the end of {@link #words} only when they
-	 * are more than twice of the needed space
+	 * Removes unused allocated words at the end of {@link #words} according to
+	 * the policy of {@link #setTrimThreshold(double)}
 	 */
 	private void compact() {
-		if (words != null && ((lastWordIndex + 1) << 1) < words.length)
+		if (words != null && shouldTrim(lastWordIndex + 1, words.length))
 			words = Arrays.copyOf(words, lastWordIndex + 1);
 	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void trimToSize() {
+		if (words != null && lastWordIndex + 1 < words.length)
+			words = lastWordIndex < 0 ? null : Arrays.copyOf(words, lastWordIndex + 1);
+	}
 	
 	/**
 	 * Possible operations
@@ -890,8 +953,19 @@ public class ConciseSet extends AbstractIntSet implements java.io.Serializable {
 		 * Initialize data
 		 */
 		WordIterator() {
+			this(0);
+		}
+
+		/**
+		 * Initialize data, starting from the given word
+		 * 
+		 * @param first
+		 *            index of the first word, that must not be a part of a
+		 *            sequence split by {@link #prepareNext()}
+		 */
+		WordIterator(int first) {
 			isLiteral = false;
-			index = -1;
+			index = first - 1;
 			prepareNext();
 		}
 		
@@ -923,6 +997,32 @@ public class ConciseSet extends AbstractIntSet implements java.io.Serializable {
 			return true;
 		}
 		
+		/**
+		 * Skips the given number of 31-bit blocks, starting from the
+		 * beginning of the current word. Only the lengths of the skipped
+		 * words are read.
+		 * 
+		 * @param n
+		 *            number of blocks to skip
+		 * @return <code>false</code> if the words end before
+		 */
+		boolean skip(int n) {
+			while (n > 0) {
+				if (isLiteral) {
+					n--;
+					if (!prepareNext())
+						return false;
+				} else if (n < count) {
+					return prepareNext(n);
+				} else {
+					n -= count;
+					if (!prepareNext(count))
+						return false;
+				}
+			}
+			return !exhausted();
+		}
+		
 		/**
 		 * Prepare the next value for {@link #word}
 		 * 
@@ -1126,6 +1226,403 @@ public class ConciseSet extends AbstractIntSet implements java.io.Serializable {
 	 */
 	@Override
 	public int intersectionSize(IntSet o) {
+		final long start = IntSetMetrics.start();
+		final int res = intersectionSizeOf(o);
+		IntSetMetrics.record(Operation.INTERSECTION_SIZE, start, size, cachedSize(o), null);
+		return res;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected int rangeSize(int min, int max) {
+		if (isEmpty() || min > last)
+			return 0;
+		return rangeCardinality(min, Math.min(max, last) + 1);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected int rangeIntersectionSize(IntSet other, int min, int max) {
+		return intersectionSize(other, min, (int) Math.min(max + 1L, Integer.MAX_VALUE));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected ConciseSet rangeIntersection(IntSet other, int min, int max) {
+		return intersection(other, min, (int) Math.min(max + 1L, Integer.MAX_VALUE));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected ConciseSet rangeCopy(int min, int max) {
+		if (isEmpty() || min > last)
+			return empty();
+		if (min == 0 && max >= last)
+			return clone();
+		return intersection(this, min, Math.min(max, last) + 1);
+	}
+
+	/**
+	 * Gets the bits of a block that represent integers within the given
+	 * range
+	 * 
+	 * @param block
+	 *            block index
+	 * @param from
+	 *            first integer of the range
+	 * @param to
+	 *            last integer of the range, exclusive
+	 * @return the literal bits, with the most significant bit cleared
+	 */
+	private static int rangeBits(int block, int from, int to) {
+		final int first = maxLiteralLengthMultiplication(block);
+		final int lo = from - first;
+		final int hi = to - first;
+		if (lo >= MAX_LITERAL_LENGHT || hi <= 0)
+			return 0;
+		int res = ALL_ONES_WITHOUT_MSB;
+		if (lo > 0)
+			res &= ALL_ONES_LITERAL << lo;
+		if (hi < MAX_LITERAL_LENGHT)
+			res &= ~(ALL_ONES_LITERAL << hi);
+		return res;
+	}
+
+	/**
+	 * Counts the set bits of a group of consecutive blocks that represent
+	 * integers within the given range
+	 * 
+	 * @param block
+	 *            index of the first block
+	 * @param blocks
+	 *            number of blocks. When greater than 1, <code>literal</code>
+	 *            must contain only 0's or only 1's.
+	 * @param literal
+	 *            literal word of each block
+	 * @param from
+	 *            first integer of the range
+	 * @param to
+	 *            last integer of the range, exclusive
+	 * @return the number of set bits within the range
+	 */
+	private static int rangeBitCount(int block, int blocks, int literal, int from, int to) {
+		if (blocks == 1)
+			return BitCount.count(literal & rangeBits(block, from, to));
+		if (literal == ALL_ZEROS_LITERAL)
+			return 0;
+		final long lo = Math.max((long) maxLiteralLengthMultiplication(block), from);
+		final long hi = Math.min((long) MAX_LITERAL_LENGHT * (block + blocks), to);
+		return hi > lo ? (int) (hi - lo) : 0;
+	}
+
+	/**
+	 * Appends a group of consecutive blocks after the last word, clearing
+	 * the bits that represent integers outside the given range. Blocks that
+	 * follow the range are discarded, while blocks that precede the range
+	 * are assumed to be already appended as 0's.
+	 * 
+	 * @param block
+	 *            index of the first block
+	 * @param blocks
+	 *            number of blocks. When greater than 1, <code>literal</code>
+	 *            must contain only 0's or only 1's.
+	 * @param literal
+	 *            literal word of each block
+	 * @param from
+	 *            first integer of the range
+	 * @param to
+	 *            last integer of the range, exclusive
+	 */
+	private void appendRange(int block, int blocks, int literal, int from, int to) {
+		// clip the blocks to the range
+		final int firstBlock = maxLiteralLengthDivision(from);
+		if (block < firstBlock) {
+			blocks -= firstBlock - block;
+			block = firstBlock;
+		}
+		blocks = Math.min(blocks, maxLiteralLengthDivision(to - 1) + 1 - block);
+		if (blocks <= 0)
+			return;
+		
+		if (blocks == 1) {
+			appendLiteral(ALL_ZEROS_LITERAL | (literal & rangeBits(block, from, to)));
+			return;
+		}
+		if (literal == ALL_ZEROS_LITERAL) {
+			appendFill(blocks, 0);
+			return;
+		}
+		
+		// sequence of 1's, whose first and last blocks may be partially outside the range
+		int bits = rangeBits(block, from, to);
+		if (bits != ALL_ONES_WITHOUT_MSB) {
+			appendLiteral(ALL_ZEROS_LITERAL | bits);
+			block++;
+			blocks--;
+		}
+		bits = rangeBits(block + blocks - 1, from, to);
+		if (bits != ALL_ONES_WITHOUT_MSB) {
+			if (blocks > 1)
+				appendFill(blocks - 1, SEQUENCE_BIT);
+			appendLiteral(ALL_ZEROS_LITERAL | bits);
+		} else {
+			appendFill(blocks, SEQUENCE_BIT);
+		}
+	}
+
+	/**
+	 * Computes the number of elements within the given range.
+	 * <p>
+	 * Differently from {@link #subSet(int, int)}, no set is created: words
+	 * are scanned up to the end of the range, while compressed sequences that
+	 * precede the range are skipped at once. If the rank index has been
+	 * built (see {@link #buildRankIndex()}), the scan starts from the
+	 * nearest sampled word.
+	 * 
+	 * @param from
+	 *            first integer of the range
+	 * @param to
+	 *            last integer of the range, exclusive
+	 * @return the number of elements greater than or equal to
+	 *         <code>from</code> and less than <code>to</code>
+	 * @throws IllegalArgumentException
+	 *             if <code>from</code> is greater than <code>to</code>
+	 */
+	public int rangeCardinality(int from, int to) {
+		if (from > to)
+			throw new IllegalArgumentException("from: " + from + " > to: " + to);
+		from = Math.max(from, 0);
+		if (isEmpty() || from > last)
+			return 0;
+		to = Math.min(to, last + 1);
+		if (from >= to)
+			return 0;
+		if (from == 0 && to == last + 1)
+			return size();
+
+		int res = 0;
+		int block = 0;
+		int i = 0;
+		final RankIndex r = rankIndex();
+		if (r != null) {
+			int k = r.sampleByBlock(maxLiteralLengthDivision(from));
+			block = r.blocks[k];
+			i = k << RankIndex.SAMPLE_SHIFT;
+		}
+		final int lastBlock = maxLiteralLengthDivision(to - 1);
+		for (; i <= lastWordIndex && block <= lastBlock; i++) {
+			int w = words[i];
+			if (isLiteral(w)) {
+				res += rangeBitCount(block, 1, w, from, to);
+				block++;
+			} else {
+				// the first block may contain a flipped bit
+				int blocks = getSequenceCount(w) + 1;
+				res += rangeBitCount(block, 1, getLiteral(w), from, to);
+				res += rangeBitCount(block + 1, blocks - 1, 
+						getLiteral(getSequenceWithNoBits(w)), from, to);
+				block += blocks;
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * Computes the intersection of the given range of the current set and
+	 * the given set, without creating any intermediate set. Words are
+	 * scanned up to the end of the range.
+	 * 
+	 * @param o
+	 *            the other set
+	 * @param from
+	 *            first integer of the range
+	 * @param to
+	 *            last integer of the range, exclusive
+	 * @return the number of elements, greater than or equal to
+	 *         <code>from</code> and less than <code>to</code>, that are
+	 *         contained in both sets
+	 * @throws IllegalArgumentException
+	 *             if <code>from</code> is greater than <code>to</code>
+	 */
+	public int intersectionSize(IntSet o, int from, int to) {
+		if (from > to)
+			throw new IllegalArgumentException("from: " + from + " > to: " + to);
+		final long start = IntSetMetrics.start();
+		final int res;
+		if (isEmpty() || o == null || o.isEmpty())
+			res = 0;
+		else if (o == this)
+			res = rangeCardinality(from, to);
+		else
+			res = rangeOperation(convert(o), Math.max(from, 0), to, null);
+		IntSetMetrics.record(Operation.INTERSECTION_SIZE, start, size, cachedSize(o), null);
+		return res;
+	}
+
+	/**
+	 * Computes the intersection of the given range of the current set and
+	 * the given set. It is equivalent to, but faster than, intersecting the
+	 * sets and then clearing the elements outside the range.
+	 * 
+	 * @param other
+	 *            the other set
+	 * @param from
+	 *            first integer of the range
+	 * @param to
+	 *            last integer of the range, exclusive
+	 * @return the elements, greater than or equal to <code>from</code> and
+	 *         less than <code>to</code>, that are contained in both sets
+	 * @throws IllegalArgumentException
+	 *             if <code>from</code> is greater than <code>to</code>
+	 */
+	public ConciseSet intersection(IntSet other, int from, int to) {
+		if (from > to)
+			throw new IllegalArgumentException("from: " + from + " > to: " + to);
+		final long start = IntSetMetrics.start();
+		final ConciseSet res;
+		if (isEmpty() || other == null || other.isEmpty()) {
+			res = empty();
+		} else {
+			res = empty();
+			rangeOperation(convert(other), Math.max(from, 0), to, res);
+		}
+		IntSetMetrics.record(Operation.INTERSECTION, start, size, cachedSize(other), res);
+		return res;
+	}
+
+	/**
+	 * Gets an iterator over the words of the current set, positioned at the
+	 * beginning of the given block. Preceding words are skipped by their
+	 * lengths, starting from the nearest sampled word if the rank index has
+	 * been built (see {@link #buildRankIndex()}).
+	 * 
+	 * @param block
+	 *            the block
+	 * @return the iterator, or <code>null</code> if the words end before the
+	 *         block
+	 */
+	private WordIterator wordIteratorAt(int block) {
+		int first = 0;
+		int firstBlock = 0;
+		final RankIndex r = rankIndex();
+		if (r != null) {
+			int k = r.sampleByBlock(block);
+			firstBlock = r.blocks[k];
+			first = k << RankIndex.SAMPLE_SHIFT;
+		}
+		WordIterator itr = new WordIterator(first);
+		return itr.skip(block - firstBlock) ? itr : null;
+	}
+
+	/**
+	 * Intersects the words of the current set and the given set that
+	 * represent the given range. Both sets are first moved to the block of
+	 * <code>from</code> (see {@link #wordIteratorAt(int)}), and the result
+	 * grows with the appended words, so that both time and space depend on
+	 * the words within the range.
+	 * 
+	 * @param other
+	 *            the other set, not empty
+	 * @param from
+	 *            first integer of the range, not negative
+	 * @param to
+	 *            last integer of the range, exclusive
+	 * @param res
+	 *            empty set where the intersection is stored, or
+	 *            <code>null</code> to only count the elements of the
+	 *            intersection
+	 * @return the number of elements of the intersection, when
+	 *         <code>res</code> is <code>null</code>
+	 */
+	private int rangeOperation(ConciseSet other, int from, int to, ConciseSet res) {
+		to = Math.min(to, Math.min(this.last, other.last) + 1);
+		if (from >= to)
+			return 0;
+		
+		final int firstBlock = maxLiteralLengthDivision(from);
+		final int lastBlock = maxLiteralLengthDivision(to - 1);
+		final WordIterator thisItr = wordIteratorAt(firstBlock);
+		final WordIterator otherItr = other.wordIteratorAt(firstBlock);
+		if (thisItr == null || otherItr == null)
+			return 0;
+		if (res != null) {
+			// with respect to a regular intersection, the range requires
+			// a leading sequence of 0's and the split of the first and the
+			// last sequences of 1's
+			res.words = new int[4];
+			if (firstBlock > 0)
+				res.appendFill(firstBlock, 0);
+		}
+		
+		// scan "this" and "other"
+		int count = 0;
+		int block = firstBlock;
+		boolean hasNext = true;
+		while (hasNext && block <= lastBlock) {
+			final int blocks;
+			final int literal;
+			if (!thisItr.isLiteral) {
+				if (!otherItr.isLiteral) {
+					blocks = Math.min(thisItr.count, otherItr.count);
+					literal = (SEQUENCE_BIT & thisItr.word & otherItr.word) != 0 ? ALL_ONES_LITERAL : ALL_ZEROS_LITERAL;
+					hasNext = thisItr.prepareNext(blocks) & otherItr.prepareNext(blocks); // do NOT use "&&"
+				} else {
+					blocks = 1;
+					literal = thisItr.toLiteral() & otherItr.word;
+					thisItr.word--;
+					hasNext = thisItr.prepareNext(1) & otherItr.prepareNext(); // do NOT use "&&"
+				}
+			} else if (!otherItr.isLiteral) {
+				blocks = 1;
+				literal = thisItr.word & otherItr.toLiteral();
+				otherItr.word--;
+				hasNext = thisItr.prepareNext() & otherItr.prepareNext(1); // do NOT use "&&"
+			} else {
+				blocks = 1;
+				literal = thisItr.word & otherItr.word;
+				hasNext = thisItr.prepareNext() & otherItr.prepareNext(); // do NOT use "&&"
+			}
+			if (res == null) {
+				count += rangeBitCount(block, blocks, literal, from, to);
+			} else {
+				// at most three words are appended
+				res.ensureCapacity(res.lastWordIndex + 3);
+				res.appendRange(block, blocks, literal, from, to);
+			}
+			block += blocks;
+		}
+		if (res == null)
+			return count;
+
+		// remove trailing zeros and compute the greatest element
+		res.size = -1;
+		if (res.lastWordIndex >= 0)
+			res.trimZeros();
+		if (res.lastWordIndex < 0) {
+			res.reset();
+			return 0;
+		}
+		res.updateLast();
+		res.compact();
+		return 0;
+	}
+
+	/**
+	 * Computes {@link #intersectionSize(IntSet)}
+	 * 
+	 * @param o
+	 *            other set
+	 * @return the intersection size
+	 */
+	private int intersectionSizeOf(IntSet o) {
 		// special cases
 		if (isEmpty() || o == null || o.isEmpty()) 
 			return 0;
@@ -1195,7 +1692,15 @@ public class ConciseSet extends AbstractIntSet implements java.io.Serializable {
 		int firstSetBitInWord = 0;
 		int position = i;
 		int setBitsInCurrentWord = 0;
-		for (int j = 0; j <= lastWordIndex; j++) {
+		int j = 0;
+		final RankIndex r = rankIndex();
+		if (r != null && !isEmpty()) {
+			int k = r.sampleByRank(i);
+			firstSetBitInWord = maxLiteralLengthMultiplication(r.blocks[k]);
+			position -= r.ranks[k];
+			j = k << RankIndex.SAMPLE_SHIFT;
+		}
+		for (; j <= lastWordIndex; j++) {
 			int w = words[j];
 			if (isLiteral(w)) {
 				// number of bits in the current word
@@ -1264,7 +1769,15 @@ public class ConciseSet extends AbstractIntSet implements java.io.Serializable {
 
 		int blockIndex = maxLiteralLengthDivision(e);
 		int bitPosition = maxLiteralLengthModulus(e);
-		for (int i = 0; i <= lastWordIndex && blockIndex >= 0; i++) {
+		int i = 0;
+		final RankIndex r = rankIndex();
+		if (r != null) {
+			int k = r.sampleByBlock(blockIndex);
+			index = r.ranks[k];
+			blockIndex -= r.blocks[k];
+			i = k << RankIndex.SAMPLE_SHIFT;
+		}
+		for (; i <= lastWordIndex && blockIndex >= 0; i++) {
 			int w = words[i];
 			if (isLiteral(w)) {
 				// check if the current literal word is the "right" one
@@ -1314,16 +1827,67 @@ public class ConciseSet extends AbstractIntSet implements java.io.Serializable {
 		return -1;
 	}
 
+	/**
+	 * Builds a rank/select index, so that {@link #indexOf(int)} and
+	 * {@link #get(int)} only scan a few words after a binary search, instead
+	 * of all the words before the element. The index takes about two
+	 * <code>int</code>s every 8 words, and it is discarded as soon as the set
+	 * is modified, hence it is meant for sets that are no longer changed.
+	 */
+	public void buildRankIndex() {
+		final int wordCount = lastWordIndex + 1;
+		final int[] ranks = new int[RankIndex.samples(wordCount)];
+		final int[] blocks = new int[ranks.length];
+		int count = 0;
+		int block = 0;
+		for (int j = 0; j < wordCount; j++) {
+			if ((j & RankIndex.SAMPLE_MASK) == 0) {
+				ranks[j >>> RankIndex.SAMPLE_SHIFT] = count;
+				blocks[j >>> RankIndex.SAMPLE_SHIFT] = block;
+			}
+			int w = words[j];
+			if (isLiteral(w)) {
+				count += getLiteralBitCount(w);
+				block++;
+			} else {
+				int blockCount = getSequenceCount(w) + 1;
+				boolean noBits = simulateWAH || isSequenceWithNoBits(w);
+				if (isOneSequence(w))
+					count += maxLiteralLengthMultiplication(blockCount) - (noBits ? 0 : 1);
+				else if (!noBits)
+					count++;
+				block += blockCount;
+			}
+		}
+		rankIndex = new RankIndex(ranks, blocks);
+		rankIndexModCount = modCount;
+	}
+
+	/**
+	 * @return the rank/select index, or <code>null</code> if not built or no
+	 *         longer valid
+	 */
+	private RankIndex rankIndex() {
+		if (rankIndex != null && rankIndexModCount != modCount)
+			rankIndex = null;
+		return rankIndex;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public ConciseSet intersection(IntSet other) {
+		final long start = IntSetMetrics.start();
+		final ConciseSet res;
 		if (isEmpty() || other == null || other.isEmpty())
-			return empty();
-		if (other == this)
-			return clone();
-		return performOperation(convert(other), Operator.AND);
+			res = empty();
+		else if (other == this)
+			res = clone();
+		else
+			res = performOperation(convert(other), Operator.AND);
+		IntSetMetrics.record(Operation.INTERSECTION, start, size, cachedSize(other), res);
+		return res;
 	}
 
 	/**
@@ -1331,9 +1895,14 @@ public class ConciseSet extends AbstractIntSet implements java.io.Serializable {
 	 */
 	@Override
 	public ConciseSet union(IntSet other) {
+		final long start = IntSetMetrics.start();
+		final ConciseSet res;
 		if (other == null || other.isEmpty() || other == this)
-			return clone();
-		return performOperation(convert(other), Operator.OR);
+			res = clone();
+		else
+			res = performOperation(convert(other), Operator.OR);
+		IntSetMetrics.record(Operation.UNION, start, size, cachedSize(other), res);
+		return res;
 	}
 
 	/**
@@ -1341,11 +1910,16 @@ public class ConciseSet extends AbstractIntSet implements java.io.Serializable {
 	 */
 	@Override
 	public ConciseSet difference(IntSet  other) {
+		final long start = IntSetMetrics.start();
+		final ConciseSet res;
 		if (other == this)
-			return empty();
-		if (other == null || other.isEmpty())
-			return clone();
-		return performOperation(convert(other), Operator.ANDNOT);
+			res = empty();
+		else if (other == null || other.isEmpty())
+			res = clone();
+		else
+			res = performOperation(convert(other), Operator.ANDNOT);
+		IntSetMetrics.record(Operation.DIFFERENCE, start, size, cachedSize(other), res);
+		return res;
 	}
 
 	/**
@@ -1353,11 +1927,16 @@ public class ConciseSet extends AbstractIntSet implements java.io.Serializable {
 	 */
 	@Override
 	public ConciseSet symmetricDifference(IntSet other) {
+		final long start = IntSetMetrics.start();
+		final ConciseSet res;
 		if (other == this)
-			return empty();
-		if (other == null || other.isEmpty())
-			return clone();
-		return performOperation(convert(other), Operator.XOR);
+			res = empty();
+		else if (other == null || other.isEmpty())
+			res = clone();
+		else
+			res = performOperation(convert(other), Operator.XOR);
+		IntSetMetrics.record(Operation.SYMMETRIC_DIFFERENCE, start, size, cachedSize(other), res);
+		return res;
 	}
 
 	/**
@@ -1792,6 +2371,7 @@ public class ConciseSet extends AbstractIntSet implements java.io.Serializable {
 	 * Convert a given collection to a {@link ConciseSet} instance
 	 */
 	private ConciseSet convert(IntSet c) {
+		c = unwrap(c);
 		if (c instanceof ConciseSet && simulateWAH == ((ConciseSet) c).simulateWAH)
 			return (ConciseSet) c;
 		if (c == null)
@@ -2373,26 +2953,43 @@ public class ConciseSet extends AbstractIntSet implements java.io.Serializable {
 	@Override
 	public int size() {
 		if (size < 0) {
-			size = 0;
+			// count in a local variable, so that concurrent readers of a
+			// shared instance never see a partial count
+			int res = 0;
 			for (int i = 0; i <= lastWordIndex; i++) {
 				int w = words[i];
 				if (isLiteral(w)) {
-					size += getLiteralBitCount(w);
+					res += getLiteralBitCount(w);
 				} else {
 					if (isZeroSequence(w)) {
 						if (!isSequenceWithNoBits(w))
-							size++;
+							res++;
 					} else {
-						size += maxLiteralLengthMultiplication(getSequenceCount(w) + 1);
+						res += maxLiteralLengthMultiplication(getSequenceCount(w) + 1);
 						if (!isSequenceWithNoBits(w))
-							size--;
+							res--;
 					}
 				}
 			}
+			size = res;
 		}
 		return size;
 	}
 
+	/**
+	 * Gets the cardinality of an operand for {@link IntSetMetrics}, without
+	 * computing it, so that recording an operation never modifies operands
+	 * that may be shared among threads
+	 * 
+	 * @param s
+	 *            the operand
+	 * @return the cardinality, or -1 if not known yet
+	 * @see IntSetMetrics#knownSize(IntSet)
+	 */
+	private static int cachedSize(IntSet s) {
+		return s instanceof ConciseSet ? ((ConciseSet) s).size : IntSetMetrics.knownSize(s);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -2602,6 +3199,17 @@ public class ConciseSet extends AbstractIntSet implements java.io.Serializable {
 		return (double) (lastWordIndex + 1) / size();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long sizeInBytes() {
+		// words, last, size, lastWordIndex, modCount, simulateWAH, and rank index
+		final RankIndex r = rankIndex();
+		return SizeOf.object(2 * SizeOf.REFERENCE + 5 * 4 + 1) + SizeOf.array(words)
+				+ (r == null ? 0 : r.sizeInBytes());
+	}
+
 	/*
 	 * DEBUGGING METHODS
 	 */
@@ -21,6 +21,7 @@ package it.uniroma3.mat.extendedset.intset;
 
 
 import it.uniroma3.mat.extendedset.utilities.BitCount;
+import it.uniroma3.mat.extendedset.utilities.SizeOf;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
@@ -67,6 +68,9 @@ public class FastSet extends AbstractIntSet implements java.io.Serializable {
 	/** cached set size (only for fast size() call). When -1, the cache is invalid */
 	private transient int size;
 
+	/** rank/select index, <code>null</code> if not built or discarded by a modification */
+	private transient RankIndex rankIndex;
+
 	/**
 	 * Creates a new, empty set. 
 	 */
@@ -132,6 +136,24 @@ public class FastSet extends AbstractIntSet implements java.io.Serializable {
 		words = Arrays.copyOf(words, newLength);
 	}
 
+	/**
+	 * Removes unused allocated words at the end of {@link #words} according to
+	 * the policy of {@link #setTrimThreshold(double)}
+	 */
+	private void compact() {
+		if (shouldTrim(firstEmptyWord, words.length))
+			words = Arrays.copyOf(words, firstEmptyWord);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void trimToSize() {
+		if (firstEmptyWord < words.length)
+			words = Arrays.copyOf(words, firstEmptyWord);
+	}
+
 	/**
 	 * Ensures that the {@link FastSet} can accommodate a given word index
 	 * 
@@ -223,6 +245,7 @@ public class FastSet extends AbstractIntSet implements java.io.Serializable {
 		if (before != words[wordIndex]) {
 			if (size >= 0)
 				size++;
+			rankIndex = null;
 			return true;
 		} 
 		return false;
@@ -244,6 +267,7 @@ public class FastSet extends AbstractIntSet implements java.io.Serializable {
 		if (before != words[wordIndex]) {
 			if (size >= 0)
 				size--;
+			rankIndex = null;
 			fixFirstEmptyWord();
 			return true;
 		} 
@@ -286,8 +310,10 @@ public class FastSet extends AbstractIntSet implements java.io.Serializable {
 					other.words, wordsInCommon, words, 
 					wordsInCommon, firstEmptyWord - wordsInCommon);
 		}
-		if (modified)
+		if (modified) {
 			size = -1;
+			rankIndex = null;
+		}
 		return modified;
 	}
 
@@ -316,7 +342,9 @@ public class FastSet extends AbstractIntSet implements java.io.Serializable {
 		}
 		if (modified) {
 			fixFirstEmptyWord();
+			compact();
 			size = -1;
+			rankIndex = null;
 		}
 		return modified;
 	}
@@ -352,7 +380,9 @@ public class FastSet extends AbstractIntSet implements java.io.Serializable {
 		}
 		if (modified) {
 			fixFirstEmptyWord();
+			compact();
 			size = -1;
+			rankIndex = null;
 		}
 		return modified;
 	}
@@ -365,6 +395,7 @@ public class FastSet extends AbstractIntSet implements java.io.Serializable {
 		words = new int[10];
 		firstEmptyWord = 0;
 		size = 0;
+		rankIndex = null;
 	}
 
 	/**
@@ -699,6 +730,7 @@ public class FastSet extends AbstractIntSet implements java.io.Serializable {
 			return;
 		if (size > 0)
 			size = last() - size + 1;
+		rankIndex = null;
 		int lastWordMask = ALL_ONES_WORD >>> Integer.numberOfLeadingZeros(words[firstEmptyWord - 1]);
 		final int[] localWords = words; 			// faster
 		for (int i = 0; i < firstEmptyWord - 1; i++)
@@ -745,10 +777,20 @@ public class FastSet extends AbstractIntSet implements java.io.Serializable {
 		return (double) firstEmptyWord / size();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long sizeInBytes() {
+		return SizeOf.object(2 * SizeOf.REFERENCE + 2 * 4) + SizeOf.array(words)
+				+ (rankIndex == null ? 0 : rankIndex.sizeInBytes());
+	}
+
 	/**
 	 * Convert a given collection to a {@link FastSet} instance
 	 */
 	private FastSet convert(IntSet c) {
+		c = unwrap(c);
 		if (c instanceof FastSet)
 			return (FastSet) c;
 		if (c == null)
@@ -831,8 +873,10 @@ public class FastSet extends AbstractIntSet implements java.io.Serializable {
 			localWords[endWordIndex] |= lastWordMask;
 			modified = modified || localWords[endWordIndex] != before;
 		}
-		if (modified)
+		if (modified) {
 			size = -1;
+			rankIndex = null;
+		}
 	}
 	
 	/**
@@ -888,7 +932,9 @@ public class FastSet extends AbstractIntSet implements java.io.Serializable {
 		}
 		if (modified) {
 			fixFirstEmptyWord();
+			compact();
 			size = -1;
+			rankIndex = null;
 		}
 	}
 	
@@ -901,6 +947,7 @@ public class FastSet extends AbstractIntSet implements java.io.Serializable {
 		expandTo(wordIndex);
 		int mask = (1 << e);
 		words[wordIndex] ^= mask;
+		rankIndex = null;
 		fixFirstEmptyWord();
 		if (size >= 0) {
 			if ((words[wordIndex] & mask) == 0) 
@@ -950,8 +997,15 @@ public class FastSet extends AbstractIntSet implements java.io.Serializable {
 			throw new IndexOutOfBoundsException();
 		
 		int count = 0;
+		int j = 0;
+		final RankIndex r = rankIndex;
+		if (r != null && !isEmpty()) {
+			int k = r.sampleByRank(index);
+			count = r.ranks[k];
+			j = k << RankIndex.SAMPLE_SHIFT;
+		}
 		final int[] localWords = words; 			// faster
-		for (int j = 0; j < firstEmptyWord; j++) {
+		for (; j < firstEmptyWord; j++) {
 			int w = localWords[j];
 			int current = BitCount.count(w);
 			if (index < count + current) {
@@ -978,12 +1032,85 @@ public class FastSet extends AbstractIntSet implements java.io.Serializable {
 		int index = wordIndex(e);
 		if (index >= firstEmptyWord || (words[index] & (1 << e)) == 0)
 			return -1;
-		int count = BitCount.count(words, index);
+		int count;
+		final RankIndex r = rankIndex;
+		if (r != null) {
+			count = r.ranks[index >>> RankIndex.SAMPLE_SHIFT];
+			for (int j = index & ~RankIndex.SAMPLE_MASK; j < index; j++)
+				count += BitCount.count(words[j]);
+		} else {
+			count = BitCount.count(words, index);
+		}
 		count += BitCount.count(words[index] & ~(ALL_ONES_WORD << e));
 		return count;
-		
+	}
+
+	/**
+	 * Builds a rank/select index, so that {@link #indexOf(int)} runs in
+	 * constant time and {@link #get(int)} in logarithmic time, instead of
+	 * linear time. The index takes about one <code>int</code> every 8 words,
+	 * and it is discarded as soon as the set is modified, hence it is meant
+	 * for sets that are no longer changed.
+	 */
+	public void buildRankIndex() {
+		final int[] ranks = new int[RankIndex.samples(firstEmptyWord)];
+		final int[] localWords = words; 			// faster
+		int count = 0;
+		for (int j = 0; j < firstEmptyWord; j++) {
+			if ((j & RankIndex.SAMPLE_MASK) == 0)
+				ranks[j >>> RankIndex.SAMPLE_SHIFT] = count;
+			count += BitCount.count(localWords[j]);
+		}
+		rankIndex = new RankIndex(ranks, null);
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected int rangeSize(int min, int max) {
+		final int startWordIndex = wordIndex(min);
+		if (startWordIndex >= firstEmptyWord)
+			return 0;
+		int endWordIndex = wordIndexNoCheck(max);
+		int lastWordMask = ALL_ONES_WORD >>> -(max + 1);
+		if (endWordIndex >= firstEmptyWord) {
+			endWordIndex = firstEmptyWord - 1;
+			lastWordMask = ALL_ONES_WORD;
+		}
+
+		final int[] localWords = words; // faster
+		final int firstWordMask = ALL_ONES_WORD << min;
+		if (startWordIndex == endWordIndex)
+			return BitCount.count(localWords[startWordIndex] & firstWordMask & lastWordMask);
+		int res = BitCount.count(localWords[startWordIndex] & firstWordMask);
+		for (int i = startWordIndex + 1; i < endWordIndex; i++)
+			res += BitCount.count(localWords[i]);
+		return res + BitCount.count(localWords[endWordIndex] & lastWordMask);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected FastSet rangeCopy(int min, int max) {
+		final int startWordIndex = wordIndex(min);
+		final int endWordIndex = Math.min(wordIndexNoCheck(max), firstEmptyWord - 1);
+		if (startWordIndex > endWordIndex)
+			return empty();
+
+		FastSet res = new FastSet(endWordIndex + 1);
+		final int[] localResWords = res.words; // faster
+		System.arraycopy(words, startWordIndex, localResWords, startWordIndex, endWordIndex - startWordIndex + 1);
+		localResWords[startWordIndex] &= ALL_ONES_WORD << min;
+		if (endWordIndex == wordIndexNoCheck(max))
+			localResWords[endWordIndex] &= ALL_ONES_WORD >>> -(max + 1);
+		res.firstEmptyWord = endWordIndex + 1;
+		res.fixFirstEmptyWord();
+		res.size = -1;
+		return res;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -21,6 +21,7 @@ package it.uniroma3.mat.extendedset.intset;
 // update CompactIdentityHashSet.java, UniqueSet.java and
 // SoftHashMapIndex.java accordingly.
 import it.uniroma3.mat.extendedset.utilities.IntHashCode;
+import it.uniroma3.mat.extendedset.utilities.SizeOf;
 
 import java.util.Arrays;
 import java.util.Collection;
@@ -303,6 +304,33 @@ public class HashIntSet extends AbstractIntSet {
 			rehash((cells.length << 1) + 1);
 	}
 
+	/**
+	 * Rehashes to the smallest size that respects {@link #LOAD_FACTOR}
+	 * according to the policy of {@link #setTrimThreshold(double)}
+	 */
+	protected void compact() {
+		int capacity = minCapacity();
+		if (shouldTrim(capacity, cells.length))
+			rehash(capacity);
+	}
+
+	/**
+	 * @return the smallest capacity that respects {@link #LOAD_FACTOR}
+	 */
+	private int minCapacity() {
+		return Math.max(INITIAL_SIZE, (int) Math.ceil(size / LOAD_FACTOR) + 1);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void trimToSize() {
+		int capacity = minCapacity();
+		if (capacity < cells.length)
+			rehash(capacity);
+	}
+
 	/**
 	 * Rehashes to a bigger size.
 	 */
@@ -488,6 +516,8 @@ public class HashIntSet extends AbstractIntSet {
 		boolean res = false;
 		while (itr.hasNext())
 			res |= remove(itr.next());
+		if (res)
+			compact();
 		return res;
 	}
 
@@ -505,8 +535,10 @@ public class HashIntSet extends AbstractIntSet {
 				res = true;
 				size--;
 			}
-		if (res)
+		if (res) {
 			modCount++;
+			compact();
+		}
 		return res;
 	}
 
@@ -541,6 +573,14 @@ public class HashIntSet extends AbstractIntSet {
 		return isEmpty() ? 0D : (double) cells.length / size();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long sizeInBytes() {
+		return SizeOf.object(SizeOf.REFERENCE + 3 * 4) + SizeOf.array(cells);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
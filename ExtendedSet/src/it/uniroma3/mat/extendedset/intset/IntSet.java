@@ -21,12 +21,14 @@ package it.uniroma3.mat.extendedset.intset;
 
 import it.uniroma3.mat.extendedset.ExtendedSet;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.stream.Stream;
 
 /**
  * Very similar to {@link ExtendedSet} but for the primitive <code>int</code>
@@ -232,6 +234,80 @@ public interface IntSet extends Cloneable, Comparable<IntSet> {
 	 */
 	public double collectionCompressionRatio();
 
+	/**
+	 * Estimates the heap space retained by the set, in bytes. Differently from
+	 * {@link #bitmapCompressionRatio()} and
+	 * {@link #collectionCompressionRatio()}, it also accounts for object
+	 * headers and for allocated but unused space of internal arrays.
+	 * 
+	 * @return the estimated memory footprint, in bytes
+	 */
+	public long sizeInBytes();
+
+	/**
+	 * Releases the allocated but unused space of internal arrays, if any.
+	 * <p>
+	 * Internal arrays grow geometrically, hence sets built through
+	 * {@link #add(int)} may retain a considerable amount of unused memory. It
+	 * is useful to call this method on sets that are not going to be modified
+	 * anymore, for example before caching them.
+	 * 
+	 * @see AbstractIntSet#setTrimThreshold(double)
+	 */
+	public void trimToSize();
+
+	/**
+	 * Gets the read-only version of the current set. The returned set is a
+	 * view, hence changes to the current set are reflected in it.
+	 * 
+	 * @return the read-only version of the current set
+	 */
+	public IntSet unmodifiable();
+
+	/**
+	 * Gets a read-only view of the portion of the set whose elements range
+	 * from <code>from</code>, inclusive, to <code>to</code>, exclusive. Changes
+	 * to the current set are reflected in the view.
+	 * <p>
+	 * The cardinality of the view, its intersections with other sets, and the
+	 * sizes of the set operations are computed on the internal representation
+	 * of the current set, restricted to the given range, without copying it.
+	 * Operations that return a new set other than the intersection, namely
+	 * union, difference, symmetric difference and complement, as well as
+	 * {@link #clone()}, work on a copy of the range. A view passed as an
+	 * operand to another set is copied as well.
+	 *
+	 * @param from
+	 *            low endpoint (inclusive) of the view
+	 * @param to
+	 *            high endpoint (exclusive) of the view
+	 * @return the read-only view of the given range
+	 * @throws IllegalArgumentException
+	 *             if <code>from</code> is greater than <code>to</code>
+	 */
+	public IntSet subSet(int from, int to);
+
+	/**
+	 * Gets a read-only view of the portion of the set whose elements are
+	 * strictly less than <code>to</code>. See {@link #subSet(int, int)}.
+	 *
+	 * @param to
+	 *            high endpoint (exclusive) of the view
+	 * @return the read-only view of the given range
+	 */
+	public IntSet headSet(int to);
+
+	/**
+	 * Gets a read-only view of the portion of the set whose elements are
+	 * greater than or equal to <code>from</code>. See
+	 * {@link #subSet(int, int)}.
+	 *
+	 * @param from
+	 *            low endpoint (inclusive) of the view
+	 * @return the read-only view of the given range
+	 */
+	public IntSet tailSet(int from);
+
 	/**
 	 * An {@link Iterator}-like interface that allows to "skip" some elements of
 	 * the set
@@ -579,13 +655,90 @@ public interface IntSet extends Cloneable, Comparable<IntSet> {
 	 */
 	public List<? extends IntSet> powerSet(int min, int max);
 
+	/**
+	 * Iterates over the power-set of the current set, without materializing
+	 * it. The iteration order is the same of {@link #powerSet()}.
+	 *
+	 * @return the iterator over the power-set
+	 * @see #powerSetIterator(int, int, boolean)
+	 */
+	public Iterator<IntSet> powerSetIterator();
+
+	/**
+	 * Iterates over the subsets of the power-set of the current set that have
+	 * cardinality between <code>min</code> and <code>max</code>, without
+	 * materializing them. The iteration order is the same of
+	 * {@link #powerSet(int, int)}.
+	 *
+	 * @param min
+	 *            minimum subset size (greater than zero)
+	 * @param max
+	 *            maximum subset size
+	 * @return the iterator over the power-set
+	 * @see #powerSetIterator(int, int, boolean)
+	 */
+	public Iterator<IntSet> powerSetIterator(int min, int max);
+
+	/**
+	 * Iterates over the subsets of the power-set of the current set that have
+	 * cardinality between <code>min</code> and <code>max</code>, without
+	 * materializing them. The iteration order is the same of
+	 * {@link #powerSet(int, int)}.
+	 * <p>
+	 * When <code>reuse</code> is <code>true</code>, the iterator always
+	 * returns the same instance, modified at each step by removing and adding
+	 * only the elements that differ from the previous subset. Such an instance
+	 * must not be modified, and it must be cloned to be kept.
+	 *
+	 * @param min
+	 *            minimum subset size (greater than zero)
+	 * @param max
+	 *            maximum subset size
+	 * @param reuse
+	 *            <code>true</code> to return the same instance at each step
+	 * @return the iterator over the power-set
+	 * @see #powerSetStream(int, int)
+	 */
+	public Iterator<IntSet> powerSetIterator(int min, int max, boolean reuse);
+
+	/**
+	 * Streams the power-set of the current set, without materializing it. The
+	 * stream order is the same of {@link #powerSet()}.
+	 *
+	 * @return the stream of the power-set
+	 * @see #powerSetStream(int, int)
+	 */
+	public Stream<IntSet> powerSetStream();
+
+	/**
+	 * Streams the subsets of the power-set of the current set that have
+	 * cardinality between <code>min</code> and <code>max</code>, without
+	 * materializing them. The stream order is the same of
+	 * {@link #powerSet(int, int)}.
+	 * <p>
+	 * When the number of subsets fits a <code>long</code>, the stream is
+	 * sized and it can be split at any position to be processed in parallel,
+	 * since the subset at a given position is computed directly through the
+	 * combinatorial number system.
+	 *
+	 * @param min
+	 *            minimum subset size (greater than zero)
+	 * @param max
+	 *            maximum subset size
+	 * @return the stream of the power-set
+	 * @see #powerSetIterator(int, int, boolean)
+	 */
+	public Stream<IntSet> powerSetStream(int min, int max);
+
 	/**
 	 * Computes the power-set size of the current set.
 	 * <p>
 	 * The power-set does <i>not</i> contains the empty set.
-	 * 
-	 * @return the power-set size
+	 *
+	 * @return the power-set size, or {@link Integer#MAX_VALUE} if it is
+	 *         greater
 	 * @see #powerSet()
+	 * @see #powerSetBigSize()
 	 */
 	public int powerSetSize();
 
@@ -594,16 +747,42 @@ public interface IntSet extends Cloneable, Comparable<IntSet> {
 	 * that have cardinality between <code>min</code> and <code>max</code>.
 	 * <p>
 	 * The returned power-set does <i>not</i> contain the empty set.
-	 * 
+	 *
 	 * @param min
 	 *            minimum subset size (greater than zero)
 	 * @param max
 	 *            maximum subset size
-	 * @return the power-set size
+	 * @return the power-set size, or {@link Integer#MAX_VALUE} if it is
+	 *         greater
 	 * @see #powerSet(int, int)
+	 * @see #powerSetBigSize(int, int)
 	 */
 	public int powerSetSize(int min, int max);
 
+	/**
+	 * Computes the power-set size of the current set, without overflows.
+	 * <p>
+	 * The power-set does <i>not</i> contains the empty set.
+	 *
+	 * @return the power-set size
+	 * @see #powerSetSize()
+	 */
+	public BigInteger powerSetBigSize();
+
+	/**
+	 * Computes the power-set size of the current set, composed by those subsets
+	 * that have cardinality between <code>min</code> and <code>max</code>,
+	 * without overflows.
+	 *
+	 * @param min
+	 *            minimum subset size (greater than zero)
+	 * @param max
+	 *            maximum subset size
+	 * @return the power-set size
+	 * @see #powerSetSize(int, int)
+	 */
+	public BigInteger powerSetBigSize(int min, int max);
+
 	/**
 	 * Computes the Jaccard similarity coefficient between this set and the
 	 * given set.
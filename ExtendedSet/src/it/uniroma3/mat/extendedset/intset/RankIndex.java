@@ -0,0 +1,121 @@
+/*
+ * (c) 2026 ExtendedSet contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.uniroma3.mat.extendedset.intset;
+
+import it.uniroma3.mat.extendedset.utilities.SizeOf;
+
+/**
+ * Rank/select auxiliary structure for bitmap-based sets. It samples, every
+ * {@link #SAMPLE_WORDS} words, the number of set bits that precede the word
+ * and the first block (namely, a group of bits represented by a literal word)
+ * covered by the word.
+ * <p>
+ * The rank of an element only requires a sample lookup plus the scan of at
+ * most {@link #SAMPLE_WORDS} words, while the selection of the
+ * <code>i</code>-th element requires a binary search over the samples.
+ *
+ * @author ExtendedSet contributors
+ * @version $Id$
+ * @see FastSet#buildRankIndex()
+ * @see ConciseSet#buildRankIndex()
+ */
+final class RankIndex {
+	/** bits of the number of words between two consecutive samples */
+	final static int SAMPLE_SHIFT = 3;
+
+	/** number of words between two consecutive samples */
+	final static int SAMPLE_WORDS = 1 << SAMPLE_SHIFT;
+
+	/** mask to check whether a word is sampled */
+	final static int SAMPLE_MASK = SAMPLE_WORDS - 1;
+
+	/** <code>ranks[k]</code> is the number of set bits before the word <code>k * SAMPLE_WORDS</code> */
+	final int[] ranks;
+
+	/**
+	 * <code>blocks[k]</code> is the first block represented by the word
+	 * <code>k * SAMPLE_WORDS</code>, or <code>null</code> when each word
+	 * represents exactly one block
+	 */
+	final int[] blocks;
+
+	/**
+	 * @param ranks
+	 *            see {@link #ranks}
+	 * @param blocks
+	 *            see {@link #blocks}
+	 */
+	RankIndex(int[] ranks, int[] blocks) {
+		this.ranks = ranks;
+		this.blocks = blocks;
+	}
+
+	/**
+	 * @param words
+	 *            number of words to sample
+	 * @return the number of samples
+	 */
+	static int samples(int words) {
+		return (words + SAMPLE_MASK) >>> SAMPLE_SHIFT;
+	}
+
+	/**
+	 * @param values
+	 *            sampled values, in ascending order
+	 * @param value
+	 *            value to look for
+	 * @return the greatest sample not greater than <code>value</code>
+	 */
+	private static int floor(int[] values, int value) {
+		int low = 0;
+		int high = values.length - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (values[mid] <= value)
+				low = mid;
+			else
+				high = mid - 1;
+		}
+		return low;
+	}
+
+	/**
+	 * @param i
+	 *            rank of an element
+	 * @return the last sample that precedes the <code>i</code>-th element
+	 */
+	int sampleByRank(int i) {
+		return floor(ranks, i);
+	}
+
+	/**
+	 * @param block
+	 *            block index
+	 * @return the last sample that precedes the given block. It requires
+	 *         {@link #blocks}.
+	 */
+	int sampleByBlock(int block) {
+		return floor(blocks, block);
+	}
+
+	/**
+	 * @return memory footprint, in bytes
+	 */
+	long sizeInBytes() {
+		return SizeOf.object(2 * SizeOf.REFERENCE) + SizeOf.array(ranks) + (blocks == null ? 0 : SizeOf.array(blocks));
+	}
+}
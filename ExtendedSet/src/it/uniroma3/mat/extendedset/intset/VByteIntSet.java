@@ -0,0 +1,1117 @@
+/*
+ * (c) 2026 ExtendedSet contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package it.uniroma3.mat.extendedset.intset;
+
+
+import it.uniroma3.mat.extendedset.utilities.SizeOf;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * {@link IntSet}-based class internally managed by a sorted sequence of
+ * <code>int</code>s, stored as differences between consecutive elements
+ * (<i>deltas</i>) encoded with a variable number of bytes.
+ * <p>
+ * Elements are grouped in blocks of {@link #BLOCK_SIZE} elements. For each
+ * block, the first element and the offset of the first encoded delta are kept
+ * in a <i>skip table</i>, so that {@link #contains(int)},
+ * {@link #indexOf(int)}, {@link #get(int)} and
+ * {@link IntSet.IntIterator#skipAllBefore(int)} only decode a single block.
+ * <p>
+ * It is intended for very sparse sets, where small deltas require 1 or 2
+ * bytes per element instead of the 4 bytes of {@link ArraySet} or the
+ * (at least) one word per element of {@link ConciseSet}. Appending elements
+ * greater than {@link #last()} is cheap, while inserting or removing elements
+ * in the middle requires re-encoding all subsequent blocks.
+ *
+ * @author ExtendedSet contributors
+ * @version $Id$
+ */
+public class VByteIntSet extends AbstractIntSet implements Serializable {
+	/** generated serial ID */
+	private static final long serialVersionUID = -2618441563946578297L;
+
+	/** base-2 logarithm of {@link #BLOCK_SIZE} */
+	private final static int BLOCK_SHIFT = 7;
+
+	/** number of elements within each block */
+	private final static int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+	/** mask to get the position of an element within its block */
+	private final static int BLOCK_MASK = BLOCK_SIZE - 1;
+
+	/** encoded deltas */
+	private byte[] data;
+
+	/** number of used bytes in {@link #data} */
+	private int dataSize;
+
+	/** first element of each block */
+	private int[] blockFirst;
+
+	/** offset within {@link #data} of the first delta of each block */
+	private int[] blockOffset;
+
+	/** set cardinality */
+	private int size;
+
+	/** greatest element of the set */
+	private transient int last;
+
+	/**
+	 * Empty-set constructor
+	 */
+	public VByteIntSet() {
+		clear();
+	}
+
+	/**
+	 * Replace the content of the current instance with the content of another
+	 * instance
+	 *
+	 * @param other
+	 */
+	private void replaceWith(VByteIntSet other) {
+		data = other.data;
+		dataSize = other.dataSize;
+		blockFirst = other.blockFirst;
+		blockOffset = other.blockOffset;
+		size = other.size;
+		last = other.last;
+	}
+
+	/**
+	 * @return number of blocks
+	 */
+	private int blockCount() {
+		return (size + BLOCK_MASK) >>> BLOCK_SHIFT;
+	}
+
+	/**
+	 * Finds the block that may contain the given element
+	 *
+	 * @param e
+	 *            element to look for
+	 * @return index of the last block whose first element is less than or
+	 *         equal to <code>e</code>, or <code>-1</code> if <code>e</code> is
+	 *         less than the first element of the set
+	 */
+	private int findBlock(int e) {
+		int b = Arrays.binarySearch(blockFirst, 0, blockCount(), e);
+		if (b < 0)
+			b = -(b + 1) - 1;
+		return b;
+	}
+
+	/**
+	 * Assures that {@link #data} can contain at least the given number of
+	 * bytes
+	 *
+	 * @param capacity
+	 *            number of required bytes
+	 */
+	private void ensureDataCapacity(int capacity) {
+		if (data == null) {
+			data = new byte[Math.max(capacity, 16)];
+			return;
+		}
+		if (data.length >= capacity)
+			return;
+		data = Arrays.copyOf(data, Math.max(data.length << 1, capacity));
+	}
+
+	/**
+	 * Assures that the skip table can contain at least the given number of
+	 * blocks
+	 *
+	 * @param capacity
+	 *            number of required blocks
+	 */
+	private void ensureBlockCapacity(int capacity) {
+		if (blockFirst == null) {
+			blockFirst = new int[Math.max(capacity, 1)];
+			blockOffset = new int[blockFirst.length];
+			return;
+		}
+		if (blockFirst.length >= capacity)
+			return;
+		int newCapacity = Math.max(blockFirst.length << 1, capacity);
+		blockFirst = Arrays.copyOf(blockFirst, newCapacity);
+		blockOffset = Arrays.copyOf(blockOffset, newCapacity);
+	}
+
+	/**
+	 * Removes unused allocated bytes and blocks according to the policy of
+	 * {@link #setTrimThreshold(double)}
+	 */
+	private void compact() {
+		if (size == 0) {
+			clear();
+			return;
+		}
+		if (data != null && shouldTrim(dataSize, data.length))
+			data = Arrays.copyOf(data, dataSize);
+		int blocks = blockCount();
+		if (shouldTrim(blocks, blockFirst.length)) {
+			blockFirst = Arrays.copyOf(blockFirst, blocks);
+			blockOffset = Arrays.copyOf(blockOffset, blocks);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void trimToSize() {
+		if (size == 0) {
+			clear();
+			return;
+		}
+		if (data != null && dataSize < data.length)
+			data = Arrays.copyOf(data, dataSize);
+		int blocks = blockCount();
+		if (blocks < blockFirst.length) {
+			blockFirst = Arrays.copyOf(blockFirst, blocks);
+			blockOffset = Arrays.copyOf(blockOffset, blocks);
+		}
+	}
+
+	/**
+	 * Appends an element greater than {@link #last()}
+	 *
+	 * @param e
+	 *            element to append
+	 */
+	private void append(int e) {
+		if ((size & BLOCK_MASK) == 0) {
+			// start a new block
+			int b = size >>> BLOCK_SHIFT;
+			ensureBlockCapacity(b + 1);
+			blockFirst[b] = e;
+			blockOffset[b] = dataSize;
+		} else {
+			// encode the delta
+			int delta = e - last;
+			ensureDataCapacity(dataSize + 5);
+			final byte[] d = data; // faster
+			while ((delta & ~0x7F) != 0) {
+				d[dataSize++] = (byte) ((delta & 0x7F) | 0x80);
+				delta >>>= 7;
+			}
+			d[dataSize++] = (byte) delta;
+		}
+		last = e;
+		size++;
+	}
+
+	/**
+	 * Decodes the elements of the given block
+	 *
+	 * @param b
+	 *            block index
+	 * @param buffer
+	 *            where to put elements, of at least {@link #BLOCK_SIZE}
+	 *            elements
+	 * @return number of decoded elements
+	 */
+	private int decodeBlock(int b, int[] buffer) {
+		final byte[] d = data; // faster
+		final int count = Math.min(BLOCK_SIZE, size - (b << BLOCK_SHIFT));
+		int pos = blockOffset[b];
+		int e = blockFirst[b];
+		buffer[0] = e;
+		for (int i = 1; i < count; i++) {
+			int delta = 0;
+			int shift = 0;
+			byte v;
+			do {
+				v = d[pos++];
+				delta |= (v & 0x7F) << shift;
+				shift += 7;
+			} while (v < 0);
+			e += delta;
+			buffer[i] = e;
+		}
+		return count;
+	}
+
+	/**
+	 * Decodes all the elements of the set starting from the given block
+	 *
+	 * @param b
+	 *            first block to decode
+	 * @return decoded elements
+	 */
+	private int[] decodeFrom(int b) {
+		int[] res = new int[size - (b << BLOCK_SHIFT)];
+		int[] buffer = new int[BLOCK_SIZE];
+		int n = 0;
+		for (int i = b; i < blockCount(); i++) {
+			int count = decodeBlock(i, buffer);
+			System.arraycopy(buffer, 0, res, n, count);
+			n += count;
+		}
+		return res;
+	}
+
+	/**
+	 * Removes all the blocks starting from the given one
+	 *
+	 * @param b
+	 *            first block to remove
+	 */
+	private void truncate(int b) {
+		if (b == 0) {
+			size = 0;
+			dataSize = 0;
+			return;
+		}
+		// "last" is not required, since the next append starts a new block
+		size = b << BLOCK_SHIFT;
+		dataSize = blockOffset[b];
+	}
+
+	/**
+	 * Position of the given element within its block
+	 *
+	 * @param b
+	 *            block that may contain the element
+	 * @param e
+	 *            element to look for
+	 * @return the position within the block, or <code>-1</code> if the
+	 *         element does not exist
+	 */
+	private int positionInBlock(int b, int e) {
+		final byte[] d = data; // faster
+		final int count = Math.min(BLOCK_SIZE, size - (b << BLOCK_SHIFT));
+		int pos = blockOffset[b];
+		int x = blockFirst[b];
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				int delta = 0;
+				int shift = 0;
+				byte v;
+				do {
+					v = d[pos++];
+					delta |= (v & 0x7F) << shift;
+					shift += 7;
+				} while (v < 0);
+				x += delta;
+			}
+			if (x == e)
+				return i;
+			if (x > e)
+				return -1;
+		}
+		return -1;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double bitmapCompressionRatio() {
+		if (isEmpty())
+			return 0D;
+		return (dataSize + (blockCount() << 3)) / 4D / Math.ceil((last + 1) / 32D);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public double collectionCompressionRatio() {
+		if (isEmpty())
+			return 0D;
+		return (dataSize + (blockCount() << 3)) / 4D / size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long sizeInBytes() {
+		return SizeOf.object(3 * SizeOf.REFERENCE + 3 * 4)
+				+ SizeOf.array(data)
+				+ SizeOf.array(blockFirst)
+				+ SizeOf.array(blockOffset);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public VByteIntSet empty() {
+		return new VByteIntSet();
+	}
+
+	/**
+	 * Iterator over the elements of the set
+	 */
+	private class BitIterator implements IntIterator {
+		/** index of the next element to return */
+		private int nextIndex;
+
+		/** next element to return */
+		private int nextValue;
+
+		/** position within {@link VByteIntSet#data} of the next delta */
+		private int pos;
+
+		/** last returned element */
+		private int current;
+
+		/** <code>true</code> if {@link #current} can be removed */
+		private boolean removable;
+
+		BitIterator() {
+			seek(0);
+		}
+
+		/**
+		 * Moves the iterator to the given position
+		 *
+		 * @param index
+		 *            index of the next element to return
+		 */
+		private void seek(int index) {
+			nextIndex = index & ~BLOCK_MASK;
+			if (nextIndex >= size)
+				return;
+			int b = nextIndex >>> BLOCK_SHIFT;
+			nextValue = blockFirst[b];
+			pos = blockOffset[b];
+			while (nextIndex < index)
+				advance();
+		}
+
+		/**
+		 * Moves to the next element
+		 */
+		private void advance() {
+			nextIndex++;
+			if (nextIndex >= size)
+				return;
+			if ((nextIndex & BLOCK_MASK) == 0) {
+				int b = nextIndex >>> BLOCK_SHIFT;
+				nextValue = blockFirst[b];
+				pos = blockOffset[b];
+				return;
+			}
+			final byte[] d = data; // faster
+			int delta = 0;
+			int shift = 0;
+			byte v;
+			do {
+				v = d[pos++];
+				delta |= (v & 0x7F) << shift;
+				shift += 7;
+			} while (v < 0);
+			nextValue += delta;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nextIndex < size;
+		}
+
+		@Override
+		public int next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			current = nextValue;
+			removable = true;
+			advance();
+			return current;
+		}
+
+		@Override
+		public void skipAllBefore(int e) {
+			if (!hasNext() || e <= nextValue)
+				return;
+			removable = false;
+			if (e > last) {
+				nextIndex = size;
+				return;
+			}
+			int b = findBlock(e);
+			if (b > (nextIndex >>> BLOCK_SHIFT))
+				seek(b << BLOCK_SHIFT);
+			while (hasNext() && nextValue < e)
+				advance();
+		}
+
+		@Override
+		public void remove() {
+			if (!removable)
+				throw new IllegalStateException();
+			removable = false;
+			int index = nextIndex - 1;
+			VByteIntSet.this.remove(current);
+			seek(index);
+		}
+	}
+
+	/**
+	 * Iterator over the elements of the set in reverse order
+	 */
+	private class ReverseBitIterator implements IntIterator {
+		/** decoded elements of the current block */
+		private final int[] buffer = new int[BLOCK_SIZE];
+
+		/** current block */
+		private int block;
+
+		/** position within {@link #buffer} of the next element to return */
+		private int next;
+
+		/** last returned element */
+		private int current;
+
+		/** <code>true</code> if {@link #current} can be removed */
+		private boolean removable;
+
+		ReverseBitIterator() {
+			load(blockCount() - 1);
+		}
+
+		/**
+		 * Decodes the given block and moves to its last element
+		 *
+		 * @param b
+		 *            block to decode
+		 */
+		private void load(int b) {
+			block = b;
+			next = b < 0 ? -1 : decodeBlock(b, buffer) - 1;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next >= 0;
+		}
+
+		@Override
+		public int next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			current = buffer[next--];
+			removable = true;
+			if (next < 0 && block > 0)
+				load(block - 1);
+			return current;
+		}
+
+		@Override
+		public void skipAllBefore(int e) {
+			if (!hasNext() || e >= buffer[next])
+				return;
+			removable = false;
+			int b = findBlock(e);
+			if (b < 0) {
+				next = -1;
+				return;
+			}
+			if (b < block)
+				load(b);
+			while (next >= 0 && buffer[next] > e)
+				next--;
+		}
+
+		@Override
+		public void remove() {
+			if (!removable)
+				throw new IllegalStateException();
+			removable = false;
+			int index = (block << BLOCK_SHIFT) + next + 1;
+			VByteIntSet.this.remove(current);
+			if (index <= 0) {
+				next = -1;
+				return;
+			}
+			load((index - 1) >>> BLOCK_SHIFT);
+			next = (index - 1) & BLOCK_MASK;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IntIterator iterator() {
+		return new BitIterator();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IntIterator descendingIterator() {
+		return new ReverseBitIterator();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public VByteIntSet clone() {
+		// NOTE: do not use super.clone() since it is 10 times slower!
+		VByteIntSet c = empty();
+		if (!isEmpty()) {
+			c.data = data == null ? null : Arrays.copyOf(data, dataSize);
+			c.dataSize = dataSize;
+			c.blockFirst = Arrays.copyOf(blockFirst, blockCount());
+			c.blockOffset = Arrays.copyOf(blockOffset, blockCount());
+			c.size = size;
+			c.last = last;
+		}
+		return c;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String debugInfo() {
+		return String.format("elements: %s\nsize: %d, blocks: %d, bytes: %d (allocated: %d)\n",
+				toString(),
+				size,
+				blockCount(),
+				dataSize,
+				data == null ? 0 : data.length);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean add(int element) {
+		if (element < 0)
+			throw new IndexOutOfBoundsException(Integer.toString(element));
+
+		// append
+		if (isEmpty() || last < element) {
+			append(element);
+			return true;
+		}
+
+		// insert
+		int b = findBlock(element);
+		if (b >= 0 && positionInBlock(b, element) >= 0)
+			return false;
+		if (b < 0)
+			b = 0;
+		int[] tail = decodeFrom(b);
+		truncate(b);
+		int i = 0;
+		while (i < tail.length && tail[i] < element)
+			append(tail[i++]);
+		append(element);
+		while (i < tail.length)
+			append(tail[i++]);
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean remove(int element) {
+		if (isEmpty() || element < 0 || element > last)
+			return false;
+		int b = findBlock(element);
+		if (b < 0 || positionInBlock(b, element) < 0)
+			return false;
+
+		int[] tail = decodeFrom(b);
+		truncate(b);
+		for (int e : tail)
+			if (e != element)
+				append(e);
+		if (!isEmpty() && last == element) {
+			// the greatest element has been removed
+			last = get(size - 1);
+		}
+		compact();
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean contains(int element) {
+		if (isEmpty() || element < 0 || element > last)
+			return false;
+		int b = findBlock(element);
+		return b >= 0 && positionInBlock(b, element) >= 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int get(int i) {
+		if (i < 0 || i >= size)
+			throw new IndexOutOfBoundsException(Integer.toString(i));
+		BitIterator itr = new BitIterator();
+		itr.seek(i);
+		return itr.nextValue;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int indexOf(int e) {
+		if (e < 0)
+			throw new IllegalArgumentException("positive integer expected: " + Integer.toString(e));
+		if (isEmpty() || e > last)
+			return -1;
+		int b = findBlock(e);
+		if (b < 0)
+			return -1;
+		int pos = positionInBlock(b, e);
+		if (pos < 0)
+			return -1;
+		return (b << BLOCK_SHIFT) + pos;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int first() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		return blockFirst[0];
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int last() {
+		if (isEmpty())
+			throw new NoSuchElementException();
+		return last;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void clear() {
+		data = null;
+		dataSize = 0;
+		blockFirst = null;
+		blockOffset = null;
+		size = 0;
+		last = -1;
+	}
+
+	/**
+	 * Convert a generic {@link IntSet} instance to a {@link VByteIntSet}
+	 * instance
+	 *
+	 * @param c
+	 * @return
+	 */
+	private VByteIntSet convert(IntSet c) {
+		c = unwrap(c);
+		if (c instanceof VByteIntSet)
+			return (VByteIntSet) c;
+
+		VByteIntSet res = empty();
+		IntIterator itr = c.iterator();
+		while (itr.hasNext())
+			res.append(itr.next());
+		return res;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public VByteIntSet convert(int... a) {
+		VByteIntSet res = empty();
+		if (a != null && a.length > 0) {
+			a = Arrays.copyOf(a, a.length);
+			Arrays.sort(a);
+			if (a[0] < 0)
+				throw new ArrayIndexOutOfBoundsException(Integer.toString(a[0]));
+			for (int i : a)
+				if (res.isEmpty() || res.last != i)
+					res.append(i);
+		}
+		return res;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public VByteIntSet convert(Collection<Integer> c) {
+		VByteIntSet res = empty();
+		if (c != null && !c.isEmpty()) {
+			Collection<Integer> sorted;
+			if (c instanceof SortedSet<?> && ((SortedSet<?>) c).comparator() == null) {
+				sorted = c;
+			} else {
+				sorted = new ArrayList<Integer>(c);
+				Collections.sort((List<Integer>) sorted);
+			}
+			int first = sorted.iterator().next();
+			if (first < 0)
+				throw new ArrayIndexOutOfBoundsException(Integer.toString(first));
+			for (int i : sorted)
+				if (res.isEmpty() || res.last != i)
+					res.append(i);
+		}
+		return res;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public VByteIntSet intersection(IntSet other) {
+		VByteIntSet res = empty();
+		if (isEmpty() || other == null || other.isEmpty())
+			return res;
+		if (this == other)
+			return clone();
+
+		IntIterator thisItr = iterator();
+		IntIterator otherItr = other.iterator();
+		int thisValue = thisItr.next();
+		int otherValue = otherItr.next();
+		for (;;) {
+			if (thisValue < otherValue) {
+				if (!thisItr.hasNext())
+					break;
+				thisItr.skipAllBefore(otherValue);
+				if (!thisItr.hasNext())
+					break;
+				thisValue = thisItr.next();
+			} else if (thisValue > otherValue) {
+				if (!otherItr.hasNext())
+					break;
+				otherItr.skipAllBefore(thisValue);
+				if (!otherItr.hasNext())
+					break;
+				otherValue = otherItr.next();
+			} else {
+				res.append(thisValue);
+				if (!thisItr.hasNext() || !otherItr.hasNext())
+					break;
+				thisValue = thisItr.next();
+				otherValue = otherItr.next();
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int intersectionSize(IntSet other) {
+		if (isEmpty() || other == null || other.isEmpty())
+			return 0;
+		if (this == other)
+			return size();
+
+		int res = 0;
+		IntIterator thisItr = iterator();
+		IntIterator otherItr = other.iterator();
+		int thisValue = thisItr.next();
+		int otherValue = otherItr.next();
+		for (;;) {
+			if (thisValue < otherValue) {
+				if (!thisItr.hasNext())
+					break;
+				thisItr.skipAllBefore(otherValue);
+				if (!thisItr.hasNext())
+					break;
+				thisValue = thisItr.next();
+			} else if (thisValue > otherValue) {
+				if (!otherItr.hasNext())
+					break;
+				otherItr.skipAllBefore(thisValue);
+				if (!otherItr.hasNext())
+					break;
+				otherValue = otherItr.next();
+			} else {
+				res++;
+				if (!thisItr.hasNext() || !otherItr.hasNext())
+					break;
+				thisValue = thisItr.next();
+				otherValue = otherItr.next();
+			}
+		}
+		return res;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public VByteIntSet union(IntSet other) {
+		if (this == other || other == null || other.isEmpty())
+			return clone();
+		if (isEmpty())
+			return convert(other).clone();
+
+		VByteIntSet res = empty();
+		IntIterator thisItr = iterator();
+		IntIterator otherItr = other.iterator();
+		int thisValue = thisItr.next();
+		int otherValue = otherItr.next();
+		for (;;) {
+			if (thisValue < otherValue) {
+				res.append(thisValue);
+				if (!thisItr.hasNext()) {
+					res.append(otherValue);
+					break;
+				}
+				thisValue = thisItr.next();
+			} else if (thisValue > otherValue) {
+				res.append(otherValue);
+				if (!otherItr.hasNext()) {
+					res.append(thisValue);
+					break;
+				}
+				otherValue = otherItr.next();
+			} else {
+				res.append(thisValue);
+				if (!thisItr.hasNext() || !otherItr.hasNext())
+					break;
+				thisValue = thisItr.next();
+				otherValue = otherItr.next();
+			}
+		}
+		while (thisItr.hasNext())
+			res.append(thisItr.next());
+		while (otherItr.hasNext())
+			res.append(otherItr.next());
+		return res;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public VByteIntSet difference(IntSet other) {
+		if (isEmpty() || other == null || other.isEmpty())
+			return clone();
+		if (this == other)
+			return empty();
+
+		VByteIntSet res = empty();
+		IntIterator thisItr = iterator();
+		IntIterator otherItr = other.iterator();
+		int otherValue = otherItr.next();
+		while (thisItr.hasNext()) {
+			int e = thisItr.next();
+			if (otherValue < e) {
+				if (otherItr.hasNext())
+					otherItr.skipAllBefore(e);
+				if (!otherItr.hasNext()) {
+					res.append(e);
+					break;
+				}
+				otherValue = otherItr.next();
+			}
+			if (otherValue != e)
+				res.append(e);
+		}
+		while (thisItr.hasNext())
+			res.append(thisItr.next());
+		return res;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public VByteIntSet symmetricDifference(IntSet other) {
+		if (other == null || other.isEmpty())
+			return clone();
+		if (this == other)
+			return empty();
+		if (isEmpty())
+			return convert(other).clone();
+
+		VByteIntSet res = empty();
+		IntIterator thisItr = iterator();
+		IntIterator otherItr = other.iterator();
+		int thisValue = thisItr.next();
+		int otherValue = otherItr.next();
+		for (;;) {
+			if (thisValue < otherValue) {
+				res.append(thisValue);
+				if (!thisItr.hasNext()) {
+					res.append(otherValue);
+					break;
+				}
+				thisValue = thisItr.next();
+			} else if (thisValue > otherValue) {
+				res.append(otherValue);
+				if (!otherItr.hasNext()) {
+					res.append(thisValue);
+					break;
+				}
+				otherValue = otherItr.next();
+			} else {
+				if (!thisItr.hasNext() || !otherItr.hasNext())
+					break;
+				thisValue = thisItr.next();
+				otherValue = otherItr.next();
+			}
+		}
+		while (thisItr.hasNext())
+			res.append(thisItr.next());
+		while (otherItr.hasNext())
+			res.append(otherItr.next());
+		return res;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public VByteIntSet complemented() {
+		VByteIntSet res = empty();
+		if (isEmpty())
+			return res;
+		IntIterator itr = iterator();
+		int e = itr.next();
+		for (int i = 0; i < last; i++) {
+			if (i < e)
+				res.append(i);
+			else if (itr.hasNext())
+				e = itr.next();
+		}
+		return res;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void complement() {
+		replaceWith(complemented());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean addAll(IntSet c) {
+		if (c == null || c.isEmpty())
+			return false;
+		VByteIntSet res = union(c);
+		boolean r = res.size != size;
+		replaceWith(res);
+		return r;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean retainAll(IntSet c) {
+		if (isEmpty())
+			return false;
+		VByteIntSet res = intersection(c);
+		boolean r = res.size != size;
+		replaceWith(res);
+		return r;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean removeAll(IntSet c) {
+		if (c == null || c.isEmpty() || isEmpty())
+			return false;
+		VByteIntSet res = difference(c);
+		boolean r = res.size != size;
+		replaceWith(res);
+		return r;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof VByteIntSet))
+			return super.equals(obj);
+		final VByteIntSet other = (VByteIntSet) obj;
+		if (size != other.size || last != other.last || dataSize != other.dataSize)
+			return false;
+		for (int i = 0; i < blockCount(); i++)
+			if (blockFirst[i] != other.blockFirst[i])
+				return false;
+		for (int i = 0; i < dataSize; i++)
+			if (data[i] != other.data[i])
+				return false;
+		return true;
+	}
+
+	/**
+	 * Save the state of the instance to a stream
+	 */
+    private void writeObject(ObjectOutputStream s) throws IOException {
+    	trimToSize();
+    	s.defaultWriteObject();
+    }
+
+	/**
+	 * Reconstruct the instance from a stream
+	 */
+    private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
+		s.defaultReadObject();
+		last = size == 0 ? -1 : get(size - 1);
+    }
+}
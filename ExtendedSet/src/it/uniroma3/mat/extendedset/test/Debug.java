@@ -21,6 +21,7 @@ package it.uniroma3.mat.extendedset.test;
 import it.uniroma3.mat.extendedset.ExtendedSet;
 import it.uniroma3.mat.extendedset.ExtendedSet.ExtendedIterator;
 import it.uniroma3.mat.extendedset.intset.*;
+import it.uniroma3.mat.extendedset.utilities.IntSetMetrics;
 import it.uniroma3.mat.extendedset.utilities.IntSetStatistics;
 import it.uniroma3.mat.extendedset.utilities.random.MersenneTwister;
 import it.uniroma3.mat.extendedset.wrappers.GenericExtendedSet;
@@ -1443,6 +1444,7 @@ public class Debug {
 		@Override public void clear(int from, int to) {matrix.clear(toRow(from), toCol(from), toRow(to), toCol(to));}
 		@Override public void clear() {matrix.clear();}
 		@Override public double collectionCompressionRatio() {return matrix.collectionCompressionRatio();}
+		@Override public long sizeInBytes() {return matrix.sizeInBytes();}
 		@Override public void complement() {matrix.complement();}
 		@Override public int complementSize() {return matrix.complementSize();}
 		@Override public IntSet complemented() {return convert(matrix.complemented());}
@@ -1524,6 +1526,9 @@ public class Debug {
 	 * @param args ID of the test to execute
 	 */
 	public static void main(String[] args) {
+		// summaries printed by stress tests require metrics
+		IntSetMetrics.setEnabled(true);
+		
 		// NOTE: the most complete test is TestCase.RANDOM_OPERATION_STRESS
 //		TestCase testCase = TestCase.ADDITION_STRESS;
 //		TestCase testCase = TestCase.REMOVAL_STRESS;
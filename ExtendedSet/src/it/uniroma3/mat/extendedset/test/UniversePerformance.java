@@ -0,0 +1,103 @@
+/*
+ * (c) 2026 ExtendedSet contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.uniroma3.mat.extendedset.test;
+
+import it.uniroma3.mat.extendedset.intset.ConciseSet;
+import it.uniroma3.mat.extendedset.wrappers.IndexedSet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Compares {@link IndexedSet} operations with a foreign collection that is
+ * looked up at each operation against the same operations with a collection
+ * registered to the {@link IndexedSet.Universe} instance. The time to compute
+ * the hash code of the collection is reported as well, as a lower bound of
+ * any check that scans the collection at each operation.
+ *
+ * @author ExtendedSet contributors
+ * @version $Id$
+ */
+public class UniversePerformance {
+	/** number of times to repeat each test */
+	private final static int REPETITIONS = 5;
+
+	/** operations per repetition */
+	private final static int OPERATIONS = 20;
+
+	/** number of items of the universe */
+	private final static int UNIVERSE_SIZE = 1000000;
+
+	/** to avoid dead code elimination */
+	private static volatile long sink = 0;
+
+	/**
+	 * @return the best time per operation, in nanoseconds
+	 */
+	private static double measure(IndexedSet<String> s, Set<String> operand, boolean hash) {
+		double best = Double.MAX_VALUE;
+		for (int r = 0; r < REPETITIONS; r++) {
+			long t = System.nanoTime();
+			for (int i = 0; i < OPERATIONS; i++)
+				sink += hash ? operand.hashCode() : s.intersectionSize(operand);
+			best = Math.min(best, (double) (System.nanoTime() - t) / OPERATIONS);
+		}
+		return best;
+	}
+
+	/**
+	 * TEST
+	 *
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		List<String> items = new ArrayList<String>(UNIVERSE_SIZE);
+		for (int i = 0; i < UNIVERSE_SIZE; i++)
+			items.add("item" + i);
+		IndexedSet.Universe<String> universe = new IndexedSet.Universe<String>(items);
+		Random rnd = new Random(1);
+
+		IndexedSet<String> s = new IndexedSet<String>(new ConciseSet(), universe);
+		List<String> shuffled = new ArrayList<String>(items);
+		Collections.shuffle(shuffled, rnd);
+		s.addAll(shuffled.subList(0, UNIVERSE_SIZE / 10));
+
+		System.out.println("#operand size\tlookup (ns)\thashCode (ns)\tregistered (ns)");
+		for (int size = 100; size <= UNIVERSE_SIZE / 2; size *= 10) {
+			Collections.shuffle(shuffled, rnd);
+			Set<String> operand = new HashSet<String>(shuffled.subList(0, size));
+
+			// warm up
+			measure(s, operand, false);
+			measure(s, operand, true);
+
+			double lookup = measure(s, operand, false);
+			double hash = measure(s, operand, true);
+			universe.register(operand);
+			double registered = measure(s, operand, false);
+			universe.forget(operand);
+
+			System.out.format(Locale.ENGLISH, "%d\t%.0f\t%.0f\t%.0f\n", size, lookup, hash, registered);
+		}
+		System.out.println("\nDone!");
+	}
+}
@@ -0,0 +1,39 @@
+/*
+ * (c) 2026 ExtendedSet contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.uniroma3.mat.extendedset.utilities;
+
+/**
+ * An operation that accepts an <code>int</code> index and an object, used to
+ * scan indexed collections without boxing the index.
+ * 
+ * @author ExtendedSet contributors
+ * @version $Id$
+ * 
+ * @param <T>
+ *            type of the object
+ */
+public interface IntObjConsumer<T> {
+	/**
+	 * Performs the operation
+	 * 
+	 * @param i
+	 *            the index
+	 * @param t
+	 *            the object
+	 */
+	public void accept(int i, T t);
+}
@@ -0,0 +1,535 @@
+/*
+ * (c) 2026 ExtendedSet contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.uniroma3.mat.extendedset.utilities;
+
+import it.uniroma3.mat.extendedset.intset.ArraySet;
+import it.uniroma3.mat.extendedset.intset.HashIntSet;
+import it.uniroma3.mat.extendedset.intset.IntSet;
+import it.uniroma3.mat.extendedset.intset.VByteIntSet;
+
+import java.lang.management.ManagementFactory;
+import java.util.Formatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Thread-safe collector of {@link IntSet} operation metrics: number of calls,
+ * latency and operand-size distributions, and estimated allocated bytes of
+ * results.
+ * <p>
+ * {@link it.uniroma3.mat.extendedset.intset.ConciseSet} records its binary
+ * set operations natively (union, intersection, difference, symmetric
+ * difference and intersection size, including the range-restricted ones).
+ * Other {@link IntSet} implementations record nothing by themselves: wrap
+ * them with {@link IntSetStatistics} to record the operations listed in
+ * {@link Operation}. Single-element methods, such as {@link IntSet#add(int)}
+ * and {@link IntSet#contains(int)}, are never recorded.
+ * <p>
+ * Collection is disabled by default and can be toggled at runtime through
+ * {@link #setEnabled(boolean)} or JMX (see {@link #registerMBean()}). When
+ * disabled, the only cost of an instrumented operation is the read of a
+ * <code>volatile</code> flag, plus the increment of a call counter for
+ * {@link IntSetStatistics} wrappers (see {@link #count(Operation)}).
+ * <p>
+ * Instrumented code follows this pattern:
+ *
+ * <pre>
+ * final long start = IntSetMetrics.start();
+ * IntSet res = ...;
+ * IntSetMetrics.record(Operation.INTERSECTION, start, this, other, res);
+ * </pre>
+ *
+ * @author ExtendedSet contributors
+ * @version $Id$
+ */
+public class IntSetMetrics {
+	/**
+	 * Monitored operations. All of them are recorded by
+	 * {@link IntSetStatistics} wrappers, while
+	 * {@link it.uniroma3.mat.extendedset.intset.ConciseSet} natively records
+	 * {@link #UNION}, {@link #INTERSECTION}, {@link #DIFFERENCE},
+	 * {@link #SYMMETRIC_DIFFERENCE} and {@link #INTERSECTION_SIZE}.
+	 */
+	public enum Operation {
+		/** {@link IntSet#union(IntSet)} and {@link IntSet#addAll(IntSet)} */
+		UNION,
+		/** {@link IntSet#intersection(IntSet)} and {@link IntSet#retainAll(IntSet)} */
+		INTERSECTION,
+		/** {@link IntSet#difference(IntSet)} and {@link IntSet#removeAll(IntSet)} */
+		DIFFERENCE,
+		/** {@link IntSet#symmetricDifference(IntSet)} */
+		SYMMETRIC_DIFFERENCE,
+		/** {@link IntSet#complement()} and {@link IntSet#complemented()} */
+		COMPLEMENT,
+		/** {@link IntSet#unionSize(IntSet)} */
+		UNION_SIZE,
+		/** {@link IntSet#intersectionSize(IntSet)} */
+		INTERSECTION_SIZE,
+		/** {@link IntSet#differenceSize(IntSet)} */
+		DIFFERENCE_SIZE,
+		/** {@link IntSet#symmetricDifferenceSize(IntSet)} */
+		SYMMETRIC_DIFFERENCE_SIZE,
+		/** {@link IntSet#complementSize()} */
+		COMPLEMENT_SIZE,
+		/** {@link IntSet#containsAll(IntSet)} */
+		CONTAINS_ALL,
+		/** {@link IntSet#containsAny(IntSet)} */
+		CONTAINS_ANY,
+		/** {@link IntSet#containsAtLeast(IntSet, int)} */
+		CONTAINS_AT_LEAST,
+		/** {@link IntSet#equals(Object)} */
+		EQUALS,
+		/** {@link IntSet#hashCode()} */
+		HASH_CODE,
+	}
+
+	/**
+	 * Receives a notification for each recorded operation. Implementations
+	 * must be thread-safe and fast, since they are called within the monitored
+	 * operation.
+	 */
+	public interface Listener {
+		/**
+		 * Called when an operation has been recorded
+		 *
+		 * @param operation
+		 *            the operation
+		 * @param nanos
+		 *            elapsed time, in nanoseconds
+		 * @param leftSize
+		 *            cardinality of the left operand, or -1 if not known
+		 * @param rightSize
+		 *            cardinality of the right operand, or -1 if not known or
+		 *            not applicable
+		 * @param allocatedBytes
+		 *            estimated size of the result, or 0 if no set has been
+		 *            created
+		 */
+		void operationRecorded(Operation operation, long nanos, int leftSize, int rightSize, long allocatedBytes);
+	}
+
+	/**
+	 * JMX interface, see {@link IntSetMetrics#registerMBean()}
+	 */
+	public interface IntSetMetricsMXBean {
+		/** @return <code>true</code> if metrics are collected */
+		boolean isEnabled();
+
+		/** @param enabled <code>true</code> to collect metrics */
+		void setEnabled(boolean enabled);
+
+		/** @return number of calls of each operation */
+		Map<String, Long> getCounts();
+
+		/** @return total elapsed time of each operation, in nanoseconds */
+		Map<String, Long> getTotalNanos();
+
+		/** @return estimated bytes allocated by each operation */
+		Map<String, Long> getAllocatedBytes();
+
+		/**
+		 * @param operation
+		 *            name of the operation
+		 * @return latency histogram, see
+		 *         {@link IntSetMetrics#getLatencyHistogram(Operation)}
+		 */
+		long[] latencyHistogram(String operation);
+
+		/**
+		 * @param operation
+		 *            name of the operation
+		 * @return operand-size histogram, see
+		 *         {@link IntSetMetrics#getOperandSizeHistogram(Operation)}
+		 */
+		long[] operandSizeHistogram(String operation);
+
+		/** @return the summary information string */
+		String getSummary();
+
+		/** Resets all the metrics */
+		void reset();
+	}
+
+	/** name used to register the MBean */
+	public final static String OBJECT_NAME = "it.uniroma3.mat.extendedset:type=IntSetMetrics";
+
+	/** value returned by {@link #start()} when metrics are disabled */
+	public final static long NOT_STARTED = Long.MIN_VALUE;
+
+	/** number of buckets of latency histograms (one for each power of 2) */
+	private final static int LATENCY_BUCKETS = 65;
+
+	/** number of buckets of operand-size histograms (one for each power of 2) */
+	private final static int SIZE_BUCKETS = 33;
+
+	/** metrics of a single operation */
+	private static class Stats {
+		final LongAdder count = new LongAdder();
+		final LongAdder totalNanos = new LongAdder();
+		final LongAdder allocatedBytes = new LongAdder();
+		final LongAdder[] latency = newAdders(LATENCY_BUCKETS);
+		final LongAdder[] operandSize = newAdders(SIZE_BUCKETS);
+
+		void reset() {
+			count.reset();
+			totalNanos.reset();
+			allocatedBytes.reset();
+			for (LongAdder a : latency)
+				a.reset();
+			for (LongAdder a : operandSize)
+				a.reset();
+		}
+	}
+
+	/** <code>true</code> if metrics must be collected */
+	private static volatile boolean enabled = false;
+
+	/** metrics of each operation, indexed by {@link Operation#ordinal()} */
+	private final static Stats[] STATS = new Stats[Operation.values().length];
+	static {
+		for (int i = 0; i < STATS.length; i++)
+			STATS[i] = new Stats();
+	}
+
+	/** registered listeners */
+	private final static List<Listener> LISTENERS = new CopyOnWriteArrayList<Listener>();
+
+	/** utility class */
+	private IntSetMetrics() {
+		// nothing to do
+	}
+
+	/**
+	 * @param n
+	 *            number of adders
+	 * @return new adders
+	 */
+	private static LongAdder[] newAdders(int n) {
+		LongAdder[] res = new LongAdder[n];
+		for (int i = 0; i < n; i++)
+			res[i] = new LongAdder();
+		return res;
+	}
+
+	/**
+	 * @return <code>true</code> if metrics are collected
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Enables or disables the collection of metrics
+	 *
+	 * @param enabled
+	 *            <code>true</code> to collect metrics
+	 */
+	public static void setEnabled(boolean enabled) {
+		IntSetMetrics.enabled = enabled;
+	}
+
+	/**
+	 * Starts monitoring an operation
+	 *
+	 * @return the start time to pass to
+	 *         {@link #record(Operation, long, IntSet, IntSet, Object)}, or
+	 *         {@link #NOT_STARTED} if metrics are disabled
+	 */
+	public static long start() {
+		return enabled ? System.nanoTime() : NOT_STARTED;
+	}
+
+	/**
+	 * Gets the cardinality of a set only if it is available without
+	 * computing it, so that recording an operation neither scans nor
+	 * modifies its operands
+	 *
+	 * @param s
+	 *            the set (it can be <code>null</code>)
+	 * @return the cardinality, or -1 if <code>s</code> is <code>null</code>
+	 *         or its cardinality is computed on demand
+	 */
+	public static int knownSize(IntSet s) {
+		if (s instanceof IntSetStatistics)
+			s = IntSetStatistics.extractContainer(s);
+		if (s instanceof ArraySet || s instanceof HashIntSet || s instanceof VByteIntSet)
+			return s.size();
+		return -1;
+	}
+
+	/**
+	 * Records a monitored operation. It does nothing when <code>start</code>
+	 * is {@link #NOT_STARTED}. Operand cardinalities are taken from
+	 * {@link #knownSize(IntSet)}.
+	 *
+	 * @param operation
+	 *            the operation
+	 * @param start
+	 *            value returned by {@link #start()}
+	 * @param left
+	 *            left operand
+	 * @param right
+	 *            right operand (it can be <code>null</code>)
+	 * @param result
+	 *            result of the operation: when it is a {@link IntSet} instance,
+	 *            its size is accounted as allocated memory
+	 */
+	public static void record(Operation operation, long start, IntSet left, IntSet right, Object result) {
+		if (start == NOT_STARTED)
+			return;
+		record(operation, start, knownSize(left), knownSize(right), result);
+	}
+
+	/**
+	 * Records a monitored operation whose operand cardinalities are already
+	 * known, or are not known at all. It does nothing when <code>start</code>
+	 * is {@link #NOT_STARTED}. Operations whose operand cardinalities are
+	 * both unknown are not accounted in
+	 * {@link #getOperandSizeHistogram(Operation)}.
+	 * <p>
+	 * Implementations with a lazily computed cardinality should use this
+	 * method, so that recording an operation never modifies its operands.
+	 *
+	 * @param operation
+	 *            the operation
+	 * @param start
+	 *            value returned by {@link #start()}
+	 * @param leftSize
+	 *            cardinality of the left operand, or -1 if not known
+	 * @param rightSize
+	 *            cardinality of the right operand, or -1 if not known or not
+	 *            applicable
+	 * @param result
+	 *            result of the operation: when it is a {@link IntSet} instance,
+	 *            its size is accounted as allocated memory
+	 */
+	public static void record(Operation operation, long start, int leftSize, int rightSize, Object result) {
+		if (start == NOT_STARTED)
+			return;
+		final long nanos = System.nanoTime() - start;
+		final long allocatedBytes = result instanceof IntSet ? ((IntSet) result).sizeInBytes() : 0L;
+
+		final Stats s = STATS[operation.ordinal()];
+		s.count.increment();
+		s.totalNanos.add(nanos);
+		if (allocatedBytes > 0)
+			s.allocatedBytes.add(allocatedBytes);
+		s.latency[64 - Long.numberOfLeadingZeros(Math.max(nanos, 0L))].increment();
+		final int operandSize = Math.max(leftSize, rightSize);
+		if (operandSize >= 0)
+			s.operandSize[32 - Integer.numberOfLeadingZeros(operandSize)].increment();
+
+		if (!LISTENERS.isEmpty())
+			for (Listener l : LISTENERS)
+				l.operationRecorded(operation, nanos, leftSize, rightSize, allocatedBytes);
+	}
+
+	/**
+	 * Counts a call of a monitored operation, without collecting any other
+	 * metric. It is used by {@link IntSetStatistics} wrappers when metrics
+	 * are disabled.
+	 *
+	 * @param operation
+	 *            the operation
+	 */
+	public static void count(Operation operation) {
+		STATS[operation.ordinal()].count.increment();
+	}
+
+	/**
+	 * @param operation
+	 *            the operation
+	 * @return number of recorded calls, including the ones counted by
+	 *         {@link #count(Operation)}
+	 */
+	public static long getCount(Operation operation) {
+		return STATS[operation.ordinal()].count.sum();
+	}
+
+	/**
+	 * @param operation
+	 *            the operation
+	 * @return total elapsed time, in nanoseconds
+	 */
+	public static long getTotalNanos(Operation operation) {
+		return STATS[operation.ordinal()].totalNanos.sum();
+	}
+
+	/**
+	 * @param operation
+	 *            the operation
+	 * @return estimated number of bytes of the created sets
+	 */
+	public static long getAllocatedBytes(Operation operation) {
+		return STATS[operation.ordinal()].allocatedBytes.sum();
+	}
+
+	/**
+	 * Latency histogram: the <code>i</code><sup>th</sup> element is the number
+	 * of calls that took from 2<sup>i-1</sup> (included) to 2<sup>i</sup>
+	 * (excluded) nanoseconds.
+	 *
+	 * @param operation
+	 *            the operation
+	 * @return the histogram
+	 */
+	public static long[] getLatencyHistogram(Operation operation) {
+		return sums(STATS[operation.ordinal()].latency);
+	}
+
+	/**
+	 * Operand-size histogram: the <code>i</code><sup>th</sup> element is the
+	 * number of calls whose greatest operand had from 2<sup>i-1</sup>
+	 * (included) to 2<sup>i</sup> (excluded) elements.
+	 *
+	 * @param operation
+	 *            the operation
+	 * @return the histogram
+	 */
+	public static long[] getOperandSizeHistogram(Operation operation) {
+		return sums(STATS[operation.ordinal()].operandSize);
+	}
+
+	/**
+	 * @param adders
+	 *            adders to sum
+	 * @return current values
+	 */
+	private static long[] sums(LongAdder[] adders) {
+		long[] res = new long[adders.length];
+		for (int i = 0; i < adders.length; i++)
+			res[i] = adders[i].sum();
+		return res;
+	}
+
+	/**
+	 * Resets all the metrics
+	 */
+	public static void reset() {
+		for (Stats s : STATS)
+			s.reset();
+	}
+
+	/**
+	 * Adds a listener
+	 *
+	 * @param listener
+	 *            the listener to add
+	 */
+	public static void addListener(Listener listener) {
+		if (listener == null)
+			throw new NullPointerException();
+		LISTENERS.add(listener);
+	}
+
+	/**
+	 * Removes a listener
+	 *
+	 * @param listener
+	 *            the listener to remove
+	 */
+	public static void removeListener(Listener listener) {
+		LISTENERS.remove(listener);
+	}
+
+	/**
+	 * @return the summary information string
+	 */
+	public static String summary() {
+		final StringBuilder s = new StringBuilder();
+		final Formatter f = new Formatter(s);
+		for (Operation o : Operation.values()) {
+			long count = getCount(o);
+			if (count == 0)
+				continue;
+			f.format("%s: count=%d, meanNanos=%d, allocatedBytes=%d\n",
+					o, count, getTotalNanos(o) / count, getAllocatedBytes(o));
+		}
+		return s.toString();
+	}
+
+	/**
+	 * Registers the metrics within the platform MBean server with the name
+	 * {@link #OBJECT_NAME}. It does nothing if already registered.
+	 */
+	public static synchronized void registerMBean() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (!server.isRegistered(name))
+				server.registerMBean(new MBean(), name);
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Removes the metrics from the platform MBean server, if registered
+	 */
+	public static synchronized void unregisterMBean() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (server.isRegistered(name))
+				server.unregisterMBean(name);
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * JMX view of the metrics
+	 */
+	private static class MBean implements IntSetMetricsMXBean {
+		@Override public boolean isEnabled() {return IntSetMetrics.isEnabled();}
+		@Override public void setEnabled(boolean enabled) {IntSetMetrics.setEnabled(enabled);}
+		@Override public String getSummary() {return IntSetMetrics.summary();}
+		@Override public void reset() {IntSetMetrics.reset();}
+		@Override public long[] latencyHistogram(String operation) {return getLatencyHistogram(Operation.valueOf(operation));}
+		@Override public long[] operandSizeHistogram(String operation) {return getOperandSizeHistogram(Operation.valueOf(operation));}
+
+		@Override
+		public Map<String, Long> getCounts() {
+			Map<String, Long> res = new LinkedHashMap<String, Long>();
+			for (Operation o : Operation.values())
+				res.put(o.name(), getCount(o));
+			return res;
+		}
+
+		@Override
+		public Map<String, Long> getTotalNanos() {
+			Map<String, Long> res = new LinkedHashMap<String, Long>();
+			for (Operation o : Operation.values())
+				res.put(o.name(), IntSetMetrics.getTotalNanos(o));
+			return res;
+		}
+
+		@Override
+		public Map<String, Long> getAllocatedBytes() {
+			Map<String, Long> res = new LinkedHashMap<String, Long>();
+			for (Operation o : Operation.values())
+				res.put(o.name(), IntSetMetrics.getAllocatedBytes(o));
+			return res;
+		}
+	}
+}
@@ -0,0 +1,428 @@
+/*
+ * (c) 2026 ExtendedSet contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.uniroma3.mat.extendedset.utilities;
+
+import it.uniroma3.mat.extendedset.intset.IntSet;
+import it.uniroma3.mat.extendedset.utilities.random.MersenneTwisterFast;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MinHash signature of an {@link IntSet}, to estimate the similarity between
+ * sets without merging them.
+ * <p>
+ * The signature is made up of the minimum value of <code>numHashes</code>
+ * random permutations of the integer domain over the elements of the set,
+ * computed in one pass over {@link IntSet#iterator()}. Each permutation is
+ * {@link IntHashCode#hashCode(int)} applied to <code>a * x + b</code>, where
+ * <code>a</code> (odd) and <code>b</code> are drawn from a
+ * {@link MersenneTwisterFast} generator initialized with the given seed, hence
+ * sketches are comparable only when they have the same number of hashes,
+ * bits, and seed.
+ * <p>
+ * The fraction of equal minimum values of two signatures is an unbiased
+ * estimate of the Jaccard similarity, with standard error
+ * <code>sqrt(J * (1 - J) / numHashes)</code>. When <code>bits < 32</code>,
+ * only the lowest <code>bits</code> bits of each minimum value are kept
+ * (<i>b-bit minwise hashing</i>), so that many more hashes fit the same
+ * memory. Since lowest bits may also be equal by chance, the estimate is
+ * corrected by assuming that sets are small with respect to the integer
+ * domain, namely that two different minimum values have equal lowest bits
+ * with probability <code>2<sup>-bits</sup></code>.
+ * <p>
+ * Set sizes are exact, hence intersection and union sizes are derived from
+ * the estimated similarity. {@link LshIndex} groups sketches by bands of
+ * their signatures to generate candidates for exact comparisons.
+ *
+ * @author ExtendedSet contributors
+ * @version $Id$
+ * @see IntSet#jaccardSimilarity(IntSet)
+ * @see SimilarityIndex
+ */
+public class IntSetSketch implements Serializable {
+	/** generated serial ID */
+	private static final long serialVersionUID = 4587425712069385131L;
+
+	/** default number of hash functions */
+	public final static int DEFAULT_NUM_HASHES = 128;
+
+	/** default seed of the hash functions */
+	public final static long DEFAULT_SEED = 0x5DEECE66DL;
+
+	/** number of hash functions */
+	private final int numHashes;
+
+	/** number of bits kept for each minimum value */
+	private final int bits;
+
+	/** seed of the hash functions */
+	private final long seed;
+
+	/** size of the sketched set */
+	private final int size;
+
+	/** packed minimum values, <code>64 / bits</code> per word */
+	private final long[] words;
+
+	/** coefficients of the last used hash functions */
+	private static volatile Permutations lastPermutations;
+
+	/**
+	 * Random permutations of the integer domain
+	 */
+	private final static class Permutations {
+		/** seed of the generator */
+		final long seed;
+
+		/** multipliers, always odd */
+		final int[] a;
+
+		/** offsets */
+		final int[] b;
+
+		/**
+		 * Draws the coefficients
+		 *
+		 * @param numHashes
+		 *            number of permutations
+		 * @param seed
+		 *            seed of the generator
+		 */
+		Permutations(int numHashes, long seed) {
+			this.seed = seed;
+			a = new int[numHashes];
+			b = new int[numHashes];
+			MersenneTwisterFast rnd = new MersenneTwisterFast(seed);
+			for (int i = 0; i < numHashes; i++) {
+				a[i] = rnd.nextInt() | 1;
+				b[i] = rnd.nextInt();
+			}
+		}
+
+		/**
+		 * Gets the coefficients, reusing the last ones when possible
+		 */
+		static Permutations get(int numHashes, long seed) {
+			Permutations p = lastPermutations;
+			if (p == null || p.seed != seed || p.a.length != numHashes)
+				lastPermutations = p = new Permutations(numHashes, seed);
+			return p;
+		}
+	}
+
+	/**
+	 * Sketches the given set with {@link #DEFAULT_NUM_HASHES} hashes of 32 bits
+	 *
+	 * @param set
+	 *            the set to sketch
+	 */
+	public IntSetSketch(IntSet set) {
+		this(set, DEFAULT_NUM_HASHES, 32, DEFAULT_SEED);
+	}
+
+	/**
+	 * Sketches the given set with hashes of 32 bits
+	 *
+	 * @param set
+	 *            the set to sketch
+	 * @param numHashes
+	 *            number of hash functions
+	 */
+	public IntSetSketch(IntSet set, int numHashes) {
+		this(set, numHashes, 32, DEFAULT_SEED);
+	}
+
+	/**
+	 * Sketches the given set
+	 *
+	 * @param set
+	 *            the set to sketch
+	 * @param numHashes
+	 *            number of hash functions
+	 * @param bits
+	 *            number of bits kept for each minimum value, from 1 to 32
+	 * @param seed
+	 *            seed of the hash functions
+	 * @throws IllegalArgumentException
+	 *             if <code>numHashes</code> is not positive or
+	 *             <code>bits</code> is out of range
+	 */
+	public IntSetSketch(IntSet set, int numHashes, int bits, long seed) {
+		if (numHashes <= 0)
+			throw new IllegalArgumentException("numHashes: " + numHashes + " <= 0");
+		if (bits < 1 || bits > 32)
+			throw new IllegalArgumentException("bits: " + bits + " not in [1, 32]");
+		this.numHashes = numHashes;
+		this.bits = bits;
+		this.seed = seed;
+		this.size = set.size();
+
+		final Permutations p = Permutations.get(numHashes, seed);
+		final int[] a = p.a;
+		final int[] b = p.b;
+		final int[] mins = new int[numHashes];
+		Arrays.fill(mins, Integer.MAX_VALUE);
+		final IntSet.IntIterator itr = set.iterator();
+		while (itr.hasNext()) {
+			final int x = itr.next();
+			for (int i = 0; i < numHashes; i++) {
+				int h = IntHashCode.hashCode(a[i] * x + b[i]);
+				if (h < mins[i])
+					mins[i] = h;
+			}
+		}
+
+		final int perWord = 64 / bits;
+		final long mask = (1L << bits) - 1;
+		words = new long[(numHashes + perWord - 1) / perWord];
+		for (int i = 0; i < numHashes; i++)
+			words[i / perWord] |= (mins[i] & mask) << ((i % perWord) * bits);
+	}
+
+	/**
+	 * @return the number of hash functions
+	 */
+	public int numHashes() {
+		return numHashes;
+	}
+
+	/**
+	 * @return the number of bits kept for each minimum value
+	 */
+	public int bits() {
+		return bits;
+	}
+
+	/**
+	 * @return the seed of the hash functions
+	 */
+	public long seed() {
+		return seed;
+	}
+
+	/**
+	 * @return the size of the sketched set
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param i
+	 *            index of the hash function
+	 * @return the lowest {@link #bits()} bits of the minimum value of the
+	 *         given hash function
+	 */
+	public int get(int i) {
+		if (i < 0 || i >= numHashes)
+			throw new IndexOutOfBoundsException(Integer.toString(i));
+		final int perWord = 64 / bits;
+		return (int) ((words[i / perWord] >>> ((i % perWord) * bits)) & ((1L << bits) - 1));
+	}
+
+	/**
+	 * @return memory footprint in bytes
+	 */
+	public long sizeInBytes() {
+		return SizeOf.object(3 * 4 + 8 + SizeOf.REFERENCE) + SizeOf.array(words);
+	}
+
+	/**
+	 * Checks whether two sketches can be compared
+	 */
+	private void checkCompatible(IntSetSketch other) {
+		if (numHashes != other.numHashes || bits != other.bits || seed != other.seed)
+			throw new IllegalArgumentException("incompatible sketches");
+	}
+
+	/**
+	 * Estimates the Jaccard similarity between the sketched sets
+	 *
+	 * @param other
+	 *            sketch of the other set
+	 * @return the estimated similarity
+	 * @throws IllegalArgumentException
+	 *             if the sketches have different parameters
+	 * @see IntSet#jaccardSimilarity(IntSet)
+	 */
+	public double jaccardSimilarity(IntSetSketch other) {
+		checkCompatible(other);
+		if (size == 0 || other.size == 0)
+			return size == other.size ? 1D : 0D;
+
+		final int perWord = 64 / bits;
+		final long mask = (1L << bits) - 1;
+		int matches = 0;
+		for (int w = 0; w < words.length; w++) {
+			final long x = words[w] ^ other.words[w];
+			final int n = Math.min(perWord, numHashes - w * perWord);
+			for (int j = 0; j < n; j++)
+				if (((x >>> (j * bits)) & mask) == 0)
+					matches++;
+		}
+		final double p = (double) matches / numHashes;
+		if (bits == 32)
+			return p;
+		final double c = 1D / (1L << bits);
+		return Math.max(0D, (p - c) / (1D - c));
+	}
+
+	/**
+	 * Estimates the intersection size between the sketched sets
+	 *
+	 * @param other
+	 *            sketch of the other set
+	 * @return the estimated intersection size
+	 * @see IntSet#intersectionSize(IntSet)
+	 */
+	public double intersectionSize(IntSetSketch other) {
+		final double j = jaccardSimilarity(other);
+		return Math.min(Math.min(size, other.size), j * (size + other.size) / (1D + j));
+	}
+
+	/**
+	 * Estimates the union size between the sketched sets
+	 *
+	 * @param other
+	 *            sketch of the other set
+	 * @return the estimated union size
+	 */
+	public double unionSize(IntSetSketch other) {
+		return size + other.size - intersectionSize(other);
+	}
+
+	/**
+	 * Estimates the fraction of this set that is contained in the other one
+	 *
+	 * @param other
+	 *            sketch of the other set
+	 * @return the estimated value of <code>|A &cap; B| / |A|</code>, where
+	 *         <code>A</code> is this set, or 1 if <code>A</code> is empty
+	 */
+	public double containment(IntSetSketch other) {
+		if (size == 0) {
+			checkCompatible(other);
+			return 1D;
+		}
+		return intersectionSize(other) / size;
+	}
+
+	/**
+	 * Locality-sensitive hashing of sketches, to find the ones that are
+	 * probably similar to a given sketch.
+	 * <p>
+	 * Signatures are split into <code>bands</code> bands of <code>rows</code>
+	 * minimum values each, and two sketches are candidates when at least one
+	 * band is equal. Hence, sets with Jaccard similarity <code>J</code> are
+	 * candidates with probability
+	 * <code>1 - (1 - J<sup>rows</sup>)<sup>bands</sup></code>.
+	 *
+	 * @author ExtendedSet contributors
+	 * @version $Id$
+	 */
+	public static class LshIndex {
+		/** number of bands */
+		private final int bands;
+
+		/** number of minimum values per band */
+		private final int rows;
+
+		/** empty set of identifiers */
+		private final IntSet template;
+
+		/** for each band, identifiers of the sketches grouped by band hash */
+		private final List<Map<Integer, IntSet>> buckets;
+
+		/**
+		 * Creates an empty index
+		 *
+		 * @param bands
+		 *            number of bands
+		 * @param rows
+		 *            number of minimum values per band
+		 * @param template
+		 *            an instance of the {@link IntSet} class used to collect
+		 *            identifiers
+		 */
+		public LshIndex(int bands, int rows, IntSet template) {
+			if (bands <= 0 || rows <= 0)
+				throw new IllegalArgumentException("bands: " + bands + ", rows: " + rows);
+			this.bands = bands;
+			this.rows = rows;
+			this.template = template.empty();
+			this.buckets = new ArrayList<Map<Integer, IntSet>>(bands);
+			for (int i = 0; i < bands; i++)
+				buckets.add(new HashMap<Integer, IntSet>());
+		}
+
+		/**
+		 * Computes the hash of a band
+		 */
+		private int bandHash(IntSetSketch sketch, int band, int[] values) {
+			if (sketch.numHashes < bands * rows)
+				throw new IllegalArgumentException("too few hashes: " + sketch.numHashes + " < " + bands * rows);
+			for (int r = 0; r < rows; r++)
+				values[r] = sketch.get(band * rows + r);
+			return IntHashCode.hashCode(values, rows, band);
+		}
+
+		/**
+		 * Adds a sketch
+		 *
+		 * @param id
+		 *            identifier of the sketch
+		 * @param sketch
+		 *            the sketch
+		 * @throws IllegalArgumentException
+		 *             if the sketch has less than <code>bands * rows</code>
+		 *             hashes
+		 */
+		public void add(int id, IntSetSketch sketch) {
+			final int[] values = new int[rows];
+			for (int band = 0; band < bands; band++) {
+				Integer h = Integer.valueOf(bandHash(sketch, band, values));
+				IntSet ids = buckets.get(band).get(h);
+				if (ids == null)
+					buckets.get(band).put(h, ids = template.empty());
+				ids.add(id);
+			}
+		}
+
+		/**
+		 * Finds the sketches that share at least one band with the given one
+		 *
+		 * @param sketch
+		 *            the sketch
+		 * @return identifiers of the candidates
+		 */
+		public IntSet candidates(IntSetSketch sketch) {
+			final IntSet res = template.empty();
+			final int[] values = new int[rows];
+			for (int band = 0; band < bands; band++) {
+				IntSet ids = buckets.get(band).get(Integer.valueOf(bandHash(sketch, band, values)));
+				if (ids != null)
+					res.addAll(ids);
+			}
+			return res;
+		}
+	}
+}
@@ -1,169 +1,73 @@
 package it.uniroma3.mat.extendedset.utilities;
 
+import it.uniroma3.mat.extendedset.intset.ConciseSet;
 import it.uniroma3.mat.extendedset.intset.IntSet;
+import it.uniroma3.mat.extendedset.utilities.IntSetMetrics.Operation;
 
+import java.math.BigInteger;
 import java.util.Collection;
-import java.util.Formatter;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
- * A wrapper class for classes that implement the  {@link IntSet}  interface to count method calls
- * @author  Alessandro Colantonio
- * @version  $Id$
+ * A wrapper class for classes that implement the {@link IntSet} interface to
+ * monitor method calls. Set operations, size checks, {@link #equals(Object)}
+ * and {@link #hashCode()} are always counted, while their latency, operand
+ * sizes and allocated bytes are recorded by {@link IntSetMetrics} only when
+ * {@link IntSetMetrics#isEnabled()} is <code>true</code>. Other methods are
+ * simply redirected.
+ * <p>
+ * Since {@link ConciseSet} already records its set operations when
+ * {@link IntSetMetrics#isEnabled()} is <code>true</code>, in that case they
+ * are not recorded twice for wrapped {@link ConciseSet} instances.
+ * 
+ * @author Alessandro Colantonio
+ * @version $Id$
+ * @see IntSetMetrics
  */
 public class IntSetStatistics implements IntSet {
-	/**
-	 * instance to monitor
-	 * @uml.property  name="container"
-	 * @uml.associationEnd  
-	 */
+	/** instance to monitor */
 	private final IntSet container;
 
-	
-	/*
-	 * Monitored characteristics
-	 */
-	/**
-	 * @uml.property  name="unionCount"
-	 */
-	private static long unionCount = 0;
-	/**
-	 * @uml.property  name="intersectionCount"
-	 */
-	private static long intersectionCount = 0;
-	/**
-	 * @uml.property  name="differenceCount"
-	 */
-	private static long differenceCount = 0;
-	/**
-	 * @uml.property  name="symmetricDifferenceCount"
-	 */
-	private static long symmetricDifferenceCount = 0;
-	/**
-	 * @uml.property  name="complementCount"
-	 */
-	private static long complementCount = 0;
-	/**
-	 * @uml.property  name="unionSizeCount"
-	 */
-	private static long unionSizeCount = 0;
-	/**
-	 * @uml.property  name="intersectionSizeCount"
-	 */
-	private static long intersectionSizeCount = 0;
-	/**
-	 * @uml.property  name="differenceSizeCount"
-	 */
-	private static long differenceSizeCount = 0;
-	/**
-	 * @uml.property  name="symmetricDifferenceSizeCount"
-	 */
-	private static long symmetricDifferenceSizeCount = 0;
-	/**
-	 * @uml.property  name="complementSizeCount"
-	 */
-	private static long complementSizeCount = 0;
-	/**
-	 * @uml.property  name="equalsCount"
-	 */
-	private static long equalsCount = 0;
-	/**
-	 * @uml.property  name="hashCodeCount"
-	 */
-	private static long hashCodeCount = 0;
-	/**
-	 * @uml.property  name="containsAllCount"
-	 */
-	private static long containsAllCount = 0;
-	/**
-	 * @uml.property  name="containsAnyCount"
-	 */
-	private static long containsAnyCount = 0;
-	/**
-	 * @uml.property  name="containsAtLeastCount"
-	 */
-	private static long containsAtLeastCount = 0;
-	
+	/** <code>true</code> if {@link #container} records its own set operations */
+	private final boolean selfMonitored;
+
 	
 	/*
 	 * Statistics getters
 	 */
 	
-	/**
-	 * @return  number of union operations (i.e.,  {@link #addAll(IntSet)}  ,  {@link #union(IntSet)}  )
-	 * @uml.property  name="unionCount"
-	 */
-	public static long getUnionCount() {return unionCount;}
-	/**
-	 * @return  number of intersection operations (i.e.,  {@link #retainAll(IntSet)}  ,  {@link #intersection(IntSet)}  )
-	 * @uml.property  name="intersectionCount"
-	 */
-	public static long getIntersectionCount() {return intersectionCount;}
-	/**
-	 * @return  number of difference operations (i.e.,  {@link #removeAll(IntSet)}  ,  {@link #difference(IntSet)}  )
-	 * @uml.property  name="differenceCount"
-	 */
-	public static long getDifferenceCount() {return differenceCount;}
-	/**
-	 * @return  number of symmetric difference operations (i.e.,  {@link #symmetricDifference(IntSet)}  )
-	 * @uml.property  name="symmetricDifferenceCount"
-	 */
-	public static long getSymmetricDifferenceCount() {return symmetricDifferenceCount;}
-	/**
-	 * @return  number of complement operations (i.e.,  {@link #complement()}  ,  {@link #complemented()}  )
-	 * @uml.property  name="complementCount"
-	 */
-	public static long getComplementCount() {return complementCount;}
-	/**
-	 * @return  cardinality of union operations (i.e.,  {@link #addAll(IntSet)}  ,  {@link #union(IntSet)}  )
-	 * @uml.property  name="unionSizeCount"
-	 */
-	public static long getUnionSizeCount() {return unionSizeCount;}
-	/**
-	 * @return  cardinality of intersection operations (i.e.,  {@link #retainAll(IntSet)}  ,  {@link #intersection(IntSet)}  )
-	 * @uml.property  name="intersectionSizeCount"
-	 */
-	public static long getIntersectionSizeCount() {return intersectionSizeCount;}
-	/**
-	 * @return  cardinality of difference operations (i.e.,  {@link #removeAll(IntSet)}  ,  {@link #difference(IntSet)}  )
-	 * @uml.property  name="differenceSizeCount"
-	 */
-	public static long getDifferenceSizeCount() {return differenceSizeCount;}
-	/**
-	 * @return  cardinality of symmetric difference operations (i.e.,  {@link #symmetricDifference(IntSet)}  )
-	 * @uml.property  name="symmetricDifferenceSizeCount"
-	 */
-	public static long getSymmetricDifferenceSizeCount() {return symmetricDifferenceSizeCount;}
-	/**
-	 * @return  cardinality of complement operations (i.e.,  {@link #complement()}  ,  {@link #complemented()}  )
-	 * @uml.property  name="complementSizeCount"
-	 */
-	public static long getComplementSizeCount() {return complementSizeCount;}
-	/**
-	 * @return  number of equality check operations (i.e.,  {@link #equals(Object)}  )
-	 * @uml.property  name="equalsCount"
-	 */
-	public static long getEqualsCount() {return equalsCount;}
-	/**
-	 * @return  number of hash code computations (i.e.,  {@link #hashCode()}  )
-	 * @uml.property  name="hashCodeCount"
-	 */
-	public static long getHashCodeCount() {return hashCodeCount;}
-	/**
-	 * @return  number of  {@link #containsAll(IntSet)}  calls
-	 * @uml.property  name="containsAllCount"
-	 */
-	public static long getContainsAllCount() {return containsAllCount;}
-	/**
-	 * @return  number of  {@link #containsAny(IntSet)}  calls
-	 * @uml.property  name="containsAnyCount"
-	 */
-	public static long getContainsAnyCount() {return containsAnyCount;}
-	/**
-	 * @return  number of  {@link #containsAtLeast(IntSet,int)}  calls
-	 * @uml.property  name="containsAtLeastCount"
-	 */
-	public static long getContainsAtLeastCount() {return containsAtLeastCount;}
+	/** @return number of union operations (i.e., {@link #addAll(IntSet)}, {@link #union(IntSet)}) */
+	public static long getUnionCount() {return IntSetMetrics.getCount(Operation.UNION);}
+	/** @return number of intersection operations (i.e., {@link #retainAll(IntSet)}, {@link #intersection(IntSet)}) */
+	public static long getIntersectionCount() {return IntSetMetrics.getCount(Operation.INTERSECTION);}
+	/** @return number of difference operations (i.e., {@link #removeAll(IntSet)}, {@link #difference(IntSet)}) */
+	public static long getDifferenceCount() {return IntSetMetrics.getCount(Operation.DIFFERENCE);}
+	/** @return number of symmetric difference operations (i.e., {@link #symmetricDifference(IntSet)}) */
+	public static long getSymmetricDifferenceCount() {return IntSetMetrics.getCount(Operation.SYMMETRIC_DIFFERENCE);}
+	/** @return number of complement operations (i.e., {@link #complement()}, {@link #complemented()}) */
+	public static long getComplementCount() {return IntSetMetrics.getCount(Operation.COMPLEMENT);}
+	/** @return number of {@link #unionSize(IntSet)} calls */
+	public static long getUnionSizeCount() {return IntSetMetrics.getCount(Operation.UNION_SIZE);}
+	/** @return number of {@link #intersectionSize(IntSet)} calls */
+	public static long getIntersectionSizeCount() {return IntSetMetrics.getCount(Operation.INTERSECTION_SIZE);}
+	/** @return number of {@link #differenceSize(IntSet)} calls */
+	public static long getDifferenceSizeCount() {return IntSetMetrics.getCount(Operation.DIFFERENCE_SIZE);}
+	/** @return number of {@link #symmetricDifferenceSize(IntSet)} calls */
+	public static long getSymmetricDifferenceSizeCount() {return IntSetMetrics.getCount(Operation.SYMMETRIC_DIFFERENCE_SIZE);}
+	/** @return number of {@link #complementSize()} calls */
+	public static long getComplementSizeCount() {return IntSetMetrics.getCount(Operation.COMPLEMENT_SIZE);}
+	/** @return number of equality check operations (i.e., {@link #equals(Object)}) */
+	public static long getEqualsCount() {return IntSetMetrics.getCount(Operation.EQUALS);}
+	/** @return number of hash code computations (i.e., {@link #hashCode()}) */
+	public static long getHashCodeCount() {return IntSetMetrics.getCount(Operation.HASH_CODE);}
+	/** @return number of {@link #containsAll(IntSet)} calls */
+	public static long getContainsAllCount() {return IntSetMetrics.getCount(Operation.CONTAINS_ALL);}
+	/** @return number of {@link #containsAny(IntSet)} calls */
+	public static long getContainsAnyCount() {return IntSetMetrics.getCount(Operation.CONTAINS_ANY);}
+	/** @return number of {@link #containsAtLeast(IntSet,int)} calls */
+	public static long getContainsAtLeastCount() {return IntSetMetrics.getCount(Operation.CONTAINS_AT_LEAST);}
 	/** @return the sum of the cardinality of set operations */
 	public static long getSizeCheckCount() {return getIntersectionSizeCount() + 
 		getUnionSizeCount() + getDifferenceSizeCount() + getSymmetricDifferenceSizeCount() + getComplementSizeCount();}
@@ -175,33 +79,12 @@ public class IntSetStatistics implements IntSet {
 	
 	/** Resets all counters */
 	public static void resetCounters() {
-		unionCount = intersectionCount = differenceCount = symmetricDifferenceCount = complementCount = 
-			unionSizeCount = intersectionSizeCount = differenceSizeCount = symmetricDifferenceSizeCount = complementSizeCount = 
-				equalsCount = hashCodeCount = containsAllCount = containsAnyCount = containsAtLeastCount = 0;
+		IntSetMetrics.reset();
 	}
 	
 	/** @return the summary information string */
 	public static String summary() {
-		final StringBuilder s = new StringBuilder();
-		final Formatter f = new Formatter(s);
-		
-		f.format("unionCount: %d\n", unionCount);
-		f.format("intersectionCount: %d\n", intersectionCount);
-		f.format("differenceCount: %d\n", differenceCount);
-		f.format("symmetricDifferenceCount: %d\n", symmetricDifferenceCount);
-		f.format("complementCount: %d\n", complementCount);
-		f.format("unionSizeCount: %d\n", unionSizeCount);
-		f.format("intersectionSizeCount: %d\n", intersectionSizeCount);
-		f.format("differenceSizeCount: %d\n", differenceSizeCount);
-		f.format("symmetricDifferenceSizeCount: %d\n", symmetricDifferenceSizeCount);
-		f.format("complementSizeCount: %d\n", complementSizeCount);
-		f.format("equalsCount: %d\n", equalsCount);
-		f.format("hashCodeCount: %d\n", hashCodeCount);
-		f.format("containsAllCount: %d\n", containsAllCount);
-		f.format("containsAnyCount: %d\n", containsAnyCount);
-		f.format("containsAtLeastCount: %d\n", containsAtLeastCount);
-		
-		return s.toString();
+		return IntSetMetrics.summary();
 	}
 
 	
@@ -214,6 +97,7 @@ public class IntSetStatistics implements IntSet {
 	 */
 	public IntSetStatistics(IntSet container) {
 		this.container = extractContainer(container);
+		this.selfMonitored = this.container instanceof ConciseSet;
 	}
 
 	
@@ -228,59 +112,97 @@ public class IntSetStatistics implements IntSet {
 		return c;
 	}
 	
+	/**
+	 * Records an operation: the call is always counted, while the other
+	 * metrics are collected only if <code>start</code> is not
+	 * {@link IntSetMetrics#NOT_STARTED}
+	 * 
+	 * @param operation
+	 *            the operation
+	 * @param start
+	 *            value returned by {@link IntSetMetrics#start()}
+	 * @param other
+	 *            right operand (it can be <code>null</code>)
+	 * @param result
+	 *            result of the operation
+	 */
+	private void record(Operation operation, long start, IntSet other, Object result) {
+		if (start == IntSetMetrics.NOT_STARTED)
+			IntSetMetrics.count(operation);
+		else
+			IntSetMetrics.record(operation, start, IntSetMetrics.knownSize(container), IntSetMetrics.knownSize(other), result);
+	}
+
+	/**
+	 * Records an operation that the container records by itself when metrics
+	 * are enabled, see {@link #record(Operation, long, IntSet, Object)}
+	 */
+	private void recordUnmonitored(Operation operation, long start, IntSet other, Object result) {
+		if (!selfMonitored || start == IntSetMetrics.NOT_STARTED)
+			record(operation, start, other, result);
+	}
+	
 	/*
 	 * MONITORED METHODS
 	 */
 
-	/** {@inheritDoc} */ @Override public boolean addAll(IntSet c) {unionCount++; return container.addAll(extractContainer(c));}
-	/** {@inheritDoc} */ @Override public IntSet union(IntSet other) {unionCount++; return new IntSetStatistics(container.union(extractContainer(other)));}
-	/** {@inheritDoc} */ @Override public boolean retainAll(IntSet c) {intersectionCount++; return container.retainAll(extractContainer(c));}
-	/** {@inheritDoc} */ @Override public IntSet intersection(IntSet other) {intersectionCount++; return new IntSetStatistics(container.intersection(extractContainer(other)));}
-	/** {@inheritDoc} */ @Override public boolean removeAll(IntSet c) {differenceCount++; return container.removeAll(extractContainer(c));}
-	/** {@inheritDoc} */ @Override public IntSet difference(IntSet other) {differenceCount++; return new IntSetStatistics(container.difference(extractContainer(other)));}
-	/** {@inheritDoc} */ @Override public IntSet symmetricDifference(IntSet other) {symmetricDifferenceCount++; return container.symmetricDifference(extractContainer(other));}
-	/** {@inheritDoc} */ @Override public void complement() {complementCount++; container.complement();}
-	/** {@inheritDoc} */ @Override public IntSet complemented() {complementCount++; return new IntSetStatistics(container.complemented());}
-	/** {@inheritDoc} */ @Override public int unionSize(IntSet other) {unionSizeCount++; return container.unionSize(extractContainer(other));}
-	/** {@inheritDoc} */ @Override public int intersectionSize(IntSet other) {intersectionSizeCount++; return container.intersectionSize(extractContainer(other));}
-	/** {@inheritDoc} */ @Override public int differenceSize(IntSet other) {differenceSizeCount++; return container.differenceSize(extractContainer(other));}
-	/** {@inheritDoc} */ @Override public int symmetricDifferenceSize(IntSet other) {symmetricDifferenceSizeCount++; return container.symmetricDifferenceSize(extractContainer(other));}
-	/** {@inheritDoc} */ @Override public int complementSize() {complementSizeCount++; return container.complementSize();}
-	/** {@inheritDoc} */ @Override public boolean containsAll(IntSet c) {containsAllCount++; return container.containsAll(extractContainer(c));}
-	/** {@inheritDoc} */ @Override public boolean containsAny(IntSet other) {containsAnyCount++; return container.containsAny(extractContainer(other));}
-	/** {@inheritDoc} */ @Override public boolean containsAtLeast(IntSet other, int minElements) {containsAtLeastCount++; return container.containsAtLeast(extractContainer(other), minElements);}
-	/** {@inheritDoc} */ @Override public int hashCode() {hashCodeCount++; return container.hashCode();}
+	/** {@inheritDoc} */ @Override public boolean addAll(IntSet c) {long t = IntSetMetrics.start(); boolean r = container.addAll(extractContainer(c)); record(Operation.UNION, t, c, null); return r;}
+	/** {@inheritDoc} */ @Override public IntSet union(IntSet other) {long t = IntSetMetrics.start(); IntSet r = container.union(extractContainer(other)); recordUnmonitored(Operation.UNION, t, other, r); return new IntSetStatistics(r);}
+	/** {@inheritDoc} */ @Override public boolean retainAll(IntSet c) {long t = IntSetMetrics.start(); boolean r = container.retainAll(extractContainer(c)); record(Operation.INTERSECTION, t, c, null); return r;}
+	/** {@inheritDoc} */ @Override public IntSet intersection(IntSet other) {long t = IntSetMetrics.start(); IntSet r = container.intersection(extractContainer(other)); recordUnmonitored(Operation.INTERSECTION, t, other, r); return new IntSetStatistics(r);}
+	/** {@inheritDoc} */ @Override public boolean removeAll(IntSet c) {long t = IntSetMetrics.start(); boolean r = container.removeAll(extractContainer(c)); record(Operation.DIFFERENCE, t, c, null); return r;}
+	/** {@inheritDoc} */ @Override public IntSet difference(IntSet other) {long t = IntSetMetrics.start(); IntSet r = container.difference(extractContainer(other)); recordUnmonitored(Operation.DIFFERENCE, t, other, r); return new IntSetStatistics(r);}
+	/** {@inheritDoc} */ @Override public IntSet symmetricDifference(IntSet other) {long t = IntSetMetrics.start(); IntSet r = container.symmetricDifference(extractContainer(other)); recordUnmonitored(Operation.SYMMETRIC_DIFFERENCE, t, other, r); return new IntSetStatistics(r);}
+	/** {@inheritDoc} */ @Override public void complement() {long t = IntSetMetrics.start(); container.complement(); record(Operation.COMPLEMENT, t, null, null);}
+	/** {@inheritDoc} */ @Override public IntSet complemented() {long t = IntSetMetrics.start(); IntSet r = container.complemented(); record(Operation.COMPLEMENT, t, null, r); return new IntSetStatistics(r);}
+	/** {@inheritDoc} */ @Override public int unionSize(IntSet other) {long t = IntSetMetrics.start(); int r = container.unionSize(extractContainer(other)); record(Operation.UNION_SIZE, t, other, null); return r;}
+	/** {@inheritDoc} */ @Override public int intersectionSize(IntSet other) {long t = IntSetMetrics.start(); int r = container.intersectionSize(extractContainer(other)); recordUnmonitored(Operation.INTERSECTION_SIZE, t, other, null); return r;}
+	/** {@inheritDoc} */ @Override public int differenceSize(IntSet other) {long t = IntSetMetrics.start(); int r = container.differenceSize(extractContainer(other)); record(Operation.DIFFERENCE_SIZE, t, other, null); return r;}
+	/** {@inheritDoc} */ @Override public int symmetricDifferenceSize(IntSet other) {long t = IntSetMetrics.start(); int r = container.symmetricDifferenceSize(extractContainer(other)); record(Operation.SYMMETRIC_DIFFERENCE_SIZE, t, other, null); return r;}
+	/** {@inheritDoc} */ @Override public int complementSize() {long t = IntSetMetrics.start(); int r = container.complementSize(); record(Operation.COMPLEMENT_SIZE, t, null, null); return r;}
+	/** {@inheritDoc} */ @Override public boolean containsAll(IntSet c) {long t = IntSetMetrics.start(); boolean r = container.containsAll(extractContainer(c)); record(Operation.CONTAINS_ALL, t, c, null); return r;}
+	/** {@inheritDoc} */ @Override public boolean containsAny(IntSet other) {long t = IntSetMetrics.start(); boolean r = container.containsAny(extractContainer(other)); record(Operation.CONTAINS_ANY, t, other, null); return r;}
+	/** {@inheritDoc} */ @Override public boolean containsAtLeast(IntSet other, int minElements) {long t = IntSetMetrics.start(); boolean r = container.containsAtLeast(extractContainer(other), minElements); record(Operation.CONTAINS_AT_LEAST, t, other, null); return r;}
+	/** {@inheritDoc} */ @Override public int hashCode() {long t = IntSetMetrics.start(); int r = container.hashCode(); record(Operation.HASH_CODE, t, null, null); return r;}
 
 	/** {@inheritDoc} */ @Override
 	public boolean equals(Object obj) {
-		equalsCount++;
-		return obj != null
+		final long t = IntSetMetrics.start();
+		final boolean r = obj != null
 				&& ((obj instanceof IntSetStatistics) 
 						? container.equals(extractContainer((IntSetStatistics) obj))
 						: container.equals(obj));
+		record(Operation.EQUALS, t, null, null);
+		return r;
 	}
 
 	/*
 	 * SIMPLE REDIRECTION
 	 */
 
+	/** {@inheritDoc} */ @Override public boolean add(int i) {return container.add(i);}
+	/** {@inheritDoc} */ @Override public boolean remove(int i) {return container.remove(i);}
+	/** {@inheritDoc} */ @Override public boolean contains(int i) {return container.contains(i);}
+	/** {@inheritDoc} */ @Override public int get(int i) {return container.get(i);}
+	/** {@inheritDoc} */ @Override public int indexOf(int e) {return container.indexOf(e);}
+	/** {@inheritDoc} */ @Override public IntIterator iterator() {return container.iterator();}
+	/** {@inheritDoc} */ @Override public IntIterator descendingIterator() {return container.descendingIterator();}
 	/** {@inheritDoc} */ @Override public double bitmapCompressionRatio() {return container.bitmapCompressionRatio();}
 	/** {@inheritDoc} */ @Override public double collectionCompressionRatio() {return container.collectionCompressionRatio();}
+	/** {@inheritDoc} */ @Override public void trimToSize() {container.trimToSize();}
+	/** {@inheritDoc} */ @Override public IntSet unmodifiable() {return new IntSetStatistics(container.unmodifiable());}
+	/** {@inheritDoc} */ @Override public IntSet subSet(int from, int to) {return new IntSetStatistics(container.subSet(from, to));}
+	/** {@inheritDoc} */ @Override public IntSet headSet(int to) {return new IntSetStatistics(container.headSet(to));}
+	/** {@inheritDoc} */ @Override public IntSet tailSet(int from) {return new IntSetStatistics(container.tailSet(from));}
+	/** {@inheritDoc} */ @Override public long sizeInBytes() {return SizeOf.object(SizeOf.REFERENCE) + container.sizeInBytes();}
 	/** {@inheritDoc} */ @Override public void clear(int from, int to) {container.clear(from, to);}
 	/** {@inheritDoc} */ @Override public void fill(int from, int to) {container.fill(from, to);}
 	/** {@inheritDoc} */ @Override public void clear() {container.clear();}
-	/** {@inheritDoc} */ @Override public boolean add(int i) {return container.add(i);}
-	/** {@inheritDoc} */ @Override public boolean remove(int i) {return container.remove(i);}
 	/** {@inheritDoc} */ @Override public void flip(int e) {container.flip(e);}
-	/** {@inheritDoc} */ @Override public int get(int i) {return container.get(i);}
-	/** {@inheritDoc} */ @Override public int indexOf(int e) {return container.indexOf(e);}
-	/** {@inheritDoc} */ @Override public boolean contains(int i) {return container.contains(i);}
 	/** {@inheritDoc} */ @Override public int first() {return container.first();}
 	/** {@inheritDoc} */ @Override public int last() {return container.last();}
 	/** {@inheritDoc} */ @Override public boolean isEmpty() {return container.isEmpty();}
 	/** {@inheritDoc} */ @Override public int size() {return container.size();}
-	/** {@inheritDoc} */ @Override public IntIterator iterator() {return container.iterator();}
-	/** {@inheritDoc} */ @Override public IntIterator descendingIterator() {return container.descendingIterator();}
 	/** {@inheritDoc} */ @Override public int[] toArray() {return container.toArray();}
 	/** {@inheritDoc} */ @Override public int[] toArray(int[] a) {return container.toArray(a);}
 	/** {@inheritDoc} */ @Override public int compareTo(IntSet o) {return container.compareTo(o);}
@@ -289,6 +211,13 @@ public class IntSetStatistics implements IntSet {
 	/** {@inheritDoc} */ @Override public List<? extends IntSet> powerSet(int min, int max) {return container.powerSet(min, max);}
 	/** {@inheritDoc} */ @Override public int powerSetSize() {return container.powerSetSize();}
 	/** {@inheritDoc} */ @Override public int powerSetSize(int min, int max) {return container.powerSetSize(min, max);}
+	/** {@inheritDoc} */ @Override public BigInteger powerSetBigSize() {return container.powerSetBigSize();}
+	/** {@inheritDoc} */ @Override public BigInteger powerSetBigSize(int min, int max) {return container.powerSetBigSize(min, max);}
+	/** {@inheritDoc} */ @Override public Iterator<IntSet> powerSetIterator() {return container.powerSetIterator();}
+	/** {@inheritDoc} */ @Override public Iterator<IntSet> powerSetIterator(int min, int max) {return container.powerSetIterator(min, max);}
+	/** {@inheritDoc} */ @Override public Iterator<IntSet> powerSetIterator(int min, int max, boolean reuse) {return container.powerSetIterator(min, max, reuse);}
+	/** {@inheritDoc} */ @Override public Stream<IntSet> powerSetStream() {return container.powerSetStream();}
+	/** {@inheritDoc} */ @Override public Stream<IntSet> powerSetStream(int min, int max) {return container.powerSetStream(min, max);}
 	/** {@inheritDoc} */ @Override public double jaccardSimilarity(IntSet other) {return container.jaccardSimilarity(other);}
 	/** {@inheritDoc} */ @Override public double jaccardDistance(IntSet other) {return container.jaccardDistance(other);}
 	/** {@inheritDoc} */ @Override public double weightedJaccardSimilarity(IntSet other) {return container.weightedJaccardSimilarity(other);}
@@ -0,0 +1,46 @@
+/*
+ * (c) 2026 ExtendedSet contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.uniroma3.mat.extendedset.utilities;
+
+/**
+ * An operation that accepts three objects, used to scan map entries whose keys
+ * are pairs, such as transaction-item pairs, without allocating an object for
+ * each entry.
+ * 
+ * @author ExtendedSet contributors
+ * @version $Id$
+ * 
+ * @param <T>
+ *            type of the first object
+ * @param <U>
+ *            type of the second object
+ * @param <V>
+ *            type of the third object
+ */
+public interface ObjObjObjConsumer<T, U, V> {
+	/**
+	 * Performs the operation
+	 * 
+	 * @param t
+	 *            the first object
+	 * @param u
+	 *            the second object
+	 * @param v
+	 *            the third object
+	 */
+	public void accept(T t, U u, V v);
+}
@@ -0,0 +1,413 @@
+/*
+ * (c) 2026 ExtendedSet contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.uniroma3.mat.extendedset.utilities;
+
+import it.uniroma3.mat.extendedset.intset.IntSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Index over a collection of {@link IntSet} instances to find the sets that
+ * are most similar to a given query, according to the Jaccard similarity (see
+ * {@link IntSet#jaccardSimilarity(IntSet)}).
+ * <p>
+ * Sets that have no element in common with the query are never returned.
+ * Other sets are scored with {@link IntSet#intersectionSize(IntSet)}, after
+ * two pruning steps that rely on the similarity of the <i>k</i>-th best set
+ * found so far:
+ * <ul>
+ * <li><i>prefix filtering</i>: query elements are visited from the rarest to
+ * the most frequent one, by means of an inverted index. After visiting
+ * <code>p</code> elements, sets that have not been met yet share at most
+ * <code>q - p</code> elements with a query of size <code>q</code>, hence the
+ * visit stops as soon as <code>(q - p) / q</code> cannot reach the
+ * <i>k</i>-th best similarity;
+ * <li><i>size filtering</i>: a set of size <code>s</code> cannot be more
+ * similar than <code>min(q, s) / max(q, s)</code>, hence it is not scored when
+ * such a bound cannot reach the <i>k</i>-th best similarity.
+ * </ul>
+ * When an {@link ExecutorService} is specified, candidates are scored in
+ * batches, and each batch is split among the available processors.
+ * <p>
+ * Indexed sets must not be modified after the index is built, and they should
+ * be of the same class, since the query is converted to the class of the
+ * first indexed set to speed up intersections.
+ *
+ * @author ExtendedSet contributors
+ * @version $Id$
+ * @see IntSet#jaccardSimilarity(IntSet)
+ */
+public class SimilarityIndex {
+	/** number of candidates scored at once when using an executor */
+	private final static int BATCH_SIZE = 4096;
+
+	/** minimum number of candidates scored by each task */
+	private final static int MIN_CHUNK_SIZE = 256;
+
+	/** indexed sets */
+	private final IntSet[] sets;
+
+	/** size of each indexed set */
+	private final int[] sizes;
+
+	/** distinct elements of the indexed sets, sorted */
+	private final int[] elements;
+
+	/**
+	 * the sets containing <code>elements[i]</code> are in
+	 * <code>postings[offsets[i]]</code> ... <code>postings[offsets[i + 1] - 1]</code>
+	 */
+	private final int[] offsets;
+
+	/** indices of the sets containing each element */
+	private final int[] postings;
+
+	/**
+	 * Result of a similarity search
+	 */
+	public static class Match implements Comparable<Match> {
+		/** index of the set within the indexed collection */
+		public final int index;
+
+		/** Jaccard similarity with the query */
+		public final double similarity;
+
+		/**
+		 * Creates a match
+		 *
+		 * @param index
+		 *            index of the set within the indexed collection
+		 * @param similarity
+		 *            Jaccard similarity with the query
+		 */
+		public Match(int index, double similarity) {
+			this.index = index;
+			this.similarity = similarity;
+		}
+
+		/**
+		 * Sorts matches by decreasing similarity and, in case of ties, by
+		 * increasing index
+		 * <p>
+		 * {@inheritDoc}
+		 */
+		@Override
+		public int compareTo(Match o) {
+			int res = Double.compare(o.similarity, similarity);
+			if (res != 0)
+				return res;
+			return index < o.index ? -1 : (index == o.index ? 0 : 1);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		public String toString() {
+			return index + "=" + similarity;
+		}
+	}
+
+	/**
+	 * Indexes the given sets
+	 *
+	 * @param sets
+	 *            sets to index, identified by their position within the
+	 *            collection
+	 * @throws IllegalArgumentException
+	 *             if the overall number of elements is too large
+	 */
+	public SimilarityIndex(Collection<? extends IntSet> sets) {
+		this.sets = sets.toArray(new IntSet[sets.size()]);
+		this.sizes = new int[this.sets.length];
+
+		long total = 0;
+		for (int i = 0; i < this.sets.length; i++) {
+			sizes[i] = this.sets[i].size();
+			total += sizes[i];
+		}
+		if (total > Integer.MAX_VALUE - 8)
+			throw new IllegalArgumentException("too many elements to index: " + total);
+
+		// pairs of element and set index, sorted by element
+		final long[] pairs = new long[(int) total];
+		int n = 0;
+		for (int i = 0; i < this.sets.length; i++) {
+			IntSet.IntIterator itr = this.sets[i].iterator();
+			while (itr.hasNext())
+				pairs[n++] = ((long) itr.next() << 32) | i;
+		}
+		Arrays.sort(pairs);
+
+		int distinct = 0;
+		for (int k = 0; k < n; k++)
+			if (k == 0 || (int) (pairs[k] >> 32) != (int) (pairs[k - 1] >> 32))
+				distinct++;
+		elements = new int[distinct];
+		offsets = new int[distinct + 1];
+		postings = new int[n];
+		int e = -1;
+		for (int k = 0; k < n; k++) {
+			int element = (int) (pairs[k] >> 32);
+			if (e < 0 || element != elements[e]) {
+				elements[++e] = element;
+				offsets[e] = k;
+			}
+			postings[k] = (int) pairs[k];
+		}
+		offsets[distinct] = n;
+	}
+
+	/**
+	 * @return the number of indexed sets
+	 */
+	public int size() {
+		return sets.length;
+	}
+
+	/**
+	 * @param index
+	 *            index of the set within the indexed collection
+	 * @return the indexed set
+	 */
+	public IntSet get(int index) {
+		return sets[index];
+	}
+
+	/**
+	 * Finds the <code>k</code> sets that are most similar to the query
+	 *
+	 * @param query
+	 *            the query
+	 * @param k
+	 *            maximum number of results
+	 * @return matches, sorted by decreasing similarity
+	 * @see #topK(IntSet, int, double, ExecutorService)
+	 */
+	public List<Match> topK(IntSet query, int k) {
+		return topK(query, k, 0D, null);
+	}
+
+	/**
+	 * Finds the <code>k</code> sets that are most similar to the query,
+	 * scoring candidates in parallel
+	 *
+	 * @param query
+	 *            the query
+	 * @param k
+	 *            maximum number of results
+	 * @param executor
+	 *            executor to score candidates with
+	 * @return matches, sorted by decreasing similarity
+	 * @see #topK(IntSet, int, double, ExecutorService)
+	 */
+	public List<Match> topK(IntSet query, int k, ExecutorService executor) {
+		return topK(query, k, 0D, executor);
+	}
+
+	/**
+	 * Finds the <code>k</code> sets that are most similar to the query. Sets
+	 * with the same similarity are sorted by index, hence the result is the
+	 * same of comparing the query with every indexed set.
+	 *
+	 * @param query
+	 *            the query
+	 * @param k
+	 *            maximum number of results
+	 * @param minSimilarity
+	 *            minimum similarity of the results
+	 * @param executor
+	 *            executor to score candidates with, or <code>null</code> to
+	 *            score them in the current thread
+	 * @return matches, sorted by decreasing similarity
+	 * @throws IllegalArgumentException
+	 *             if <code>k</code> is not positive
+	 */
+	public List<Match> topK(IntSet query, int k, double minSimilarity, ExecutorService executor) {
+		if (k <= 0)
+			throw new IllegalArgumentException("k: " + k + " <= 0");
+
+		// worst match first
+		final PriorityQueue<Match> top = new PriorityQueue<Match>(Math.min(k, 1024), Collections.reverseOrder());
+
+		final int q = query.size();
+		if (q == 0) {
+			// only empty sets are similar to an empty query
+			if (minSimilarity <= 1D)
+				for (int i = 0; i < sets.length && top.size() < k; i++)
+					if (sizes[i] == 0)
+						top.add(new Match(i, 1D));
+			return sorted(top);
+		}
+		if (sets.length > 0 && query.getClass() != sets[0].getClass())
+			query = sets[0].convert(query.toArray());
+
+		// query elements, from the rarest to the most frequent one
+		final int[] qe = query.toArray();
+		final long[] byFrequency = new long[q];
+		for (int p = 0; p < q; p++) {
+			int e = Arrays.binarySearch(elements, qe[p]);
+			byFrequency[p] = e < 0 ? p : ((long) (offsets[e + 1] - offsets[e]) << 32) | e;
+		}
+		Arrays.sort(byFrequency);
+
+		final int batchSize = executor == null ? 1 : BATCH_SIZE;
+		final int[] batch = new int[batchSize];
+		final int[] intersections = new int[batchSize];
+		final boolean[] seen = new boolean[sets.length];
+		int count = 0;
+		double threshold = minSimilarity;
+		for (int p = 0; p < q; p++) {
+			// sets that have not been met yet share at most q - p elements
+			if ((double) (q - p) / q < threshold)
+				break;
+			if ((byFrequency[p] >>> 32) == 0)
+				continue;
+			final int e = (int) byFrequency[p];
+			for (int j = offsets[e]; j < offsets[e + 1]; j++) {
+				final int i = postings[j];
+				if (seen[i])
+					continue;
+				seen[i] = true;
+				if ((double) Math.min(q, sizes[i]) / Math.max(q, sizes[i]) < threshold)
+					continue;
+				batch[count++] = i;
+				if (count == batchSize) {
+					score(query, batch, intersections, count, executor);
+					threshold = select(top, k, minSimilarity, q, batch, intersections, count);
+					count = 0;
+				}
+			}
+		}
+		if (count > 0) {
+			score(query, batch, intersections, count, executor);
+			select(top, k, minSimilarity, q, batch, intersections, count);
+		}
+		return sorted(top);
+	}
+
+	/**
+	 * Computes the intersection size between the query and a batch of
+	 * candidates
+	 *
+	 * @param query
+	 *            the query
+	 * @param batch
+	 *            indices of the candidates
+	 * @param intersections
+	 *            where to put the intersection sizes
+	 * @param count
+	 *            number of candidates
+	 * @param executor
+	 *            executor to score candidates with, or <code>null</code>
+	 */
+	private void score(final IntSet query, final int[] batch, final int[] intersections, int count,
+			ExecutorService executor) {
+		final int tasks = executor == null ? 1
+				: Math.min(Runtime.getRuntime().availableProcessors(), count / MIN_CHUNK_SIZE);
+		if (tasks <= 1) {
+			for (int j = 0; j < count; j++)
+				intersections[j] = query.intersectionSize(sets[batch[j]]);
+			return;
+		}
+
+		final List<Callable<Void>> chunks = new ArrayList<Callable<Void>>(tasks);
+		for (int t = 0; t < tasks; t++) {
+			final int from = (int) ((long) count * t / tasks);
+			final int to = (int) ((long) count * (t + 1) / tasks);
+			chunks.add(new Callable<Void>() {
+				@Override
+				public Void call() {
+					for (int j = from; j < to; j++)
+						intersections[j] = query.intersectionSize(sets[batch[j]]);
+					return null;
+				}
+			});
+		}
+		try {
+			for (Future<Void> f : executor.invokeAll(chunks))
+				f.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e.getCause());
+		}
+	}
+
+	/**
+	 * Puts the scored candidates among the best matches
+	 *
+	 * @param top
+	 *            best matches, worst first
+	 * @param k
+	 *            maximum number of matches
+	 * @param minSimilarity
+	 *            minimum similarity of the matches
+	 * @param q
+	 *            query size
+	 * @param batch
+	 *            indices of the candidates
+	 * @param intersections
+	 *            intersection sizes between the query and the candidates
+	 * @param count
+	 *            number of candidates
+	 * @return the minimum similarity that a candidate must have to be among
+	 *         the best matches
+	 */
+	private double select(PriorityQueue<Match> top, int k, double minSimilarity, int q, int[] batch,
+			int[] intersections, int count) {
+		for (int j = 0; j < count; j++) {
+			final int inters = intersections[j];
+			if (inters == 0)
+				continue;
+			final double similarity = (double) inters / (q + sizes[batch[j]] - inters);
+			if (similarity < minSimilarity)
+				continue;
+			final Match m = new Match(batch[j], similarity);
+			if (top.size() < k) {
+				top.add(m);
+			} else if (m.compareTo(top.peek()) < 0) {
+				top.poll();
+				top.add(m);
+			}
+		}
+		if (top.size() < k)
+			return minSimilarity;
+		return Math.max(minSimilarity, top.peek().similarity);
+	}
+
+	/**
+	 * @param top
+	 *            best matches, worst first
+	 * @return best matches, best first
+	 */
+	private static List<Match> sorted(PriorityQueue<Match> top) {
+		final List<Match> res = new ArrayList<Match>(top);
+		Collections.sort(res);
+		return res;
+	}
+}
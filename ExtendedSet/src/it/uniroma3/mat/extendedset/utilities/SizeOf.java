@@ -0,0 +1,162 @@
+/*
+ * (c) 2026 ExtendedSet contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.uniroma3.mat.extendedset.utilities;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * Estimates of the heap space occupied by objects and arrays, used to
+ * implement the <code>sizeInBytes()</code> methods.
+ * <p>
+ * Estimates refer to the most common layout of 64-bit JVMs with compressed
+ * object references (the default for heaps smaller than 32 GB): 12-byte
+ * object headers, 16-byte array headers, 4-byte references, and sizes
+ * aligned to 8 bytes.
+ *
+ * @author ExtendedSet contributors
+ * @version $Id$
+ */
+public class SizeOf {
+	/** size of the header of an object */
+	public final static int OBJECT_HEADER = 12;
+
+	/** size of the header of an array, including the length field */
+	public final static int ARRAY_HEADER = 16;
+
+	/** size of a reference */
+	public final static int REFERENCE = 4;
+
+	/** object sizes are multiple of this value */
+	public final static int ALIGNMENT = 8;
+
+	/** size of a {@link java.util.TreeMap} or {@link java.util.HashMap} entry */
+	public final static int MAP_ENTRY = 40;
+
+	/** utility class */
+	private SizeOf() {
+		// nothing to do
+	}
+
+	/**
+	 * Rounds up the given size according to {@link #ALIGNMENT}
+	 *
+	 * @param size
+	 *            size in bytes
+	 * @return aligned size
+	 */
+	public static long align(long size) {
+		return (size + ALIGNMENT - 1) & ~(ALIGNMENT - 1);
+	}
+
+	/**
+	 * Size of an object with the given fields
+	 *
+	 * @param fieldBytes
+	 *            total size of the fields of the object
+	 * @return size of the object
+	 */
+	public static long object(int fieldBytes) {
+		return align(OBJECT_HEADER + fieldBytes);
+	}
+
+	/**
+	 * Size of an array, including unused elements
+	 *
+	 * @param a
+	 *            the array (it can be <code>null</code>)
+	 * @return size of the array, or 0 if <code>null</code>
+	 */
+	public static long array(int[] a) {
+		return a == null ? 0L : align(ARRAY_HEADER + 4L * a.length);
+	}
+
+	/**
+	 * Size of an array, including unused elements
+	 *
+	 * @param a
+	 *            the array (it can be <code>null</code>)
+	 * @return size of the array, or 0 if <code>null</code>
+	 */
+	public static long array(byte[] a) {
+		return a == null ? 0L : align(ARRAY_HEADER + (long) a.length);
+	}
+
+	/**
+	 * Size of an array, including unused elements
+	 *
+	 * @param a
+	 *            the array (it can be <code>null</code>)
+	 * @return size of the array, or 0 if <code>null</code>
+	 */
+	public static long array(long[] a) {
+		return a == null ? 0L : align(ARRAY_HEADER + 8L * a.length);
+	}
+
+	/**
+	 * Size of an array of references, <i>excluding</i> the referenced objects
+	 *
+	 * @param a
+	 *            the array (it can be <code>null</code>)
+	 * @return size of the array, or 0 if <code>null</code>
+	 */
+	public static long array(Object[] a) {
+		return a == null ? 0L : referenceArray(a.length);
+	}
+
+	/**
+	 * Size of an array of references, <i>excluding</i> the referenced objects
+	 *
+	 * @param length
+	 *            number of elements
+	 * @return size of the array
+	 */
+	public static long referenceArray(int length) {
+		return align(ARRAY_HEADER + (long) REFERENCE * length);
+	}
+
+	/**
+	 * Size of an {@link ArrayList} with the given number of elements,
+	 * <i>excluding</i> the referenced objects
+	 *
+	 * @param size
+	 *            number of elements
+	 * @return size of the list
+	 */
+	public static long arrayList(int size) {
+		return object(8 + REFERENCE) + referenceArray(size);
+	}
+
+	/**
+	 * Size of a generic collection, <i>excluding</i> the referenced objects.
+	 * Collections that are not backed by an array are supposed to require a
+	 * map-like entry for each element.
+	 *
+	 * @param c
+	 *            the collection
+	 * @return estimated size of the collection
+	 */
+	public static long collection(Collection<?> c) {
+		if (c == null)
+			return 0L;
+		if (c instanceof ArrayList<?>)
+			return arrayList(c.size());
+		return object(6 * REFERENCE + 16)
+				+ referenceArray(c.size())
+				+ (long) MAP_ENTRY * c.size();
+	}
+}
@@ -21,6 +21,7 @@ package it.uniroma3.mat.extendedset.wrappers;
 
 import it.uniroma3.mat.extendedset.AbstractExtendedSet;
 import it.uniroma3.mat.extendedset.ExtendedSet;
+import it.uniroma3.mat.extendedset.utilities.SizeOf;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -80,6 +81,14 @@ public class GenericExtendedSet<T extends Comparable<T>> extends AbstractExtende
 		return isEmpty() ? 0D : 1D;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long sizeInBytes() {
+		return SizeOf.object(2 * SizeOf.REFERENCE) + SizeOf.collection(elements);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
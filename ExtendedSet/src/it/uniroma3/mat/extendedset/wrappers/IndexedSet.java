@@ -23,6 +23,7 @@ import it.uniroma3.mat.extendedset.AbstractExtendedSet;
 import it.uniroma3.mat.extendedset.ExtendedSet;
 import it.uniroma3.mat.extendedset.intset.IntSet;
 import it.uniroma3.mat.extendedset.intset.IntSet.IntIterator;
+import it.uniroma3.mat.extendedset.utilities.SizeOf;
 
 import java.util.*;
 
@@ -46,8 +47,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	private final IntSet indices;
 
 	// mapping to translate items to indices and vice-versa
-	private final Map<T, Integer> itemToIndex;
-	private final T[] indexToItem;
+	private final Universe<T> universe;
 
 	/**
 	 * Creates an empty {@link IndexedSet} based on a given collection that
@@ -56,9 +56,10 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	 * <p>
 	 * <b>VERY IMPORTANT!</b> to correctly work and effectively reduce the
 	 * memory allocation, new instances of {@link IndexedSet} <i>must</i> be
-	 * created through the {@link #clone()} or {@link #empty()} methods and
-	 * <i>not</i> by calling many times this constructor with the same
-	 * collection for <code>universe</code>!
+	 * created through the {@link #clone()} or {@link #empty()} methods, or
+	 * through {@link #IndexedSet(IntSet, Universe)}, and <i>not</i> by
+	 * calling many times this constructor with the same collection for
+	 * <code>universe</code>!
 	 * 
 	 * @param indices
 	 *            {@link IntSet} instance used for internal representation
@@ -66,38 +67,65 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	 *            collection of <i>all</i> possible items. Order will be
 	 *            preserved.
 	 */
-	@SuppressWarnings("unchecked")
 	public IndexedSet(IntSet indices, final Collection<T> universe) {
-		// NOTE: this procedure removes duplicates while keeping the order
-		indexToItem = universe instanceof Set ? (T[]) universe.toArray() : (T[]) (new LinkedHashSet<T>(universe)).toArray();
-		itemToIndex = new HashMap<T, Integer>(Math.max((int) (indexToItem.length / .75f) + 1, 16));
-		for (int i = 0; i < indexToItem.length; i++)
-			itemToIndex.put(indexToItem[i], i);
-		this.indices = indices;
+		this(indices, universe, false);
 	}
 
 	/**
-	 * Creates a {@link IndexedSet} instance from a given universe
-	 * mapping
+	 * Creates an empty {@link IndexedSet} based on a given collection that
+	 * represents the set of <i>all</i> possible items that can be added to the
+	 * {@link IndexedSet} instance. See
+	 * {@link #IndexedSet(IntSet, Collection)}.
 	 * 
-	 * @param itemToIndex
-	 *            universe item-to-index mapping
-	 * @param indexToItem
-	 *            universe index-to-item mapping
 	 * @param indices
-	 *            initial item set
+	 *            {@link IntSet} instance used for internal representation
+	 * @param universe
+	 *            collection of <i>all</i> possible items. Order will be
+	 *            preserved.
+	 * @param perfectHashing
+	 *            <code>true</code> to map items to indices through a perfect
+	 *            hash, which takes longer to build but checks only one slot
+	 *            per lookup, <code>false</code> for an open addressing hash
 	 */
-	private IndexedSet(Map<T, Integer> itemToIndex, T[] indexToItem, IntSet indices) {
-		this.itemToIndex = itemToIndex;
-		this.indexToItem = indexToItem;
+	public IndexedSet(IntSet indices, final Collection<T> universe, boolean perfectHashing) {
+		this(indices, new Universe<T>(universe, perfectHashing));
+	}
+
+	/**
+	 * Creates a {@link IndexedSet} instance from a given universe mapping.
+	 * Differently from {@link #IndexedSet(IntSet, Collection)}, instances
+	 * created with the same {@link Universe} object share the mapping, hence
+	 * operations among them directly work on indices.
+	 * 
+	 * @param indices
+	 *            {@link IntSet} instance used for internal representation. It
+	 *            contains the indices of the initial items.
+	 * @param universe
+	 *            universe item-to-index mapping
+	 */
+	public IndexedSet(IntSet indices, Universe<T> universe) {
+		this.universe = universe;
 		this.indices = indices;
 	}
 	
 	/**
-	 * A shortcut for <code>new IndexedSet&lt;T&gt;(itemToIndex, indexToItem, indices)</code>
+	 * Maps an item to its index
+	 * 
+	 * @param e
+	 *            the item
+	 * @return the index of the item
+	 * @throws IllegalArgumentException
+	 *             if the item is not in the universe
+	 */
+	private int indexOrFail(Object e) {
+		return universe.indexOrFail(e);
+	}
+
+	/**
+	 * A shortcut for <code>new IndexedSet&lt;T&gt;(indx, universe)</code>
 	 */
 	private IndexedSet<T> createFromIndices(IntSet indx) {
-		return new IndexedSet<T>(itemToIndex, indexToItem, indx);
+		return new IndexedSet<T>(indx, universe);
 	}
 	
 	/**
@@ -110,10 +138,31 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	 *         {@link IndexedSet} with the same index mappings
 	 */
 	private boolean hasSameIndices(Collection<?> c) {
-		// since indices are always re-created through constructor and
-		// referenced through clone(), it is sufficient to check just only one
-		// mapping table
-		return (c instanceof IndexedSet) && (indexToItem == ((IndexedSet) c).indexToItem);
+		// since mappings are always re-created through constructor and
+		// referenced through clone(), it is sufficient to check the identity
+		return (c instanceof IndexedSet) && (universe == ((IndexedSet<?>) c).universe);
+	}
+
+	/**
+	 * Gets the indices of the items of the given collection, for read-only
+	 * purposes. Views are unwrapped, {@link IndexedSet} instances with the
+	 * same mapping are not converted, and conversions of collections that
+	 * have been registered to the {@link Universe} instance are cached (see
+	 * {@link Universe#register(Collection)}).
+	 * 
+	 * @param c
+	 *            collection of items of the universe
+	 * @return the set of indices, that <b>must not</b> be modified
+	 * @throws IllegalArgumentException
+	 *             if an item is not in the universe
+	 */
+	private IntSet indicesFor(Collection<?> c) {
+		if (c == null)
+			return indices.empty();
+		c = unwrap(c);
+		if (hasSameIndices(c))
+			return ((IndexedSet<?>) c).indices;
+		return universe.cachedIndicesOf(c, indices);
 	}
 	
 	/**
@@ -134,8 +183,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 		if (obj == null || !(obj instanceof Collection<?>))
 			return false;
 		IndexedSet<?> other = convert((Collection<?>) obj);
-		return this.indexToItem == other.indexToItem
-			&& this.itemToIndex == other.itemToIndex
+		return this.universe == other.universe
 			&& this.indices.equals(other.indices);
 	}
 
@@ -152,7 +200,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	 */
 	@Override
 	public int compareTo(ExtendedSet<T> o) {
-		return indices.compareTo(convert(o).indices);
+		return indices.compareTo(indicesFor(o));
 	}
 
 	/**
@@ -164,7 +212,9 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 			@Override
 			public int compare(T o1, T o2) {
 				// compare elements according to the universe ordering
-				return itemToIndex.get(o1).compareTo(itemToIndex.get(o2));
+				int i1 = indexOrFail(o1);
+				int i2 = indexOrFail(o2);
+				return i1 < i2 ? -1 : (i1 == i2 ? 0 : 1);
 			}
 		};
 	}
@@ -174,7 +224,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	 */
 	@Override
 	public T first() {
-		return indexToItem[indices.first()];
+		return universe.items[indices.first()];
 	}
 
 	/**
@@ -182,7 +232,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	 */
 	@Override
 	public T last() {
-		return indexToItem[indices.last()];
+		return universe.items[indices.last()];
 	}
 
 	/**
@@ -190,10 +240,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	 */
 	@Override
 	public boolean add(T e) {
-		Integer index = itemToIndex.get(e);
-		if (index == null)
-			throw new IllegalArgumentException("element not in the current universe");
-		return indices.add(index);
+		return indices.add(indexOrFail(e));
 	}
 
 	/**
@@ -201,7 +248,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	 */
 	@Override
 	public boolean addAll(Collection<? extends T> c) {
-		return c != null && !c.isEmpty() && indices.addAll(convert(c).indices);
+		return c != null && !c.isEmpty() && indices.addAll(indicesFor(c));
 	}
 
 	/**
@@ -217,7 +264,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	 */
 	@Override
 	public void flip(T e) {
-		indices.flip(itemToIndex.get(e));
+		indices.flip(indexOrFail(e));
 	}
 	
 	/**
@@ -227,8 +274,8 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	public boolean contains(Object o) {
 		if (o == null)
 			return false;
-		Integer index = itemToIndex.get(o);
-		return index != null && indices.contains(index);
+		int index = universe.index.indexOf(o);
+		return index >= 0 && indices.contains(index);
 	}
 
 	/**
@@ -236,7 +283,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	 */
 	@Override
 	public boolean containsAll(Collection<?> c) {
-		return c == null || indices.containsAll(convert(c).indices);
+		return c == null || indices.containsAll(indicesFor(c));
 	}
 
 	/**
@@ -244,7 +291,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	 */
 	@Override
 	public boolean containsAny(Collection<? extends T> other) {
-		return other == null || indices.containsAny(convert(other).indices);
+		return other == null || indices.containsAny(indicesFor(other));
 	}
 
 	/**
@@ -252,7 +299,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	 */
 	@Override
 	public boolean containsAtLeast(Collection<? extends T> other, int minElements) {
-		return other != null && !other.isEmpty() && indices.containsAtLeast(convert(other).indices, minElements);
+		return other != null && !other.isEmpty() && indices.containsAtLeast(indicesFor(other), minElements);
 	}
 
 	/**
@@ -271,8 +318,8 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 		return new ExtendedIterator<T>() {
 			final IntIterator itr = indices.iterator();
 			@Override public boolean hasNext() {return itr.hasNext();}
-			@Override public T next() {return indexToItem[itr.next()];}
-			@Override public void skipAllBefore(T element) {itr.skipAllBefore(itemToIndex.get(element));}
+			@Override public T next() {return universe.items[itr.next()];}
+			@Override public void skipAllBefore(T element) {itr.skipAllBefore(indexOrFail(element));}
 			@Override public void remove() {itr.remove();}
 		};
 	}
@@ -285,8 +332,8 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 		return new ExtendedIterator<T>() {
 			final IntIterator itr = indices.descendingIterator();
 			@Override public boolean hasNext() {return itr.hasNext();}
-			@Override public T next() {return indexToItem[itr.next()];}
-			@Override public void skipAllBefore(T element) {itr.skipAllBefore(itemToIndex.get(element));}
+			@Override public T next() {return universe.items[itr.next()];}
+			@Override public void skipAllBefore(T element) {itr.skipAllBefore(indexOrFail(element));}
 			@Override public void remove() {itr.remove();}
 		};
 	}
@@ -298,8 +345,8 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	public boolean remove(Object o) {
 		if (o == null)
 			return false;
-		Integer index = itemToIndex.get(o);
-		return index != null && indices.remove(index);
+		int index = universe.index.indexOf(o);
+		return index >= 0 && indices.remove(index);
 	}
 
 	/**
@@ -307,7 +354,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	 */
 	@Override
 	public boolean removeAll(Collection<?> c) {
-		return c != null && !c.isEmpty() && indices.removeAll(convert(c).indices);
+		return c != null && !c.isEmpty() && indices.removeAll(indicesFor(c));
 	}
 
 	/**
@@ -321,7 +368,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 			indices.clear();
 			return true;
 		}
-		return indices.retainAll(convert(c).indices);
+		return indices.retainAll(indicesFor(c));
 	}
 
 	/**
@@ -339,7 +386,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	public IndexedSet<T> intersection(Collection<? extends T> other) {
 		if (other == null)
 			return empty();
-		return createFromIndices(indices.intersection(convert(other).indices));
+		return createFromIndices(indices.intersection(indicesFor(other)));
 	}
 
 	/**
@@ -349,7 +396,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	public IndexedSet<T> union(Collection<? extends T> other) {
 		if (other == null)
 			return clone();
-		return createFromIndices(indices.union(convert(other).indices));
+		return createFromIndices(indices.union(indicesFor(other)));
 	}
 
 	/**
@@ -359,7 +406,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	public IndexedSet<T> difference(Collection<? extends T> other) {
 		if (other == null)
 			return clone();
-		return createFromIndices(indices.difference(convert(other).indices));
+		return createFromIndices(indices.difference(indicesFor(other)));
 	}
 
 	/**
@@ -369,7 +416,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	public IndexedSet<T> symmetricDifference(Collection<? extends T> other) {
 		if (other == null)
 			return clone();
-		return createFromIndices(indices.symmetricDifference(convert(other).indices));
+		return createFromIndices(indices.symmetricDifference(indicesFor(other)));
 	}
 
 	/**
@@ -395,7 +442,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	public int intersectionSize(Collection<? extends T> other) {
 		if (other == null)
 			return 0;
-		return indices.intersectionSize(convert(other).indices);
+		return indices.intersectionSize(indicesFor(other));
 	}
 
 	/**
@@ -405,7 +452,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	public int unionSize(Collection<? extends T> other) {
 		if (other == null)
 			return size();
-		return indices.unionSize(convert(other).indices);
+		return indices.unionSize(indicesFor(other));
 	}
 
 	/**
@@ -415,7 +462,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	public int symmetricDifferenceSize(Collection<? extends T> other) {
 		if (other == null)
 			return size();
-		return indices.symmetricDifferenceSize(convert(other).indices);
+		return indices.symmetricDifferenceSize(indicesFor(other));
 	}
 
 	/**
@@ -425,7 +472,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	public int differenceSize(Collection<? extends T> other) {
 		if (other == null)
 			return size();
-		return indices.differenceSize(convert(other).indices);
+		return indices.differenceSize(indicesFor(other));
 	}
 
 	/**
@@ -443,10 +490,20 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	 */
 	public IndexedSet<T> universe() {
 		IntSet allItems = indices.empty();
-		allItems.fill(0, indexToItem.length - 1);
+		allItems.fill(0, universe.items.length - 1);
 		return createFromIndices(allItems);
 	}
 
+	/**
+	 * Returns the mapping between items and indices, that can be shared with
+	 * new instances through {@link #IndexedSet(IntSet, Universe)}
+	 * 
+	 * @return the universe mapping
+	 */
+	public Universe<T> getUniverse() {
+		return universe;
+	}
+
 	/**
 	 * Returns the index of the given item
 	 * 
@@ -454,7 +511,31 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	 * @return the index of the given item
 	 */
 	public Integer absoluteIndexOf(T item) {
-		return itemToIndex.get(item);
+		int index = universe.index.indexOf(item);
+		return index < 0 ? null : index;
+	}
+
+	/**
+	 * Returns the index of the given item, without boxing
+	 * 
+	 * @param item
+	 * @return the index of the given item, or -1 if it is not in the universe
+	 */
+	public int absoluteIndex(T item) {
+		return universe.index.indexOf(item);
+	}
+
+	/**
+	 * Maps the given items to their indices
+	 * 
+	 * @param items
+	 *            items of the universe
+	 * @return the set of indices, of the same type of {@link #indices()}
+	 * @throws IllegalArgumentException
+	 *             if an item is not in the universe
+	 */
+	public IntSet indicesOf(Collection<? extends T> items) {
+		return indices.convert(universe.indexArray(items));
 	}
 
 	/**
@@ -464,7 +545,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	 * @return the item 
 	 */
 	public T absoluteGet(int i) {
-		return indexToItem[i];
+		return universe.items[i];
 	}
 
 	/**
@@ -505,6 +586,15 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 		return indices.collectionCompressionRatio();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long sizeInBytes() {
+		// the universe is shared, hence it is not counted
+		return SizeOf.object(3 * SizeOf.REFERENCE) + indices.sizeInBytes();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -519,10 +609,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 			return (IndexedSet<T>) c;
 		
 		// NOTE: cannot call super.convert(c) because of loop
-		IndexedSet<T> res = empty();
-		for (T t : (Collection<T>) c) 
-			res.add(t);
-		return res;
+		return createFromIndices(indicesFor(c).clone());
 	}
 	
 	/**
@@ -555,7 +642,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	@Override
 	public String debugInfo() {
 		return String.format("items = %s\nitemToIndex = %s\nindexToItem = %s\n", 
-				indices.debugInfo(), itemToIndex.toString(), Arrays.toString(indexToItem));
+				indices.debugInfo(), universe.index.toString(), Arrays.toString(universe.items));
 	}
 
 	/**
@@ -563,7 +650,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	 */
 	@Override
 	public double jaccardSimilarity(ExtendedSet<T> other) {
-		return indices.jaccardSimilarity(convert(other).indices);
+		return indices.jaccardSimilarity(indicesFor(other));
 	}
 	
 	//TODO
@@ -604,7 +691,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	 */
 	@Override
 	public T get(int i) {
-		return indexToItem[indices.get(i)];
+		return universe.items[indices.get(i)];
 	}
 
 	/**
@@ -612,7 +699,8 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	 */
 	@Override
 	public int indexOf(T e) {
-		return indices.indexOf(itemToIndex.get(e));
+		int index = universe.index.indexOf(e);
+		return index < 0 ? -1 : indices.indexOf(index);
 	}
 	
 	/**
@@ -620,7 +708,7 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	 */
 	@Override
 	public void clear(T from, T to) {
-		indices.clear(itemToIndex.get(from), itemToIndex.get(to));
+		indices.clear(indexOrFail(from), indexOrFail(to));
 	}
 
 	/**
@@ -628,6 +716,232 @@ public class IndexedSet<T> extends AbstractExtendedSet<T> implements java.io.Ser
 	 */
 	@Override
 	public void fill(T from, T to) {
-		indices.fill(itemToIndex.get(from), itemToIndex.get(to));
+		indices.fill(indexOrFail(from), indexOrFail(to));
+	}
+
+	/**
+	 * The mapping between the items of the universe and their indices.
+	 * <p>
+	 * All the {@link IndexedSet} instances created with the same
+	 * {@link Universe} instance share the mapping, hence operations among them
+	 * directly work on indices. Other collections used as operands are
+	 * converted to indices at each operation, by looking up all their items.
+	 * When the same collection is used many times, it can be registered
+	 * through {@link #register(Collection)}, so that its indices are computed
+	 * once and reused until {@link #forget(Collection)} is called. Registered
+	 * collections are compared by identity and are only weakly referenced.
+	 * They must not be modified while registered, since modifications that
+	 * preserve the size are not detected.
+	 * <p>
+	 * This class is thread-safe.
+	 * 
+	 * @param <T>
+	 *            item type
+	 */
+	public static class Universe<T> implements java.io.Serializable {
+		/** generated serial ID */
+		private static final long serialVersionUID = 4925870325564961839L;
+
+		/** index-to-item mapping */
+		final T[] items;
+
+		/** item-to-index mapping */
+		final ItemIndex<T> index;
+
+		/** registered collections, with their conversions */
+		private transient ArrayList<Conversion> registered;
+
+		/**
+		 * Creates the mapping of the given items. See
+		 * {@link IndexedSet#IndexedSet(IntSet, Collection, boolean)}.
+		 * 
+		 * @param universe
+		 *            collection of <i>all</i> possible items. Order will be
+		 *            preserved.
+		 * @param perfectHashing
+		 *            <code>true</code> to map items to indices through a
+		 *            perfect hash
+		 */
+		@SuppressWarnings("unchecked")
+		public Universe(Collection<T> universe, boolean perfectHashing) {
+			// NOTE: this procedure removes duplicates while keeping the order
+			items = universe instanceof Set ? (T[]) universe.toArray() : (T[]) (new LinkedHashSet<T>(universe)).toArray();
+			index = new ItemIndex<T>(items, perfectHashing);
+		}
+
+		/**
+		 * Creates the mapping of the given items, through an open addressing
+		 * hash
+		 * 
+		 * @param universe
+		 *            collection of <i>all</i> possible items. Order will be
+		 *            preserved.
+		 */
+		public Universe(Collection<T> universe) {
+			this(universe, false);
+		}
+
+		/**
+		 * @return the number of items
+		 */
+		public int size() {
+			return items.length;
+		}
+
+		/**
+		 * @param i
+		 *            an index
+		 * @return the item with the given index
+		 */
+		public T get(int i) {
+			return items[i];
+		}
+
+		/**
+		 * @param item
+		 *            an item
+		 * @return the index of the item, or -1 if it is not in the universe
+		 */
+		public int indexOf(Object item) {
+			return index.indexOf(item);
+		}
+
+		/**
+		 * Maps an item to its index
+		 * 
+		 * @param item
+		 *            the item
+		 * @return the index of the item
+		 * @throws IllegalArgumentException
+		 *             if the item is not in the universe
+		 */
+		int indexOrFail(Object item) {
+			int i = index.indexOf(item);
+			if (i < 0)
+				throw new IllegalArgumentException("element not in the current universe");
+			return i;
+		}
+
+		/**
+		 * Maps the given items to their indices
+		 * 
+		 * @param c
+		 *            items of the universe
+		 * @return the indices, in the iteration order of the collection
+		 * @throws IllegalArgumentException
+		 *             if an item is not in the universe
+		 */
+		int[] indexArray(Collection<?> c) {
+			final int[] res = new int[c.size()];
+			int i = 0;
+			for (Object o : c)
+				res[i++] = indexOrFail(o);
+			return i == res.length ? res : Arrays.copyOf(res, i);
+		}
+
+		/**
+		 * Maps the given items to their indices, through the cache of
+		 * conversions of registered collections
+		 * 
+		 * @param c
+		 *            items of the universe
+		 * @param template
+		 *            set used to create the indices
+		 * @return the set of indices, that <b>must not</b> be modified
+		 * @throws IllegalArgumentException
+		 *             if an item is not in the universe
+		 */
+		IntSet cachedIndicesOf(Collection<?> c, IntSet template) {
+			Conversion e = null;
+			synchronized (this) {
+				if (registered != null) {
+					for (Conversion r : registered) {
+						if (r.get() == c) {
+							e = r;
+							break;
+						}
+					}
+				}
+				if (e == null)
+					return template.convert(indexArray(c));
+				final IntSet cached = e.indices;
+				if (cached != null && cached.getClass() == template.getClass() && e.size == c.size())
+					return cached;
+			}
+
+			// convert outside the lock, since lookups do not modify the mapping
+			final int size = c.size();
+			final IntSet indices = template.convert(indexArray(c));
+			indices.size(); // compute cached values before sharing the set
+			synchronized (this) {
+				e.size = size;
+				e.indices = indices;
+			}
+			return indices;
+		}
+
+		/**
+		 * Registers a collection of items that will be used as an operand many
+		 * times, so that its indices are computed at the first operation and
+		 * then reused. The collection must not be modified until
+		 * {@link #forget(Collection)} is called, or until it is registered
+		 * again.
+		 * 
+		 * @param c
+		 *            the collection
+		 */
+		public synchronized void register(Collection<?> c) {
+			if (registered == null)
+				registered = new ArrayList<Conversion>();
+			forgetEntry(c);
+			registered.add(new Conversion(c));
+		}
+
+		/**
+		 * Removes the given collection from the registered ones, if present
+		 * 
+		 * @param c
+		 *            the collection
+		 */
+		public synchronized void forget(Collection<?> c) {
+			if (registered != null)
+				forgetEntry(c);
+		}
+
+		/**
+		 * Removes all the registered collections
+		 */
+		public synchronized void clearCache() {
+			registered = null;
+		}
+
+		/**
+		 * Removes the given collection from the registered ones, as well as
+		 * the collections that have been garbage collected. The lock must be
+		 * held.
+		 */
+		private void forgetEntry(Collection<?> c) {
+			final Iterator<Conversion> itr = registered.iterator();
+			while (itr.hasNext()) {
+				Collection<?> k = itr.next().get();
+				if (k == null || k == c)
+					itr.remove();
+			}
+		}
+
+		/**
+		 * Conversion of a registered collection
+		 */
+		private static class Conversion extends java.lang.ref.WeakReference<Collection<?>> {
+			/** size of the collection when converted */
+			int size;
+
+			/** indices of the items, or <code>null</code> if not converted yet */
+			IntSet indices;
+
+			Conversion(Collection<?> c) {
+				super(c);
+			}
+		}
 	}
 }
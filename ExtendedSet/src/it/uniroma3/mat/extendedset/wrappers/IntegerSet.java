@@ -22,8 +22,10 @@ import it.uniroma3.mat.extendedset.AbstractExtendedSet;
 import it.uniroma3.mat.extendedset.ExtendedSet;
 import it.uniroma3.mat.extendedset.intset.IntSet;
 import it.uniroma3.mat.extendedset.intset.IntSet.IntIterator;
+import it.uniroma3.mat.extendedset.utilities.SizeOf;
 
 import java.util.*;
+import java.util.stream.IntStream;
 
 /**
  * This class provides a "wrapper" for any  {@link IntSet}  instance in order to be used as an  {@link ExtendedSet}  instance.
@@ -58,8 +60,9 @@ public class IntegerSet extends AbstractExtendedSet<Integer> {
 	/**
 	 * Converts a generic collection of {@link Integer} instances to a
 	 * {@link IntSet} instance. If the given collection is an
-	 * {@link IntegerSet} instance, it returns the contained
-	 * {@link #items} object.
+	 * {@link IntegerSet} instance, or a view of it, it returns the contained
+	 * {@link #items} object. Otherwise, integers are unboxed into an array,
+	 * that is sorted before creating the set.
 	 * 
 	 * @param c
 	 *            the generic collection of {@link Integer} instances
@@ -69,23 +72,187 @@ public class IntegerSet extends AbstractExtendedSet<Integer> {
 		// nothing to convert
 		if (c == null)
 			return null;
+		c = unwrap(c);
 		if (c instanceof IntegerSet) 
 			return ((IntegerSet) c).items;
 		
 		// extract integers from the given collection
-		IntSet res = items.empty();
-		List<Integer> sorted = new ArrayList<Integer>(c.size());
-		for (Object i : c) {
-			try {
-				sorted.add((Integer) i);
-			} catch (ClassCastException e) {
-				// do nothing
+		int[] res = new int[c.size()];
+		int size = 0;
+		if (c instanceof IndexedSet<?>) {
+			// universe items are already boxed
+			IndexedSet<?> indexed = (IndexedSet<?>) c;
+			IntIterator itr = indexed.indices().iterator();
+			while (itr.hasNext()) {
+				Object i = indexed.absoluteGet(itr.next());
+				if (i instanceof Integer)
+					res[size++] = (Integer) i;
+			}
+		} else {
+			for (Object i : c) {
+				if (i instanceof Integer)
+					res[size++] = (Integer) i;
 			}
 		}
-		Collections.sort(sorted);
-		for (Integer i : sorted) 
-			res.add(i);
-		return res;
+		return toIntSet(size == res.length ? res : Arrays.copyOf(res, size));
+	}
+
+	/**
+	 * Converts an array of <code>int</code> numbers to a {@link IntSet}
+	 * instance
+	 * 
+	 * @param a
+	 *            the numbers, in any order and possibly with duplicates
+	 * @return the resulting {@link IntSet} instance
+	 */
+	private IntSet toIntSet(int[] a) {
+		return a == null ? null : items.convert(a);
+	}
+
+	/**
+	 * Converts an array of <code>int</code> numbers to an {@link IntegerSet}
+	 * instance of the same type of the current one, without boxing
+	 * 
+	 * @param a
+	 *            the numbers, in any order and possibly with duplicates
+	 * @return the resulting set
+	 */
+	public IntegerSet convert(int[] a) {
+		return new IntegerSet(toIntSet(a));
+	}
+
+	/**
+	 * Converts a stream of <code>int</code> numbers to an {@link IntegerSet}
+	 * instance of the same type of the current one, without boxing
+	 * 
+	 * @param s
+	 *            the numbers, in any order and possibly with duplicates
+	 * @return the resulting set
+	 */
+	public IntegerSet convert(IntStream s) {
+		return new IntegerSet(toIntSet(s.toArray()));
+	}
+
+	/**
+	 * Adds all the given numbers, without boxing
+	 * 
+	 * @param a
+	 *            the numbers to add
+	 * @return <code>true</code> if the set changed
+	 * @see #addAll(Collection)
+	 */
+	public boolean addAll(int[] a) {
+		return items.addAll(toIntSet(a));
+	}
+
+	/**
+	 * Adds all the numbers of the given stream, without boxing
+	 * 
+	 * @param s
+	 *            the numbers to add
+	 * @return <code>true</code> if the set changed
+	 * @see #addAll(Collection)
+	 */
+	public boolean addAll(IntStream s) {
+		return items.addAll(toIntSet(s.toArray()));
+	}
+
+	/**
+	 * Removes all the given numbers, without boxing
+	 * 
+	 * @param a
+	 *            the numbers to remove
+	 * @return <code>true</code> if the set changed
+	 * @see #removeAll(Collection)
+	 */
+	public boolean removeAll(int[] a) {
+		return items.removeAll(toIntSet(a));
+	}
+
+	/**
+	 * Retains only the given numbers, without boxing
+	 * 
+	 * @param a
+	 *            the numbers to retain
+	 * @return <code>true</code> if the set changed
+	 * @see #retainAll(Collection)
+	 */
+	public boolean retainAll(int[] a) {
+		return items.retainAll(toIntSet(a));
+	}
+
+	/**
+	 * Checks whether all the given numbers are in the set, without boxing
+	 * 
+	 * @param a
+	 *            the numbers to check
+	 * @return <code>true</code> if all the numbers are in the set
+	 * @see #containsAll(Collection)
+	 */
+	public boolean containsAll(int[] a) {
+		return items.containsAll(toIntSet(a));
+	}
+
+	/**
+	 * Checks whether any of the given numbers is in the set, without boxing
+	 * 
+	 * @param a
+	 *            the numbers to check
+	 * @return <code>true</code> if at least one number is in the set
+	 * @see #containsAny(Collection)
+	 */
+	public boolean containsAny(int[] a) {
+		return items.containsAny(toIntSet(a));
+	}
+
+	/**
+	 * Intersects the set with the given numbers, without boxing
+	 * 
+	 * @param a
+	 *            the numbers to intersect
+	 * @return the intersection
+	 * @see #intersection(Collection)
+	 */
+	public IntegerSet intersection(int[] a) {
+		return new IntegerSet(items.intersection(toIntSet(a)));
+	}
+
+	/**
+	 * Computes the union of the set and the given numbers, without boxing
+	 * 
+	 * @param a
+	 *            the numbers to add
+	 * @return the union
+	 * @see #union(Collection)
+	 */
+	public IntegerSet union(int[] a) {
+		return new IntegerSet(items.union(toIntSet(a)));
+	}
+
+	/**
+	 * Computes the difference between the set and the given numbers, without
+	 * boxing
+	 * 
+	 * @param a
+	 *            the numbers to remove
+	 * @return the difference
+	 * @see #difference(Collection)
+	 */
+	public IntegerSet difference(int[] a) {
+		return new IntegerSet(items.difference(toIntSet(a)));
+	}
+
+	/**
+	 * Computes the intersection size of the set and the given numbers,
+	 * without boxing
+	 * 
+	 * @param a
+	 *            the numbers to intersect
+	 * @return the intersection size
+	 * @see #intersectionSize(Collection)
+	 */
+	public int intersectionSize(int[] a) {
+		return items.intersectionSize(toIntSet(a));
 	}
 
 	/** {@inheritDoc} */
@@ -119,6 +286,12 @@ public class IntegerSet extends AbstractExtendedSet<Integer> {
 		return items.collectionCompressionRatio();
 	}
 
+	/** {@inheritDoc} */
+	@Override
+	public long sizeInBytes() {
+		return SizeOf.object(SizeOf.REFERENCE) + items.sizeInBytes();
+	}
+
 	/** {@inheritDoc} */
 	@Override
 	public int compareTo(ExtendedSet<Integer> o) {
@@ -0,0 +1,368 @@
+/*
+ * (c) 2026 ExtendedSet contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.uniroma3.mat.extendedset.wrappers;
+
+import it.uniroma3.mat.extendedset.utilities.SizeOf;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Maps the items of a universe to their positions within the universe array.
+ * <p>
+ * Differently from a {@link java.util.HashMap}, there are neither entry
+ * objects nor boxed indices: the hash table is an <code>int</code> array that
+ * refers to the universe array, which is shared and not copied. Two layouts
+ * are available:
+ * <ul>
+ * <li><i>open addressing</i> with linear probing;
+ * <li><i>perfect hashing</i>, built through the "hash, displace, and compress"
+ * scheme, where each lookup checks exactly one slot. Items whose hash codes
+ * collide with each other cannot be told apart by any displacement, hence
+ * they are put in a (small) open addressing table.
+ * </ul>
+ * Hash tables are not serialized, but rebuilt when deserialized, since hash
+ * codes may change from one JVM to another.
+ *
+ * @author ExtendedSet contributors
+ * @version $Id$
+ * @param <T>
+ *            item type
+ * @see IndexedSet
+ */
+class ItemIndex<T> implements Serializable {
+	/** generated serial ID */
+	private static final long serialVersionUID = -6053740812409045427L;
+
+	/** maximum load factor of open addressing tables */
+	private final static float LOAD_FACTOR = 0.7f;
+
+	/** average number of items per bucket of the perfect hash */
+	private final static int ITEMS_PER_BUCKET = 4;
+
+	/** maximum number of displacements to try for each bucket */
+	private final static int MAX_DISPLACEMENTS = 1 << 16;
+
+	/** universe items */
+	private final T[] items;
+
+	/** <code>true</code> if perfect hashing is used */
+	private final boolean perfect;
+
+	/**
+	 * open addressing table, where each slot contains 1 plus the item index,
+	 * or 0 if empty. When perfect hashing is used, it only contains items
+	 * that cannot be placed in {@link #slots}, or it is <code>null</code>.
+	 */
+	private transient int[] table;
+
+	/** displacement of each bucket of the perfect hash */
+	private transient int[] displacements;
+
+	/** slots of the perfect hash, with the same encoding of {@link #table} */
+	private transient int[] slots;
+
+	/**
+	 * Indexes the given items
+	 *
+	 * @param items
+	 *            items of the universe, without duplicates
+	 * @param perfect
+	 *            <code>true</code> to use perfect hashing, which takes longer
+	 *            to build but guarantees that lookups check only one slot
+	 */
+	ItemIndex(T[] items, boolean perfect) {
+		this.items = items;
+		this.perfect = perfect;
+		build();
+	}
+
+	/**
+	 * Builds the hash tables
+	 */
+	private void build() {
+		if (perfect)
+			buildPerfect();
+		else
+			table = openTable(allIndices(items.length));
+	}
+
+	/**
+	 * @param n
+	 *            number of items
+	 * @return integers from 0 to <code>n - 1</code>
+	 */
+	private static int[] allIndices(int n) {
+		int[] res = new int[n];
+		for (int i = 0; i < n; i++)
+			res[i] = i;
+		return res;
+	}
+
+	/**
+	 * Spreads the bits of a hash code (finalization step of MurmurHash3)
+	 */
+	private static int mix(int h) {
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return h;
+	}
+
+	/**
+	 * @param o
+	 *            an item, possibly <code>null</code>
+	 * @return the hash code of the item
+	 */
+	private static int hash(Object o) {
+		return o == null ? 0 : o.hashCode();
+	}
+
+	/**
+	 * @param o
+	 *            the item to look for
+	 * @param i
+	 *            index of an item of the universe
+	 * @return <code>true</code> if the item with the given index equals
+	 *         <code>o</code>
+	 */
+	private boolean matches(Object o, int i) {
+		T t = items[i];
+		return o == t || (o != null && o.equals(t));
+	}
+
+	/**
+	 * Creates an open addressing table
+	 *
+	 * @param indices
+	 *            indices of the items to put in the table
+	 * @return the table
+	 */
+	private int[] openTable(int[] indices) {
+		int capacity = 16;
+		while (capacity * LOAD_FACTOR < indices.length)
+			capacity <<= 1;
+		final int[] res = new int[capacity];
+		final int mask = capacity - 1;
+		for (int i : indices) {
+			int slot = mix(hash(items[i])) & mask;
+			while (res[slot] != 0)
+				slot = (slot + 1) & mask;
+			res[slot] = i + 1;
+		}
+		return res;
+	}
+
+	/**
+	 * Looks for an item in the open addressing table
+	 *
+	 * @param o
+	 *            the item
+	 * @param h
+	 *            hash code of the item
+	 * @return the item index, or -1
+	 */
+	private int openIndexOf(Object o, int h) {
+		final int[] t = table;
+		final int mask = t.length - 1;
+		int slot = mix(h) & mask;
+		int v;
+		while ((v = t[slot]) != 0) {
+			if (matches(o, v - 1))
+				return v - 1;
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * @param h
+	 *            hash code
+	 * @return bucket of the perfect hash
+	 */
+	private int bucket(int h) {
+		return (int) (((mix(h) & 0xFFFFFFFFL) * displacements.length) >>> 32);
+	}
+
+	/**
+	 * @param h
+	 *            hash code
+	 * @param d
+	 *            displacement
+	 * @return slot of the perfect hash
+	 */
+	private int slot(int h, int d) {
+		return (int) (((mix(h ^ (d * 0x9E3779B9) ^ 0x5bd1e995) & 0xFFFFFFFFL) * slots.length) >>> 32);
+	}
+
+	/**
+	 * Builds the perfect hash, by placing buckets from the largest to the
+	 * smallest, each with the first displacement that maps all of its items
+	 * into empty slots
+	 */
+	private void buildPerfect() {
+		final int n = items.length;
+		displacements = new int[Math.max(1, (n + ITEMS_PER_BUCKET - 1) / ITEMS_PER_BUCKET)];
+		slots = new int[Math.max(1, (int) (n / 0.9))];
+
+		// group items by bucket (counting sort)
+		final int[] hashes = new int[n];
+		final int[] start = new int[displacements.length + 1];
+		for (int i = 0; i < n; i++) {
+			hashes[i] = hash(items[i]);
+			start[bucket(hashes[i]) + 1]++;
+		}
+		for (int b = 0; b < displacements.length; b++)
+			start[b + 1] += start[b];
+		final int[] members = new int[n];
+		final int[] fill = start.clone();
+		for (int i = 0; i < n; i++)
+			members[fill[bucket(hashes[i])]++] = i;
+
+		// sort buckets by decreasing size
+		final int maxSize = maxBucketSize(start);
+		final int[] bySize = new int[maxSize + 2];
+		for (int b = 0; b < displacements.length; b++)
+			bySize[maxSize - (start[b + 1] - start[b]) + 1]++;
+		for (int s = 0; s <= maxSize; s++)
+			bySize[s + 1] += bySize[s];
+		final int[] order = new int[displacements.length];
+		for (int b = 0; b < displacements.length; b++)
+			order[bySize[maxSize - (start[b + 1] - start[b])]++] = b;
+
+		// place buckets
+		final int[] overflow = new int[n];
+		int overflowCount = 0;
+		final int[] bucketSlots = new int[maxSize];
+		final int[] bucketItems = new int[maxSize];
+		for (int b : order) {
+			// items with the same hash code of a previous item of the bucket
+			// would always collide
+			int size = 0;
+			next: for (int k = start[b]; k < start[b + 1]; k++) {
+				int i = members[k];
+				for (int j = 0; j < size; j++) {
+					if (hashes[bucketItems[j]] == hashes[i]) {
+						overflow[overflowCount++] = i;
+						continue next;
+					}
+				}
+				bucketItems[size++] = i;
+			}
+			if (size == 0)
+				continue;
+
+			int d = 0;
+			search: for (; d < MAX_DISPLACEMENTS; d++) {
+				for (int j = 0; j < size; j++) {
+					int s = slot(hashes[bucketItems[j]], d);
+					if (slots[s] != 0)
+						continue search;
+					for (int k = 0; k < j; k++)
+						if (bucketSlots[k] == s)
+							continue search;
+					bucketSlots[j] = s;
+				}
+				break;
+			}
+			if (d == MAX_DISPLACEMENTS) {
+				for (int j = 0; j < size; j++)
+					overflow[overflowCount++] = bucketItems[j];
+				continue;
+			}
+			displacements[b] = d;
+			for (int j = 0; j < size; j++)
+				slots[bucketSlots[j]] = bucketItems[j] + 1;
+		}
+
+		if (overflowCount > 0)
+			table = openTable(Arrays.copyOf(overflow, overflowCount));
+	}
+
+	/**
+	 * @param start
+	 *            first position of each bucket
+	 * @return the greatest bucket size
+	 */
+	private static int maxBucketSize(int[] start) {
+		int res = 0;
+		for (int b = 0; b < start.length - 1; b++)
+			res = Math.max(res, start[b + 1] - start[b]);
+		return res;
+	}
+
+	/**
+	 * Gets the index of the given item
+	 *
+	 * @param o
+	 *            the item
+	 * @return the item index, or -1 if the item is not in the universe
+	 */
+	int indexOf(Object o) {
+		final int h = hash(o);
+		if (perfect) {
+			int v = slots[slot(h, displacements[bucket(h)])];
+			if (v != 0 && matches(o, v - 1))
+				return v - 1;
+			return table == null ? -1 : openIndexOf(o, h);
+		}
+		return openIndexOf(o, h);
+	}
+
+	/**
+	 * @return the number of items
+	 */
+	int size() {
+		return items.length;
+	}
+
+	/**
+	 * @return memory footprint of the hash tables, in bytes, excluding the
+	 *         universe items
+	 */
+	long sizeInBytes() {
+		return SizeOf.object(4 * SizeOf.REFERENCE + 1)
+				+ (table == null ? 0 : SizeOf.array(table))
+				+ (slots == null ? 0 : SizeOf.array(slots) + SizeOf.array(displacements));
+	}
+
+	/**
+	 * Rebuilds the hash tables
+	 */
+	private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
+		s.defaultReadObject();
+		build();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder("{");
+		for (int i = 0; i < items.length; i++) {
+			if (i > 0)
+				s.append(", ");
+			s.append(items[i]).append('=').append(i);
+		}
+		return s.append('}').toString();
+	}
+}
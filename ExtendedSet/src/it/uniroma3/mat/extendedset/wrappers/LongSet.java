@@ -22,6 +22,7 @@ import it.uniroma3.mat.extendedset.ExtendedSet;
 import it.uniroma3.mat.extendedset.intset.ConciseSet;
 import it.uniroma3.mat.extendedset.intset.IntSet;
 import it.uniroma3.mat.extendedset.intset.IntSet.IntIterator;
+import it.uniroma3.mat.extendedset.utilities.SizeOf;
 
 import java.util.*;
 import java.util.Map.Entry;
@@ -739,6 +740,22 @@ public class LongSet implements Cloneable, Comparable<LongSet>, java.io.Serializ
 		throw new RuntimeException("TODO");
 	}
 
+	/**
+	 * Estimates the heap space retained by the set, in bytes, including object
+	 * headers and allocated but unused space of internal arrays.
+	 * 
+	 * @return the estimated memory footprint, in bytes
+	 */
+	public long sizeInBytes() {
+		long res = SizeOf.object(2 * SizeOf.REFERENCE) + firstIndices.sizeInBytes();
+		
+		// TreeMap instance, and a TreeMap entry and a Long key for each block
+		res += SizeOf.object(7 * SizeOf.REFERENCE + 2 * 4);
+		for (IntSet s : otherIndices.values())
+			res += SizeOf.MAP_ENTRY + SizeOf.object(8) + s.sizeInBytes();
+		return res;
+	}
+
 	/**
 	 * A  {@link Iterator} -like interface that allows to "skip" some elements of the set
 	 */
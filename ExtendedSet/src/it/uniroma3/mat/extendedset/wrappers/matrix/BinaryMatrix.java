@@ -18,10 +18,28 @@
 
 package it.uniroma3.mat.extendedset.wrappers.matrix;
 
+import it.uniroma3.mat.extendedset.intset.ConciseSet;
+import it.uniroma3.mat.extendedset.intset.FastSet;
 import it.uniroma3.mat.extendedset.intset.IntSet;
 import it.uniroma3.mat.extendedset.intset.IntSet.IntIterator;
-
+import it.uniroma3.mat.extendedset.utilities.IntIntConsumer;
+import it.uniroma3.mat.extendedset.utilities.IntObjConsumer;
+import it.uniroma3.mat.extendedset.utilities.SizeOf;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Very similar to  {@link IntSet}  but for pairs of <code>int</code>s, that is a binary matrix
@@ -29,20 +47,36 @@ import java.util.*;
  * @version  $Id$
  * @see  IntSet
  */
-public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
-	/** set of all rows */
-	private final List<IntSet> rows = new ArrayList<IntSet>();
+public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix>, Serializable {
+	/** generated serial ID */
+	private static final long serialVersionUID = -3329462178393093424L;
+
+	/** set of all rows, serialized as compressed words (see {@link #writeObject(ObjectOutputStream)}) */
+	private transient ArrayList<IntSet> rows = new ArrayList<IntSet>();
 	
 	/**
-	 * {@link IntSet}   instance to create empty rows
+	 * {@link IntSet}   instance to create empty rows, serialized as a factory
+	 * (see {@link #writeTemplate(ObjectOutputStream)})
 	 * @uml.property  name="template"
 	 * @uml.associationEnd  
 	 */
-	private final IntSet template;
+	private transient IntSet template;
+
+	/** read-only empty row, returned by {@link #rowView(int)} for missing rows */
+	private transient IntSet emptyRowView;
 
 	/** used to cache the returned value */
 	private final int[] resultCache = new int[2];
 
+	/**
+	 * column-major mirror of {@link #rows}, built on the first column access
+	 * (see {@link #columns()}). Single-cell updates keep it consistent, while
+	 * bulk updates discard it. It is published only once completely built, so
+	 * that concurrent readers of an unmodified matrix never see a partial
+	 * index.
+	 */
+	private transient volatile List<IntSet> columns = null;
+
 	/**
 	 * Creates an empty matrix. The matrix is internally represented by putting
 	 * rows (transactions) in sequence. The provided constructor allows to
@@ -54,6 +88,189 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 	 */
 	public BinaryMatrix(IntSet template) {
 		this.template = template;
+		this.emptyRowView = template.empty().unmodifiable();
+	}
+	
+	/**
+	 * Creates a matrix from the given cells, in any order and possibly with
+	 * duplicates. The <code>i</code><sup>th</sup> cell is made up of
+	 * <code>rows[i]</code> and <code>cols[i]</code>.
+	 * <p>
+	 * This is much faster than calling {@link #add(int, int)} for each cell,
+	 * since cells are grouped by row through a counting sort, and each row is
+	 * then built by appending its columns in ascending order.
+	 * 
+	 * @param template
+	 *            {@link IntSet} instance to create empty rows
+	 * @param rows
+	 *            row indices of the cells
+	 * @param cols
+	 *            column indices of the cells
+	 * @return the new matrix
+	 * @throws IllegalArgumentException
+	 *             if arrays have different lengths
+	 * @throws IndexOutOfBoundsException
+	 *             if arrays contain negative indices
+	 */
+	public static BinaryMatrix fromCells(IntSet template, int[] rows, int[] cols) {
+		if (rows.length != cols.length)
+			throw new IllegalArgumentException("rows: " + rows.length + " != cols: " + cols.length);
+
+		// count the cells of each row
+		int maxRow = -1;
+		for (int r : rows) {
+			if (r < 0)
+				throw new IndexOutOfBoundsException("negative row index: " + r);
+			maxRow = Math.max(maxRow, r);
+		}
+		final int[] offsets = new int[maxRow + 2];
+		for (int r : rows)
+			offsets[r + 1]++;
+		for (int r = 0; r <= maxRow; r++)
+			offsets[r + 1] += offsets[r];
+
+		// group columns by row
+		final int[] sorted = new int[cols.length];
+		final int[] next = Arrays.copyOf(offsets, maxRow + 1);
+		for (int i = 0; i < cols.length; i++) {
+			if (cols[i] < 0)
+				throw new IndexOutOfBoundsException("negative column index: " + cols[i]);
+			sorted[next[rows[i]]++] = cols[i];
+		}
+
+		// build rows
+		final BinaryMatrix res = new BinaryMatrix(template);
+		res.rows.ensureCapacity(maxRow + 1);
+		for (int r = 0; r <= maxRow; r++) {
+			final int from = offsets[r];
+			final int to = offsets[r + 1];
+			if (from == to) {
+				res.rows.add(null);
+				continue;
+			}
+			Arrays.sort(sorted, from, to);
+			final IntSet s = template.empty();
+			int last = -1;
+			for (int i = from; i < to; i++) 
+				if (sorted[i] != last)
+					s.add(last = sorted[i]);
+			res.rows.add(s);
+		}
+		return res;
+	}
+
+	/**
+	 * Builds a {@link BinaryMatrix} instance from a stream of cells sorted by
+	 * row and then by column. Each row is built by appending its columns, which
+	 * is much faster than calling {@link BinaryMatrix#add(int, int)} for each
+	 * cell.
+	 * 
+	 * @see BinaryMatrix#fromCells(IntSet, int[], int[])
+	 */
+	public static class Builder {
+		/** matrix under construction, <code>null</code> after {@link #build()} */
+		private BinaryMatrix matrix;
+		
+		/** row being built */
+		private IntSet curRow = null;
+		
+		/** index of the row being built */
+		private int curRowIndex = -1;
+		
+		/** last column added to the current row */
+		private int lastCol = -1;
+
+		/**
+		 * Creates a builder
+		 * 
+		 * @param template
+		 *            {@link IntSet} instance to create empty rows
+		 */
+		public Builder(IntSet template) {
+			this(template, 0);
+		}
+
+		/**
+		 * Creates a builder for the given number of rows
+		 * 
+		 * @param template
+		 *            {@link IntSet} instance to create empty rows
+		 * @param expectedRows
+		 *            expected number of rows (namely, the greatest row index
+		 *            plus 1), used to avoid the growth of the row list
+		 */
+		public Builder(IntSet template, int expectedRows) {
+			matrix = new BinaryMatrix(template);
+			matrix.rows.ensureCapacity(expectedRows);
+		}
+
+		/**
+		 * Appends a cell. Duplicated cells are ignored.
+		 * 
+		 * @param row
+		 *            row of the cell
+		 * @param col
+		 *            column of the cell
+		 * @return this builder
+		 * @throws IndexOutOfBoundsException
+		 *             if the row or the column is negative
+		 * @throws IllegalArgumentException
+		 *             if the cell is less than the last appended cell
+		 * @throws IllegalStateException
+		 *             if {@link #build()} has already been called
+		 */
+		public Builder add(int row, int col) {
+			if (matrix == null)
+				throw new IllegalStateException("matrix already built");
+			if (row < 0)
+				throw new IndexOutOfBoundsException("negative row index: " + row);
+			if (col < 0)
+				throw new IndexOutOfBoundsException("negative column index: " + col);
+			if (row != curRowIndex) {
+				if (row < curRowIndex)
+					throw new IllegalArgumentException("unsorted rows: " + row + " < " + curRowIndex);
+				while (matrix.rows.size() < row)
+					matrix.rows.add(null);
+				matrix.rows.add(curRow = matrix.template.empty());
+				curRowIndex = row;
+				lastCol = -1;
+			} else if (col <= lastCol) {
+				if (col == lastCol)
+					return this;
+				throw new IllegalArgumentException("unsorted columns: " + col + " < " + lastCol);
+			}
+			curRow.add(lastCol = col);
+			return this;
+		}
+
+		/**
+		 * Appends all the cells provided by the given iterator, for example
+		 * taken from another matrix
+		 * 
+		 * @param cells
+		 *            cells sorted by row and then by column
+		 * @return this builder
+		 * @see #add(int, int)
+		 */
+		public Builder addAll(CellIterator cells) {
+			while (cells.hasNext()) {
+				int[] c = cells.next();
+				add(c[0], c[1]);
+			}
+			return this;
+		}
+
+		/**
+		 * @return the built matrix. The builder cannot be used anymore.
+		 */
+		public BinaryMatrix build() {
+			if (matrix == null)
+				throw new IllegalStateException("matrix already built");
+			BinaryMatrix res = matrix;
+			matrix = null;
+			curRow = null;
+			return res;
+		}
 	}
 	
 	/**
@@ -71,6 +288,107 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 		while (last >= 0 && rows.get(last) == null)
 			rows.remove(last--);
 	}
+
+	/**
+	 * Gets the column index, building it in one pass over the rows if it is
+	 * not available. Concurrent callers may build it more than once, but each
+	 * of them gets a complete index.
+	 * 
+	 * @return the column-major representation of the matrix
+	 */
+	private List<IntSet> columns() {
+		List<IntSet> res = columns;
+		if (res != null)
+			return res;
+		
+		res = new ArrayList<IntSet>();
+		for (int row = 0; row < rows.size(); row++) {
+			final IntSet r = rows.get(row);
+			if (r == null)
+				continue;
+			final IntIterator itr = r.iterator();
+			while (itr.hasNext()) {
+				int col = itr.next();
+				while (col >= res.size())
+					res.add(null);
+				IntSet c = res.get(col);
+				if (c == null)
+					res.set(col, c = template.empty());
+				
+				// rows are scanned in ascending order, hence it is an append
+				c.add(row);
+			}
+		}
+		columns = res;
+		return res;
+	}
+
+	/**
+	 * Discards the column index after a bulk update of {@link #rows}
+	 */
+	private void invalidateColumns() {
+		columns = null;
+	}
+
+	/**
+	 * Updates the column index, if available, after a single-cell update
+	 * 
+	 * @param row
+	 *            row of the cell
+	 * @param col
+	 *            column of the cell
+	 * @param added
+	 *            <code>true</code> if the cell has been added,
+	 *            <code>false</code> if it has been removed
+	 */
+	private void updateColumns(int row, int col, boolean added) {
+		final List<IntSet> cols = columns;
+		if (cols == null)
+			return;
+		if (added) {
+			while (col >= cols.size())
+				cols.add(null);
+			IntSet c = cols.get(col);
+			if (c == null)
+				cols.set(col, c = template.empty());
+			c.add(row);
+		} else {
+			IntSet c = cols.get(col);
+			c.remove(row);
+			if (c.isEmpty()) {
+				cols.set(col, null);
+				int last = cols.size() - 1;
+				while (last >= 0 && cols.get(last) == null)
+					cols.remove(last--);
+			}
+		}
+	}
+
+	/**
+	 * Releases the memory used by the column index, which is rebuilt when
+	 * needed by {@link #getCol(int)} or {@link #transposed()}
+	 */
+	public void releaseColumnIndex() {
+		invalidateColumns();
+	}
+
+	/**
+	 * Builds the rank/select index of each row represented by a
+	 * {@link ConciseSet} or a {@link FastSet}, so that
+	 * {@link #indexOf(int, int)} and {@link #get(int)} are faster within rows.
+	 * The index of a row is discarded when the row is modified.
+	 * 
+	 * @see ConciseSet#buildRankIndex()
+	 * @see FastSet#buildRankIndex()
+	 */
+	public void buildRankIndex() {
+		for (IntSet r : rows) {
+			if (r instanceof ConciseSet)
+				((ConciseSet) r).buildRankIndex();
+			else if (r instanceof FastSet)
+				((FastSet) r).buildRankIndex();
+		}
+	}
 	
 	/**
 	 * Generates the intersection matrix
@@ -247,8 +565,9 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 				s = template.empty();
 				s.fill(0, maxCol);
 			} else {
+				s = s.clone();
 				s.add(maxCol + 1);
-				s.complemented();
+				s.complement();
 				if (s.isEmpty())
 					s = null;
 			}
@@ -266,6 +585,7 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 	 * @see BinaryMatrix#complemented()
 	 */
 	public void complement() {
+		invalidateColumns();
 		final int maxCol = maxCol();
 		
 		for (int i = 0; i < rows.size(); i++) {
@@ -441,6 +761,782 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 		return res;
 	}
 
+	/*
+	 * PARALLEL OPERATIONS
+	 */
+
+	/**
+	 * Row-wise set operations, where <code>null</code> represents an empty
+	 * row
+	 */
+	private enum RowOperator {
+		/** intersection */
+		AND {
+			@Override
+			IntSet apply(IntSet s1, IntSet s2) {
+				if (s1 == null || s2 == null)
+					return null;
+				IntSet r = s1.intersection(s2);
+				return r.isEmpty() ? null : r;
+			}
+
+			@Override
+			int rowCount(int rows1, int rows2) {
+				return Math.min(rows1, rows2);
+			}
+		},
+
+		/** union */
+		OR {
+			@Override
+			IntSet apply(IntSet s1, IntSet s2) {
+				if (s1 == null)
+					return s2 == null ? null : s2.clone();
+				if (s2 == null)
+					return s1.clone();
+				return s1.union(s2);
+			}
+
+			@Override
+			int rowCount(int rows1, int rows2) {
+				return Math.max(rows1, rows2);
+			}
+		},
+
+		/** difference */
+		ANDNOT {
+			@Override
+			IntSet apply(IntSet s1, IntSet s2) {
+				if (s1 == null)
+					return null;
+				if (s2 == null)
+					return s1.clone();
+				IntSet r = s1.difference(s2);
+				return r.isEmpty() ? null : r;
+			}
+
+			@Override
+			int rowCount(int rows1, int rows2) {
+				return rows1;
+			}
+		},
+
+		/** symmetric difference */
+		XOR {
+			@Override
+			IntSet apply(IntSet s1, IntSet s2) {
+				if (s1 == null)
+					return s2 == null ? null : s2.clone();
+				if (s2 == null)
+					return s1.clone();
+				IntSet r = s1.symmetricDifference(s2);
+				return r.isEmpty() ? null : r;
+			}
+
+			@Override
+			int rowCount(int rows1, int rows2) {
+				return Math.max(rows1, rows2);
+			}
+		};
+
+		/**
+		 * Performs the operation over two rows
+		 * 
+		 * @param s1
+		 *            left row, or <code>null</code> if empty
+		 * @param s2
+		 *            right row, or <code>null</code> if empty
+		 * @return the resulting row, or <code>null</code> if empty
+		 */
+		abstract IntSet apply(IntSet s1, IntSet s2);
+
+		/**
+		 * @param rows1
+		 *            number of rows of the left operand
+		 * @param rows2
+		 *            number of rows of the right operand
+		 * @return maximum number of rows of the result
+		 */
+		abstract int rowCount(int rows1, int rows2);
+	}
+
+	/**
+	 * Computation over a range of rows
+	 */
+	private interface RowKernel {
+		/**
+		 * @param from
+		 *            first row (included)
+		 * @param to
+		 *            last row (excluded)
+		 */
+		void compute(int from, int to);
+	}
+
+	/**
+	 * Recursively splits a range of rows until it is small enough to be
+	 * processed by a {@link RowKernel}
+	 */
+	private static class RowRangeTask extends RecursiveAction {
+		private static final long serialVersionUID = 4851939436358766497L;
+
+		private final RowKernel kernel;
+		private final int from;
+		private final int to;
+		private final int threshold;
+
+		RowRangeTask(RowKernel kernel, int from, int to, int threshold) {
+			this.kernel = kernel;
+			this.from = from;
+			this.to = to;
+			this.threshold = threshold;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= threshold) {
+				kernel.compute(from, to);
+				return;
+			}
+			final int mid = (from + to) >>> 1;
+			invokeAll(new RowRangeTask(kernel, from, mid, threshold), 
+					new RowRangeTask(kernel, mid, to, threshold));
+		}
+	}
+
+	/**
+	 * Executes the given kernel over all the rows in <code>[0, rowCount)</code>
+	 * 
+	 * @param pool
+	 *            pool that executes the kernel
+	 * @param rowCount
+	 *            number of rows
+	 * @param kernel
+	 *            computation to perform
+	 */
+	private static void forEachRowRange(ForkJoinPool pool, int rowCount, RowKernel kernel) {
+		if (rowCount == 0)
+			return;
+		
+		// several ranges per thread, to balance rows of different sizes
+		final int threshold = Math.max(1, rowCount / (8 * pool.getParallelism()));
+		pool.invoke(new RowRangeTask(kernel, 0, rowCount, threshold));
+	}
+
+	/**
+	 * @param i
+	 *            row index
+	 * @return the row, or <code>null</code> if empty or not existing
+	 */
+	IntSet rowOrNull(int i) {
+		return i < rows.size() ? rows.get(i) : null;
+	}
+
+	/**
+	 * Performs a row-wise operation in parallel
+	 * 
+	 * @param other
+	 *            right operand
+	 * @param operator
+	 *            operation to perform
+	 * @param pool
+	 *            pool that executes the operation
+	 * @return the result of the operation
+	 */
+	private BinaryMatrix performParallelOperation(final BinaryMatrix other, final RowOperator operator, ForkJoinPool pool) {
+		final IntSet[] resRows = new IntSet[operator.rowCount(rows.size(), other.rows.size())];
+		forEachRowRange(pool, resRows.length, new RowKernel() {
+			@Override
+			public void compute(int from, int to) {
+				for (int i = from; i < to; i++)
+					resRows[i] = operator.apply(rowOrNull(i), other.rowOrNull(i));
+			}
+		});
+		
+		BinaryMatrix res = empty();
+		res.rows.addAll(Arrays.asList(resRows));
+		res.fixRows();
+		return res;
+	}
+
+	/**
+	 * Generates the intersection matrix, by processing rows in parallel
+	 * 
+	 * @param other
+	 *            {@link BinaryMatrix} instance that represents the right
+	 *            operand
+	 * @param pool
+	 *            pool that executes the operation, for example
+	 *            {@link ForkJoinPool#commonPool()}
+	 * @return the result of the operation
+	 * 
+	 * @see #intersection(BinaryMatrix)
+	 */
+	public BinaryMatrix intersection(BinaryMatrix other, ForkJoinPool pool) {
+		return performParallelOperation(other, RowOperator.AND, pool);
+	}
+
+	/**
+	 * Generates the union matrix, by processing rows in parallel
+	 * 
+	 * @param other
+	 *            {@link BinaryMatrix} instance that represents the right
+	 *            operand
+	 * @param pool
+	 *            pool that executes the operation, for example
+	 *            {@link ForkJoinPool#commonPool()}
+	 * @return the result of the operation
+	 * 
+	 * @see #union(BinaryMatrix)
+	 */
+	public BinaryMatrix union(BinaryMatrix other, ForkJoinPool pool) {
+		return performParallelOperation(other, RowOperator.OR, pool);
+	}
+
+	/**
+	 * Generates the difference matrix, by processing rows in parallel
+	 * 
+	 * @param other
+	 *            {@link BinaryMatrix} instance that represents the right
+	 *            operand
+	 * @param pool
+	 *            pool that executes the operation, for example
+	 *            {@link ForkJoinPool#commonPool()}
+	 * @return the result of the operation
+	 * 
+	 * @see #difference(BinaryMatrix)
+	 */
+	public BinaryMatrix difference(BinaryMatrix other, ForkJoinPool pool) {
+		return performParallelOperation(other, RowOperator.ANDNOT, pool);
+	}
+
+	/**
+	 * Generates the symmetric difference matrix, by processing rows in
+	 * parallel
+	 * 
+	 * @param other
+	 *            {@link BinaryMatrix} instance that represents the right
+	 *            operand
+	 * @param pool
+	 *            pool that executes the operation, for example
+	 *            {@link ForkJoinPool#commonPool()}
+	 * @return the result of the operation
+	 * 
+	 * @see #symmetricDifference(BinaryMatrix)
+	 */
+	public BinaryMatrix symmetricDifference(BinaryMatrix other, ForkJoinPool pool) {
+		return performParallelOperation(other, RowOperator.XOR, pool);
+	}
+
+	/**
+	 * Computes the intersection matrix size, by processing rows in parallel
+	 * 
+	 * @param other
+	 *            {@link BinaryMatrix} instance that represents the right
+	 *            operand
+	 * @param pool
+	 *            pool that executes the operation, for example
+	 *            {@link ForkJoinPool#commonPool()}
+	 * @return the size
+	 * 
+	 * @see #intersectionSize(BinaryMatrix)
+	 */
+	public int intersectionSize(final BinaryMatrix other, ForkJoinPool pool) {
+		final LongAdder res = new LongAdder();
+		forEachRowRange(pool, Math.min(rows.size(), other.rows.size()), new RowKernel() {
+			@Override
+			public void compute(int from, int to) {
+				int count = 0;
+				for (int i = from; i < to; i++) {
+					IntSet s1 = rows.get(i);
+					IntSet s2 = other.rows.get(i);
+					if (s1 != null && s2 != null) 
+						count += s1.intersectionSize(s2);
+				}
+				res.add(count);
+			}
+		});
+		return res.intValue();
+	}
+
+	/**
+	 * Returns <tt>true</tt> if this matrix contains all of the cells of the
+	 * specified matrix, by processing rows in parallel. Remaining rows are
+	 * skipped as soon as a missing cell is found.
+	 * 
+	 * @param other
+	 *            matrix to be checked for containment in this matrix
+	 * @param pool
+	 *            pool that executes the operation, for example
+	 *            {@link ForkJoinPool#commonPool()}
+	 * @return <tt>true</tt> if this matrix contains all of the cells of the
+	 *         specified matrix
+	 * 
+	 * @see #containsAll(BinaryMatrix)
+	 */
+	public boolean containsAll(final BinaryMatrix other, ForkJoinPool pool) {
+		if (other == null || other.isEmpty() || other == this)
+			return true;
+		if (isEmpty() || rows.size() < other.rows.size())
+			return false;
+
+		final AtomicBoolean missing = new AtomicBoolean();
+		forEachRowRange(pool, other.rows.size(), new RowKernel() {
+			@Override
+			public void compute(int from, int to) {
+				for (int i = from; i < to && !missing.get(); i++) {
+					IntSet s1 = rows.get(i);
+					IntSet s2 = other.rows.get(i);
+					if (s2 != null && (s1 == null || !s1.containsAll(s2))) {
+						missing.set(true);
+						return;
+					}
+				}
+			}
+		});
+		return !missing.get();
+	}
+
+	/*
+	 * MATRIX PRODUCTS
+	 */
+
+	/**
+	 * Computes the rows of the boolean product, see
+	 * {@link #multiply(BinaryMatrix)}
+	 * 
+	 * @param other
+	 *            right operand
+	 * @param resRows
+	 *            where to put the resulting rows
+	 * @return the kernel that computes a range of rows
+	 */
+	private RowKernel multiplyKernel(final BinaryMatrix other, final IntSet[] resRows) {
+		return new RowKernel() {
+			@Override
+			public void compute(int from, int to) {
+				for (int i = from; i < to; i++) {
+					final IntSet r = rows.get(i);
+					if (r == null)
+						continue;
+					IntSet res = null;
+					final IntIterator itr = r.iterator();
+					while (itr.hasNext()) {
+						final IntSet s = other.rowOrNull(itr.next());
+						if (s == null)
+							continue;
+						if (res == null)
+							res = s.clone();
+						else
+							res.addAll(s);
+					}
+					resRows[i] = res;
+				}
+			}
+		};
+	}
+
+	/**
+	 * Generates the boolean product of this matrix and the given one, namely
+	 * the cell <code>(i, j)</code> of the result exists if and only if there
+	 * is some <code>k</code> such that cells <code>(i, k)</code> of this
+	 * matrix and <code>(k, j)</code> of the given matrix exist.
+	 * <p>
+	 * Each row of the result is the union of the rows of the given matrix that
+	 * are indexed by the columns of the corresponding row of this matrix.
+	 * 
+	 * @param other
+	 *            right operand
+	 * @return the product matrix
+	 */
+	public BinaryMatrix multiply(BinaryMatrix other) {
+		final IntSet[] resRows = new IntSet[rows.size()];
+		multiplyKernel(other, resRows).compute(0, resRows.length);
+		BinaryMatrix res = empty();
+		res.rows.addAll(Arrays.asList(resRows));
+		res.fixRows();
+		return res;
+	}
+
+	/**
+	 * Generates the boolean product of this matrix and the given one, by
+	 * processing rows in parallel
+	 * 
+	 * @param other
+	 *            right operand
+	 * @param pool
+	 *            pool that executes the operation, for example
+	 *            {@link ForkJoinPool#commonPool()}
+	 * @return the product matrix
+	 * @see #multiply(BinaryMatrix)
+	 */
+	public BinaryMatrix multiply(BinaryMatrix other, ForkJoinPool pool) {
+		final IntSet[] resRows = new IntSet[rows.size()];
+		forEachRowRange(pool, resRows.length, multiplyKernel(other, resRows));
+		BinaryMatrix res = empty();
+		res.rows.addAll(Arrays.asList(resRows));
+		res.fixRows();
+		return res;
+	}
+
+	/**
+	 * Computes the rows of the co-occurrence matrix, see
+	 * {@link #coOccurrenceCounts(int)}. For each column, the rows that
+	 * contain it are scanned and the columns of these rows are counted in a
+	 * dense accumulator, so that only the pairs of columns that co-occur are
+	 * visited. Accumulators are left cleared and reused by later ranges, hence
+	 * there are only as many of them as the ranges computed at the same time.
+	 * 
+	 * @param cols
+	 *            column index
+	 * @param minCount
+	 *            minimum count of the pairs to keep
+	 * @param resRows
+	 *            where to put the co-occurring columns of each column
+	 * @param resCounts
+	 *            where to put the counts of each column, in the same order of
+	 *            the corresponding row of <code>resRows</code>
+	 * @return the kernel that computes a range of rows
+	 */
+	private RowKernel coOccurrenceKernel(final List<IntSet> cols, final int minCount, 
+			final IntSet[] resRows, final int[][] resCounts) {
+		// accumulators not in use, each made up of the counters and the
+		// list of the touched counters
+		final Queue<int[][]> buffers = new ConcurrentLinkedQueue<int[][]>();
+		return new RowKernel() {
+			@Override
+			public void compute(int from, int to) {
+				int[][] buffer = buffers.poll();
+				if (buffer == null)
+					buffer = new int[][] {new int[cols.size()], new int[cols.size()]};
+				final int[] acc = buffer[0];
+				final int[] touched = buffer[1];
+				for (int j = from; j < to; j++) {
+					final IntSet cj = cols.get(j);
+					if (cj == null)
+						continue;
+					int n = 0;
+					final IntIterator rowItr = cj.iterator();
+					while (rowItr.hasNext()) {
+						final IntIterator colItr = rows.get(rowItr.next()).iterator();
+						while (colItr.hasNext()) {
+							final int k = colItr.next();
+							if (acc[k]++ == 0)
+								touched[n++] = k;
+						}
+					}
+					Arrays.sort(touched, 0, n);
+					final int[] resCols = new int[n];
+					final int[] counts = new int[n];
+					int m = 0;
+					for (int t = 0; t < n; t++) {
+						final int k = touched[t];
+						if (acc[k] >= minCount) {
+							resCols[m] = k;
+							counts[m++] = acc[k];
+						}
+						acc[k] = 0;
+					}
+					if (m > 0) {
+						resRows[j] = template.convert(Arrays.copyOf(resCols, m));
+						resCounts[j] = m == n ? counts : Arrays.copyOf(counts, m);
+					}
+				}
+				buffers.offer(buffer);
+			}
+		};
+	}
+
+	/**
+	 * Collects the rows computed by {@link #coOccurrenceKernel(List, int, IntSet[], int[][])}
+	 * 
+	 * @param resRows
+	 *            co-occurring columns of each column
+	 * @param resCounts
+	 *            counts of each column
+	 * @return the co-occurrence counts
+	 */
+	private IntPairMap<Integer, Integer> coOccurrenceMap(IntSet[] resRows, int[][] resCounts) {
+		final BinaryMatrix pattern = empty();
+		pattern.rows.addAll(Arrays.asList(resRows));
+		pattern.fixRows();
+		int size = 0;
+		for (int[] c : resCounts)
+			if (c != null)
+				size += c.length;
+		final int[] values = new int[size];
+		int pos = 0;
+		for (int[] c : resCounts) {
+			if (c != null) {
+				System.arraycopy(c, 0, values, pos, c.length);
+				pos += c.length;
+			}
+		}
+		return new IntPairMap<Integer, Integer>(PairSet.createFromBinaryMatrix(pattern), values);
+	}
+
+	/**
+	 * Computes the integer product of the transposed matrix and the matrix
+	 * itself, namely the number of rows that contain each pair of columns.
+	 * When rows are transactions and columns are items, the result contains
+	 * the support of each pair of items.
+	 * <p>
+	 * The result is sparse: only the pairs of columns that appear together in
+	 * some row are stored, and only these pairs are visited. The time is
+	 * proportional to the sum of the squared row sizes, and a dense array of
+	 * {@link #maxCol()} + 1 counters is used by each thread.
+	 * 
+	 * @return the co-occurrence counts: the value of the pair
+	 *         <code>(j, k)</code> is the number of rows containing both the
+	 *         columns <code>j</code> and <code>k</code>, hence the value of
+	 *         <code>(j, j)</code> is the size of the column <code>j</code>.
+	 *         Both <code>(j, k)</code> and <code>(k, j)</code> are stored, and
+	 *         missing pairs have value 0.
+	 * @see #coOccurrenceCounts(int)
+	 */
+	public IntPairMap<Integer, Integer> coOccurrenceCounts() {
+		return coOccurrenceCounts(1);
+	}
+
+	/**
+	 * Computes the number of rows that contain each pair of columns, keeping
+	 * only the pairs contained in at least the given number of rows, for
+	 * example to get the frequent pairs of items
+	 * 
+	 * @param minCount
+	 *            minimum number of rows of the pairs to keep
+	 * @return the co-occurrence counts, see {@link #coOccurrenceCounts()}
+	 */
+	public IntPairMap<Integer, Integer> coOccurrenceCounts(int minCount) {
+		final List<IntSet> cols = columns();
+		final IntSet[] resRows = new IntSet[cols.size()];
+		final int[][] resCounts = new int[cols.size()][];
+		coOccurrenceKernel(cols, minCount, resRows, resCounts).compute(0, resRows.length);
+		return coOccurrenceMap(resRows, resCounts);
+	}
+
+	/**
+	 * Computes the number of rows that contain each pair of columns, by
+	 * processing columns in parallel
+	 * 
+	 * @param pool
+	 *            pool that executes the operation, for example
+	 *            {@link ForkJoinPool#commonPool()}
+	 * @return the co-occurrence counts
+	 * @see #coOccurrenceCounts()
+	 */
+	public IntPairMap<Integer, Integer> coOccurrenceCounts(ForkJoinPool pool) {
+		return coOccurrenceCounts(1, pool);
+	}
+
+	/**
+	 * Computes the number of rows that contain each pair of columns, keeping
+	 * only the pairs contained in at least the given number of rows, by
+	 * processing columns in parallel
+	 * 
+	 * @param minCount
+	 *            minimum number of rows of the pairs to keep
+	 * @param pool
+	 *            pool that executes the operation, for example
+	 *            {@link ForkJoinPool#commonPool()}
+	 * @return the co-occurrence counts
+	 * @see #coOccurrenceCounts(int)
+	 */
+	public IntPairMap<Integer, Integer> coOccurrenceCounts(int minCount, ForkJoinPool pool) {
+		// the column index must be built before parallel threads access it
+		final List<IntSet> cols = columns();
+		final IntSet[] resRows = new IntSet[cols.size()];
+		final int[][] resCounts = new int[cols.size()][];
+		forEachRowRange(pool, resRows.length, coOccurrenceKernel(cols, minCount, resRows, resCounts));
+		return coOccurrenceMap(resRows, resCounts);
+	}
+
+	/*
+	 * STORAGE
+	 */
+
+	/** identifies the storage format, see {@link #write(OutputStream)} */
+	final static int STORAGE_MAGIC = 0x424D4154; // "BMAT"
+	
+	/** version of the storage format */
+	final static int STORAGE_VERSION = 1;
+	
+	/**
+	 * Gets the compressed representation of a row
+	 * 
+	 * @param row
+	 *            the row (it can be <code>null</code>)
+	 * @return the {@link ConciseSet} words of the row
+	 */
+	private static int[] toWords(IntSet row) {
+		if (row == null)
+			return new int[0];
+		if (row instanceof ConciseSet)
+			return ((ConciseSet) row).toWords();
+		ConciseSet c = new ConciseSet();
+		c.addAll(row);
+		return c.toWords();
+	}
+
+	/**
+	 * Converts words provided by {@link #toWords(IntSet)} to a row
+	 * 
+	 * @param template
+	 *            {@link IntSet} instance to create the row
+	 * @param words
+	 *            array containing the words
+	 * @param from
+	 *            index of the first word (included)
+	 * @param to
+	 *            index of the last word (excluded)
+	 * @return the row, or <code>null</code> if empty
+	 */
+	static IntSet fromWords(IntSet template, int[] words, int from, int to) {
+		if (from == to)
+			return null;
+		if (template instanceof ConciseSet)
+			return ((ConciseSet) template).fromWords(words, from, to);
+		IntSet res = template.empty();
+		res.addAll(new ConciseSet().fromWords(words, from, to));
+		return res;
+	}
+
+	/**
+	 * Appends a row to the matrix
+	 * 
+	 * @param row
+	 *            the row, or <code>null</code> if empty
+	 */
+	void appendRow(IntSet row) {
+		invalidateColumns();
+		rows.add(row);
+	}
+
+	/**
+	 * Writes the matrix in a compact binary format, that can be then
+	 * memory-mapped and queried row by row through {@link MappedBinaryMatrix}
+	 * without loading the whole matrix into heap.
+	 * <p>
+	 * Rows are represented as {@link ConciseSet} words, regardless of the
+	 * {@link IntSet} implementation used for rows. All values are big-endian:
+	 * <ul>
+	 * <li> a header made up of the <code>int</code>s {@link #STORAGE_MAGIC},
+	 * {@link #STORAGE_VERSION}, and the number of rows;
+	 * <li> the words of all the rows, as <code>int</code>s;
+	 * <li> the row offset table, made up of the number of rows plus one
+	 * <code>long</code>s, where the <code>i</code><sup>th</sup> row is made up
+	 * of the words between the <code>i</code><sup>th</sup> (included) and the
+	 * <code>(i+1)</code><sup>th</sup> (excluded) offsets.
+	 * </ul>
+	 * The offset table is at the end of the file so that rows can be written
+	 * in a single pass.
+	 * 
+	 * @param out
+	 *            the output stream, which is not closed
+	 * @throws IOException
+	 *             if an I/O error occurs
+	 */
+	public void write(OutputStream out) throws IOException {
+		final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+		data.writeInt(STORAGE_MAGIC);
+		data.writeInt(STORAGE_VERSION);
+		data.writeInt(rows.size());
+		
+		final long[] offsets = new long[rows.size() + 1];
+		for (int i = 0; i < rows.size(); i++) {
+			final int[] words = toWords(rows.get(i));
+			for (int w : words) 
+				data.writeInt(w);
+			offsets[i + 1] = offsets[i] + words.length;
+		}
+		for (long o : offsets) 
+			data.writeLong(o);
+		data.flush();
+	}
+
+	/** serialized template: an empty {@link Serializable} instance follows */
+	private final static byte TEMPLATE_INSTANCE = 0;
+
+	/** serialized template: the name of a class with a no-arg constructor follows */
+	private final static byte TEMPLATE_CLASS = 1;
+
+	/**
+	 * Writes the way to create empty rows, so that the stream does not depend
+	 * on the serializability of the {@link IntSet} implementation used for
+	 * rows: serializable implementations are written as empty instances, so
+	 * that their configuration (e.g., WAH compatibility of
+	 * {@link ConciseSet}) is preserved, while the other ones are written as
+	 * class names.
+	 */
+	private void writeTemplate(ObjectOutputStream s) throws IOException {
+		if (template instanceof Serializable) {
+			s.writeByte(TEMPLATE_INSTANCE);
+			s.writeObject(template.empty());
+		} else {
+			s.writeByte(TEMPLATE_CLASS);
+			s.writeUTF(template.getClass().getName());
+		}
+	}
+
+	/**
+	 * Reads the way to create empty rows (see
+	 * {@link #writeTemplate(ObjectOutputStream)})
+	 */
+	private static IntSet readTemplate(ObjectInputStream s) throws IOException, ClassNotFoundException {
+		final byte tag = s.readByte();
+		switch (tag) {
+		case TEMPLATE_INSTANCE:
+			return (IntSet) s.readObject();
+		case TEMPLATE_CLASS:
+			final String name = s.readUTF();
+			try {
+				return Class.forName(name).asSubclass(IntSet.class).getDeclaredConstructor().newInstance();
+			} catch (ReflectiveOperationException e) {
+				InvalidObjectException ex = new InvalidObjectException("cannot create rows of class " + name);
+				ex.initCause(e);
+				throw ex;
+			}
+		default:
+			throw new InvalidObjectException("unknown template tag: " + tag);
+		}
+	}
+
+	/**
+	 * Saves the state of the instance to a stream, by representing rows as
+	 * {@link ConciseSet} words
+	 */
+	private void writeObject(ObjectOutputStream s) throws IOException {
+		s.defaultWriteObject();
+		writeTemplate(s);
+		s.writeInt(rows.size());
+		for (IntSet r : rows) {
+			final int[] words = toWords(r);
+			s.writeInt(words.length);
+			for (int w : words) 
+				s.writeInt(w);
+		}
+	}
+
+	/**
+	 * Reconstructs the instance from a stream
+	 */
+	private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
+		s.defaultReadObject();
+		template = readTemplate(s);
+		emptyRowView = template.empty().unmodifiable();
+		final int rowCount = s.readInt();
+		rows = new ArrayList<IntSet>(rowCount);
+		int[] words = new int[0];
+		for (int i = 0; i < rowCount; i++) {
+			final int len = s.readInt();
+			if (words.length < len)
+				words = new int[len];
+			for (int j = 0; j < len; j++) 
+				words[j] = s.readInt();
+			rows.add(fromWords(template, words, 0, len));
+		}
+	}
+
 	/**
 	 * Generates an empty matrix of the same dimension
 	 * 
@@ -485,6 +1581,31 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 		throw new UnsupportedOperationException("TODO"); //TODO
 	}
 
+	/**
+	 * Estimates the heap space retained by the matrix, in bytes, including object
+	 * headers and allocated but unused space of internal arrays.
+	 * 
+	 * @return the estimated memory footprint, in bytes
+	 */
+	public long sizeInBytes() {
+		long res = SizeOf.object(5 * SizeOf.REFERENCE)
+				+ SizeOf.arrayList(rows.size())
+				+ template.sizeInBytes()
+				+ emptyRowView.sizeInBytes()
+				+ SizeOf.array(resultCache);
+		for (IntSet r : rows) 
+			if (r != null)
+				res += r.sizeInBytes();
+		final List<IntSet> cols = columns;
+		if (cols != null) {
+			res += SizeOf.arrayList(cols.size());
+			for (IntSet c : cols) 
+				if (c != null)
+					res += c.sizeInBytes();
+		}
+		return res;
+	}
+
 	/**
 	 * An {@link Iterator}-like interface
 	 */
@@ -508,6 +1629,64 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 		 */
 		int[] next();
 
+		/**
+		 * Moves to the next cell, that is then provided by {@link #row()} and
+		 * {@link #col()}. It is an alternative to {@link #hasNext()} and
+		 * {@link #next()}, as in:
+		 * 
+		 * <pre>
+		 * CellIterator itr = matrix.iterator();
+		 * while (itr.advance())
+		 *     process(itr.row(), itr.col());
+		 * </pre>
+		 * 
+		 * The default implementation calls {@link #hasNext()} and
+		 * {@link #next()}.
+		 * 
+		 * @return <tt>true</tt> if the iterator moved to the next cell,
+		 *         <tt>false</tt> if there are no more cells
+		 */
+		default boolean advance() {
+			if (!hasNext())
+				return false;
+			next();
+			return true;
+		}
+
+		/**
+		 * The default implementation does not keep track of the current cell
+		 * and throws {@link UnsupportedOperationException}: iterators that do
+		 * not override it must be used through {@link #next()}.
+		 * 
+		 * @return the row of the current cell, namely the last cell provided
+		 *         by {@link #advance()} or {@link #next()}
+		 * @exception IllegalStateException
+		 *                if there is no current cell
+		 * @exception UnsupportedOperationException
+		 *                if the iterator does not keep track of the current
+		 *                cell
+		 */
+		default int row() {
+			throw new UnsupportedOperationException();
+		}
+
+		/**
+		 * The default implementation does not keep track of the current cell
+		 * and throws {@link UnsupportedOperationException}: iterators that do
+		 * not override it must be used through {@link #next()}.
+		 * 
+		 * @return the column of the current cell, namely the last cell
+		 *         provided by {@link #advance()} or {@link #next()}
+		 * @exception IllegalStateException
+		 *                if there is no current cell
+		 * @exception UnsupportedOperationException
+		 *                if the iterator does not keep track of the current
+		 *                cell
+		 */
+		default int col() {
+			throw new UnsupportedOperationException();
+		}
+
 		/**
 		 * Removes from the underlying matrix the last cell returned by the
 		 * iterator (optional operation). This method can be called only once
@@ -551,12 +1730,15 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 				@Override public int[] next() {throw new NoSuchElementException();}
 				@Override public void remove() {throw new IllegalStateException();}
 				@Override public void skipAllBefore(int row, int col) {}
+				@Override public int row() {throw new IllegalStateException();}
+				@Override public int col() {throw new IllegalStateException();}
 		};
 		
 		return new CellIterator() {
 			int curRow = 0;
 			IntIterator curRowItr;
 			private final int[] itrResultCache = new int[2];
+			boolean started = false;
 			{
 				while (rows.get(curRow) == null)
 					curRow++;
@@ -573,6 +1755,7 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 					itrResultCache[0] = curRow;
 				}
 				itrResultCache[1] = curRowItr.next();
+				started = true;
 				return itrResultCache;
 			}
 			
@@ -581,6 +1764,20 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 				return curRow < rows.size() - 1 || curRowItr.hasNext();
 			}
 
+			@Override
+			public int row() {
+				if (!started)
+					throw new IllegalStateException();
+				return itrResultCache[0];
+			}
+
+			@Override
+			public int col() {
+				if (!started)
+					throw new IllegalStateException();
+				return itrResultCache[1];
+			}
+
 			@Override
 			public void skipAllBefore(int row, int col) {
 				throw new UnsupportedOperationException("TODO"); //TODO
@@ -604,6 +1801,8 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 				@Override public int[] next() {throw new NoSuchElementException();}
 				@Override public void remove() {throw new IllegalStateException();}
 				@Override public void skipAllBefore(int row, int col) {}
+				@Override public int row() {throw new IllegalStateException();}
+				@Override public int col() {throw new IllegalStateException();}
 		};
 		
 		return new CellIterator() {
@@ -611,6 +1810,7 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 			int curRow = rows.size() - 1;
 			IntIterator curRowItr;
 			private final int[] itrResultCache = new int[2];
+			boolean started = false;
 			{
 				int m = 0;
 				while (rows.get(m) == null)
@@ -629,6 +1829,7 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 					itrResultCache[0] = curRow;
 				}
 				itrResultCache[1] = curRowItr.next();
+				started = true;
 				return itrResultCache;
 			}
 			
@@ -637,6 +1838,20 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 				return curRow > minRow || curRowItr.hasNext();
 			}
 
+			@Override
+			public int row() {
+				if (!started)
+					throw new IllegalStateException();
+				return itrResultCache[0];
+			}
+
+			@Override
+			public int col() {
+				if (!started)
+					throw new IllegalStateException();
+				return itrResultCache[1];
+			}
+
 			@Override
 			public void skipAllBefore(int row, int col) {
 				throw new UnsupportedOperationException("TODO"); //TODO
@@ -686,6 +1901,7 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 	 *            last column of the sub-matrix
 	 */
 	public void fill(int fromRow, int fromCol, int toRow, int toCol) {
+		invalidateColumns();
 		if (fromRow > toRow)
 			throw new IndexOutOfBoundsException("fromRow: " + fromRow + " > toRow: " + toRow);
 		if (fromCol > toCol)
@@ -716,6 +1932,7 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 	 *            last column of the sub-matrix
 	 */
 	public void clear(int fromRow, int fromCol, int toRow, int toCol) {
+		invalidateColumns();
 		if (fromRow > toRow)
 			throw new IndexOutOfBoundsException("fromRow: " + fromRow + " > toRow: " + toRow);
 		if (fromCol > toCol)
@@ -748,6 +1965,7 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 		if (r == null)
 			rows.set(row, r = template.empty());
 		r.flip(col);
+		updateColumns(row, col, r.contains(col));
 		if (r.isEmpty()) {
 			rows.set(row, null);
 			fixRows();
@@ -925,7 +2143,10 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 		IntSet r = rows.get(row);
 		if (r == null)
 			rows.set(row, r = template.empty());
-		return r.add(col);
+		if (!r.add(col))
+			return false;
+		updateColumns(row, col, true);
+		return true;
 	}
 
 	/**
@@ -943,6 +2164,7 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 	 *             added to this matrix
 	 */
 	public boolean addAll(int row, IntSet cols) {
+		invalidateColumns();
 		while(row >= rows.size())
 			rows.add(null);
 		IntSet r = rows.get(row);
@@ -966,6 +2188,7 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 	 *             added to this matrix
 	 */
 	public boolean addAll(IntSet rowSet, int col) {
+		invalidateColumns();
 		if (rowSet == null || rowSet.isEmpty())
 			return false;
 
@@ -1005,6 +2228,7 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 	 *             added to this matrix
 	 */
 	public boolean addAll(IntSet rowSet, IntSet colSet) {
+		invalidateColumns();
 		if (rowSet == null || rowSet.isEmpty() || colSet == null || colSet.isEmpty())
 			return false;
 		
@@ -1049,6 +2273,7 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 		if (r == null)
 			return false;
 		if (r.remove(col)) {
+			updateColumns(row, col, false);
 			if (r.isEmpty()) {
 				rows.set(row, null);
 				fixRows();
@@ -1073,6 +2298,7 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 	 *             removed from this matrix
 	 */
 	public boolean removeAll(int row, IntSet cols) {
+		invalidateColumns();
 		if (row < 0 || row >= rows.size())
 			return false;
 		IntSet r = rows.get(row);
@@ -1103,6 +2329,7 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 	 *             added to this matrix
 	 */
 	public boolean removeAll(IntSet rowSet, int col) {
+		invalidateColumns();
 		if (rowSet == null || rowSet.isEmpty())
 			return false;
 		
@@ -1137,6 +2364,7 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 	 *             added to this matrix
 	 */
 	public boolean removeAll(IntSet rowSet, IntSet colSet) {
+		invalidateColumns();
 		if (rowSet == null || rowSet.isEmpty() || colSet == null || colSet.isEmpty())
 			return false;
 		
@@ -1171,6 +2399,7 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 	 *             removed from this matrix
 	 */
 	public boolean retainAll(int row, IntSet cols) {
+		invalidateColumns();
 		if (isEmpty())
 			return false;
 		if (row < 0 || row >= rows.size()) {
@@ -1213,6 +2442,7 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 	 *             added to this matrix
 	 */
 	public boolean retainAll(IntSet rowSet, int col) {
+		invalidateColumns();
 		if (isEmpty())
 			return false;
 		if (rowSet == null || rowSet.isEmpty()) {
@@ -1270,6 +2500,7 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 	 *             added to this matrix
 	 */
 	public boolean retainAll(IntSet rowSet, IntSet colSet) {
+		invalidateColumns();
 		if (isEmpty())
 			return false;
 		if (rowSet == null || rowSet.isEmpty() || colSet == null || colSet.isEmpty()) {
@@ -1430,6 +2661,7 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 	 * @see #add(int, int)
 	 */
 	public boolean addAll(BinaryMatrix other) {
+		invalidateColumns();
 		boolean res = false;
 		final int rowCount = Math.min(rows.size(), other.rows.size());
 		int i = 0;
@@ -1470,6 +2702,7 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 	 * @see #remove(int, int)
 	 */
 	public boolean retainAll(BinaryMatrix other) {
+		invalidateColumns();
 		boolean res = false;
 		final int rowCount = Math.min(rows.size(), other.rows.size());
 		int i = 0;
@@ -1511,6 +2744,7 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 	 * @see #contains(int, int)
 	 */
 	public boolean removeAll(BinaryMatrix other) {
+		invalidateColumns();
 		boolean res = false;
 		final int rowCount = Math.min(rows.size(), other.rows.size());
 		int i = 0;
@@ -1539,6 +2773,7 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 	 *             if the <tt>clear</tt> method is not supported by this matrix
 	 */
 	public void clear() {
+		invalidateColumns();
 		rows.clear();
 	}
 
@@ -1724,7 +2959,72 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 	}
 
 	/**
-	 * Gets a copy of the column with the given index
+	 * Gets a read-only view of the row with the given index. Differently from
+	 * {@link #getRow(int)}, the row is not copied, hence changes to the matrix
+	 * are reflected in the view.
+	 * <p>
+	 * <b>IMPORTANT</b>: the view refers to the row instance currently stored
+	 * within the matrix. Operations that remove all the cells of the row
+	 * discard such an instance, hence the view should not be retained across
+	 * updates of the matrix.
+	 * 
+	 * @param row
+	 *            the row index
+	 * @return the content of the row
+	 */
+	public IntSet rowView(int row) {
+		if (row < 0)
+			throw new IllegalArgumentException("negative row index: " + row);
+		if (row >= rows.size())
+			return emptyRowView;
+		IntSet res = rows.get(row);
+		if (res == null)
+			return emptyRowView;
+		return res.unmodifiable();
+	}
+
+	/**
+	 * Performs the given operation on each non-empty row, in ascending order
+	 * of row index. Rows are provided as read-only views, see
+	 * {@link #rowView(int)}.
+	 * 
+	 * @param consumer
+	 *            operation that receives the row index and its content
+	 */
+	public void forEachRow(IntObjConsumer<IntSet> consumer) {
+		for (int row = 0; row < rows.size(); row++) {
+			final IntSet r = rows.get(row);
+			if (r != null)
+				consumer.accept(row, r.unmodifiable());
+		}
+	}
+
+	/**
+	 * Performs the given operation on each cell, in ascending order of row and
+	 * then column index. Unlike {@link #iterator()}, rows are scanned directly
+	 * and no object is created for each cell.
+	 * 
+	 * @param consumer
+	 *            operation that receives the row and column index of the cell
+	 */
+	public void forEachCell(IntIntConsumer consumer) {
+		for (int row = 0; row < rows.size(); row++) {
+			final IntSet r = rows.get(row);
+			if (r == null)
+				continue;
+			final IntIterator itr = r.iterator();
+			while (itr.hasNext())
+				consumer.accept(row, itr.next());
+		}
+	}
+
+	/**
+	 * Gets a copy of the column with the given index.
+	 * <p>
+	 * The first call builds a column index that is kept for later calls (see
+	 * {@link #releaseColumnIndex()}), so that the cost is proportional to the
+	 * column size. Concurrent calls are safe as long as the matrix is not
+	 * modified in the meantime.
 	 * 
 	 * @param col
 	 *            the column index
@@ -1733,30 +3033,24 @@ public class BinaryMatrix implements Cloneable, Comparable<BinaryMatrix> {
 	public IntSet getCol(int col) {
 		if (col < 0)
 			throw new IllegalArgumentException("negative column index: " + col);
-		IntSet res = template.empty();
-		for (int row = 0; row < rows.size(); row++) {
-			final IntSet r = rows.get(row);
-			if (r != null && r.contains(col))
-				res.add(row);
-		}
-		return res;
+		final List<IntSet> c = columns();
+		if (col >= c.size() || c.get(col) == null)
+			return template.empty();
+		return c.get(col).clone();
 	}
 
 	/**
 	 * Generated a transposed matrix
+	 * <p>
+	 * Rows of the result are copies of the columns provided by the column
+	 * index, see {@link #getCol(int)}.
 	 * 
 	 * @return the transposed matrix
 	 */
 	public BinaryMatrix transposed() {
 		BinaryMatrix res = empty();
-		for (int row = 0; row < rows.size(); row++) {
-			IntSet r = rows.get(row);
-			if (r == null)
-				continue;
-			IntIterator itr = r.iterator();
-			while (itr.hasNext())
-				res.add(itr.next(), row);
-		}
+		for (IntSet c : columns()) 
+			res.rows.add(c == null ? null : c.clone());
 		return res;
 	}
 	
@@ -0,0 +1,186 @@
+/*
+ * (c) 2026 ExtendedSet contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.uniroma3.mat.extendedset.wrappers.matrix;
+
+import it.uniroma3.mat.extendedset.intset.IntSet;
+import it.uniroma3.mat.extendedset.wrappers.matrix.BinaryMatrix.CellIterator;
+
+import java.util.Arrays;
+
+/**
+ * Rank index of the cells of a {@link BinaryMatrix}, namely the number of
+ * cells that precede each row. It allows for computing the position of a cell
+ * by only looking at its own row, instead of summing up the sizes of all the
+ * previous rows as {@link BinaryMatrix#indexOf(int, int)} does.
+ * <p>
+ * The index is built lazily. Single-cell changes must be notified through
+ * {@link #cellAdded(int)} and {@link #cellRemoved(int)}, any other change
+ * through {@link #invalidate()}.
+ *
+ * @author ExtendedSet contributors
+ * @version $Id$
+ * @see IntPairMap
+ * @see DoublePairMap
+ */
+class CellRank {
+	/** indexed matrix */
+	private final BinaryMatrix matrix;
+
+	/**
+	 * <code>offsets[r]</code> is the number of cells in rows before
+	 * <code>r</code>, while the last element is the matrix size.
+	 * <code>null</code> if not computed yet.
+	 */
+	private int[] offsets = null;
+
+	/**
+	 * @param matrix
+	 *            the matrix to index
+	 */
+	CellRank(BinaryMatrix matrix) {
+		this.matrix = matrix;
+	}
+
+	/**
+	 * @return the offset table, rebuilt if the matrix has a different number
+	 *         of rows
+	 */
+	private int[] offsets() {
+		final int rowCount = matrix.maxRow() + 1;
+		if (offsets == null || offsets.length != rowCount + 1) {
+			offsets = new int[rowCount + 1];
+			for (int r = 0; r < rowCount; r++) {
+				IntSet s = matrix.rowOrNull(r);
+				offsets[r + 1] = offsets[r] + (s == null ? 0 : s.size());
+			}
+		}
+		return offsets;
+	}
+
+	/**
+	 * Provides the position of a cell within the matrix
+	 *
+	 * @param row
+	 *            row of the cell
+	 * @param col
+	 *            column of the cell
+	 * @return the cell position, or -1 if the cell does not exist
+	 */
+	int indexOf(int row, int col) {
+		if (row < 0 || col < 0)
+			return -1;
+		IntSet s = matrix.rowOrNull(row);
+		if (s == null)
+			return -1;
+		int res = s.indexOf(col);
+		if (res < 0)
+			return -1;
+		return offsets()[row] + res;
+	}
+
+	/**
+	 * Updates the index after a cell has been added
+	 *
+	 * @param row
+	 *            row of the added cell
+	 */
+	void cellAdded(int row) {
+		if (offsets == null)
+			return;
+		if (row + 1 >= offsets.length) {
+			offsets = null;
+			return;
+		}
+		for (int r = row + 1; r < offsets.length; r++)
+			offsets[r]++;
+	}
+
+	/**
+	 * Updates the index after a cell has been removed
+	 *
+	 * @param row
+	 *            row of the removed cell
+	 */
+	void cellRemoved(int row) {
+		if (offsets == null)
+			return;
+		if (row + 1 >= offsets.length) {
+			offsets = null;
+			return;
+		}
+		for (int r = row + 1; r < offsets.length; r++)
+			offsets[r]--;
+	}
+
+	/**
+	 * Adds the given cells to the matrix, by merging them with the existing
+	 * ones in a single pass, and tells where each cell of the resulting matrix
+	 * comes from.
+	 *
+	 * @param rows
+	 *            rows of the cells to add, sorted together with the columns
+	 * @param cols
+	 *            columns of the cells to add
+	 * @return for each cell of the resulting matrix, in iteration order, its
+	 *         position within the original matrix if the cell already
+	 *         existed, or <code>~k</code> if it is the <code>k</code>-th cell
+	 *         of the given arrays
+	 */
+	int[] addAllSorted(int[] rows, int[] cols) {
+		final int n = rows.length;
+		final int[] res = new int[matrix.size() + n];
+		final CellIterator itr = matrix.iterator();
+		int[] cur = itr.hasNext() ? itr.next() : null;
+		int o = 0, j = 0, d = 0;
+		while (cur != null || j < n) {
+			int cmp;
+			if (cur == null)
+				cmp = 1;
+			else if (j == n)
+				cmp = -1;
+			else if (cur[0] != rows[j])
+				cmp = cur[0] < rows[j] ? -1 : 1;
+			else
+				cmp = cur[1] < cols[j] ? -1 : (cur[1] == cols[j] ? 0 : 1);
+			if (cmp < 0) {
+				res[d++] = o++;
+			} else {
+				res[d++] = ~j++;
+				if (cmp == 0)
+					o++;
+			}
+			if (cmp <= 0)
+				cur = itr.hasNext() ? itr.next() : null;
+		}
+
+		if (n > 0) {
+			BinaryMatrix.Builder b = new BinaryMatrix.Builder(matrix.emptyRow(), rows[n - 1] + 1);
+			for (int k = 0; k < n; k++)
+				b.add(rows[k], cols[k]);
+			matrix.addAll(b.build());
+		}
+		offsets = null;
+		return d == res.length ? res : Arrays.copyOf(res, d);
+	}
+
+	/**
+	 * Discards the index, that will be rebuilt when needed
+	 */
+	void invalidate() {
+		offsets = null;
+	}
+}
@@ -0,0 +1,344 @@
+/*
+ * (c) 2026 ExtendedSet contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.uniroma3.mat.extendedset.wrappers.matrix;
+
+import it.uniroma3.mat.extendedset.intset.IntSet;
+import it.uniroma3.mat.extendedset.utilities.IntObjConsumer;
+import it.uniroma3.mat.extendedset.wrappers.IndexedSet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Mines the frequent itemsets of a {@link BinaryMatrix}, where rows are
+ * transactions and columns are items, through the <i>Eclat</i> algorithm (see:
+ * Mohammed J. Zaki, <i>Scalable Algorithms for Association Mining</i>, IEEE
+ * Transactions on Knowledge and Data Engineering, 12(3):372-390, 2000).
+ * <p>
+ * Each item is represented by its column, namely the set of transactions that
+ * contain it (see {@link BinaryMatrix#getCol(int)}), and the transactions of
+ * an itemset are obtained by intersecting the transactions of two of its
+ * subsets. Itemsets are visited depth-first, one prefix class at a time, and
+ * extensions whose support is less than the minimum support are pruned along
+ * with all their supersets. Frequent itemsets are passed to a consumer as soon
+ * as they are found, hence the memory footprint only depends on the classes
+ * along the current path, and not on the number of frequent itemsets.
+ * <p>
+ * On dense matrices, <i>diffsets</i> (see {@link #setDiffsets(boolean)}) keep
+ * the transactions that are lost with respect to the prefix instead of the
+ * transactions that remain, which are usually much more.
+ *
+ * @author ExtendedSet contributors
+ * @version $Id$
+ * @see BinaryMatrix#coOccurrenceCounts()
+ */
+public class FrequentItemsets {
+	/** mined matrix */
+	private final BinaryMatrix matrix;
+
+	/** minimum number of transactions of a frequent itemset */
+	private final int minSupport;
+
+	/** maximum number of items of a frequent itemset */
+	private int maxSize = Integer.MAX_VALUE;
+
+	/** <code>true</code> to represent extensions by diffsets */
+	private boolean diffsets = false;
+
+	/**
+	 * Prepares the mining of the given matrix
+	 *
+	 * @param matrix
+	 *            rows are transactions, columns are items
+	 * @param minSupport
+	 *            minimum number of transactions of a frequent itemset
+	 *            (greater than zero)
+	 */
+	public FrequentItemsets(BinaryMatrix matrix, int minSupport) {
+		if (minSupport < 1)
+			throw new IllegalArgumentException("minSupport: " + minSupport + " < 1");
+		this.matrix = matrix;
+		this.minSupport = minSupport;
+	}
+
+	/**
+	 * Sets the maximum number of items of frequent itemsets
+	 *
+	 * @param maxSize
+	 *            maximum itemset size (greater than zero)
+	 */
+	public void setMaxSize(int maxSize) {
+		if (maxSize < 1)
+			throw new IllegalArgumentException("maxSize: " + maxSize + " < 1");
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Chooses how to represent the transactions of extensions beyond the
+	 * single items
+	 *
+	 * @param diffsets
+	 *            <code>true</code> to keep the transactions of the prefix that
+	 *            do not contain the extension, <code>false</code> to keep the
+	 *            transactions that contain it
+	 */
+	public void setDiffsets(boolean diffsets) {
+		this.diffsets = diffsets;
+	}
+
+	/**
+	 * Prefix class, namely itemsets that share all the items but the last one
+	 */
+	private static class PrefixClass {
+		/** items of the common prefix */
+		final int[] prefix;
+
+		/** last item of each member */
+		final int[] items;
+
+		/** transactions (or diffsets) of each member */
+		final IntSet[] sets;
+
+		/** support of each member */
+		final int[] supports;
+
+		/** <code>true</code> if {@link #sets} contains diffsets */
+		final boolean diffsets;
+
+		/** number of members */
+		final int size;
+
+		PrefixClass(int[] prefix, int[] items, IntSet[] sets, int[] supports, int size, boolean diffsets) {
+			this.prefix = prefix;
+			this.items = items;
+			this.sets = sets;
+			this.supports = supports;
+			this.size = size;
+			this.diffsets = diffsets;
+		}
+	}
+
+	/**
+	 * @return the class of the frequent single items, sorted by increasing
+	 *         support to reduce the size of the following classes
+	 */
+	private PrefixClass singleItems() {
+		final int maxCol = matrix.maxCol();
+		final List<IntSet> cols = new ArrayList<IntSet>();
+		final List<Integer> items = new ArrayList<Integer>();
+		for (int col = 0; col <= maxCol; col++) {
+			IntSet c = matrix.getCol(col);
+			if (c.size() >= minSupport) {
+				cols.add(c);
+				items.add(col);
+			}
+		}
+
+		final Integer[] order = new Integer[cols.size()];
+		for (int i = 0; i < order.length; i++)
+			order[i] = i;
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer o1, Integer o2) {
+				int s1 = cols.get(o1).size();
+				int s2 = cols.get(o2).size();
+				return s1 < s2 ? -1 : (s1 == s2 ? o1.compareTo(o2) : 1);
+			}
+		});
+		final int n = order.length;
+		final int[] resItems = new int[n];
+		final IntSet[] resSets = new IntSet[n];
+		final int[] resSupports = new int[n];
+		for (int i = 0; i < n; i++) {
+			resItems[i] = items.get(order[i]);
+			resSets[i] = cols.get(order[i]);
+			resSupports[i] = resSets[i].size();
+		}
+		return new PrefixClass(new int[0], resItems, resSets, resSupports, n, false);
+	}
+
+	/**
+	 * Computes the class of the itemsets that extend the <code>i</code>-th
+	 * member of the given class with the following members
+	 *
+	 * @param c
+	 *            the class
+	 * @param i
+	 *            index of the member
+	 * @return the frequent extensions
+	 */
+	private PrefixClass extensions(PrefixClass c, int i) {
+		final int[] prefix = Arrays.copyOf(c.prefix, c.prefix.length + 1);
+		prefix[c.prefix.length] = c.items[i];
+
+		final int capacity = c.size - i - 1;
+		final int[] items = new int[capacity];
+		final IntSet[] sets = new IntSet[capacity];
+		final int[] supports = new int[capacity];
+		int size = 0;
+		for (int j = i + 1; j < c.size; j++) {
+			final IntSet s;
+			final int support;
+			if (!diffsets) {
+				// t(PXY) = t(PX) & t(PY)
+				s = c.sets[i].intersection(c.sets[j]);
+				support = s.size();
+			} else if (!c.diffsets) {
+				// d(PXY) = t(PX) - t(PY)
+				s = c.sets[i].difference(c.sets[j]);
+				support = c.supports[i] - s.size();
+			} else {
+				// d(PXY) = d(PY) - d(PX)
+				s = c.sets[j].difference(c.sets[i]);
+				support = c.supports[i] - s.size();
+			}
+			if (support < minSupport)
+				continue;
+			items[size] = c.items[j];
+			sets[size] = s;
+			supports[size] = support;
+			size++;
+		}
+		return new PrefixClass(prefix, items, sets, supports, size, diffsets);
+	}
+
+	/**
+	 * Emits the <code>i</code>-th member of the given class and mines its
+	 * extensions
+	 *
+	 * @param c
+	 *            the class
+	 * @param i
+	 *            index of the member
+	 * @param consumer
+	 *            receives the frequent itemsets
+	 */
+	private void mine(PrefixClass c, int i, IntObjConsumer<IntSet> consumer) {
+		final IntSet itemset = matrix.emptyRow();
+		for (int item : c.prefix)
+			itemset.add(item);
+		itemset.add(c.items[i]);
+		consumer.accept(c.supports[i], itemset);
+
+		if (c.prefix.length + 1 >= maxSize || i == c.size - 1)
+			return;
+		final PrefixClass ext = extensions(c, i);
+		for (int j = 0; j < ext.size; j++) {
+			mine(ext, j, consumer);
+			// transactions of a member are no longer needed
+			ext.sets[j] = null;
+		}
+	}
+
+	/**
+	 * Mines the frequent itemsets
+	 *
+	 * @param consumer
+	 *            receives the support and the items (column indices) of each
+	 *            frequent itemset, in no particular order. The itemset
+	 *            instance is not used anymore by the miner.
+	 */
+	public void mine(IntObjConsumer<IntSet> consumer) {
+		final PrefixClass root = singleItems();
+		for (int i = 0; i < root.size; i++)
+			mine(root, i, consumer);
+	}
+
+	/**
+	 * Mines the frequent itemsets, by processing the classes of single items
+	 * in parallel
+	 *
+	 * @param consumer
+	 *            receives the support and the items (column indices) of each
+	 *            frequent itemset, in no particular order. It must be
+	 *            thread-safe.
+	 * @param pool
+	 *            pool that executes the mining, for example
+	 *            {@link ForkJoinPool#commonPool()}
+	 */
+	public void mine(final IntObjConsumer<IntSet> consumer, ForkJoinPool pool) {
+		final PrefixClass root = singleItems();
+		pool.invoke(new RecursiveAction() {
+			private static final long serialVersionUID = -3197626331425123410L;
+
+			@Override
+			protected void compute() {
+				final List<RecursiveAction> tasks = new ArrayList<RecursiveAction>(root.size);
+				for (int i = 0; i < root.size; i++) {
+					final int item = i;
+					tasks.add(new RecursiveAction() {
+						private static final long serialVersionUID = 8245096245731938424L;
+
+						@Override
+						protected void compute() {
+							mine(root, item, consumer);
+						}
+					});
+				}
+				invokeAll(tasks);
+			}
+		});
+	}
+
+	/**
+	 * Mines the frequent itemsets
+	 *
+	 * @return the support of each frequent itemset, whose items are column
+	 *         indices
+	 */
+	public Map<IntSet, Integer> mine() {
+		final Map<IntSet, Integer> res = new LinkedHashMap<IntSet, Integer>();
+		mine(new IntObjConsumer<IntSet>() {
+			@Override
+			public void accept(int support, IntSet itemset) {
+				res.put(itemset, support);
+			}
+		});
+		return res;
+	}
+
+	/**
+	 * Mines the frequent itemsets of the given transaction-item pairs
+	 *
+	 * @param <T>
+	 *            transaction type
+	 * @param <I>
+	 *            item type
+	 * @param pairs
+	 *            the transaction-item pairs
+	 * @param minSupport
+	 *            minimum number of transactions of a frequent itemset
+	 * @return the support of each frequent itemset
+	 */
+	public static <T, I> Map<IndexedSet<I>, Integer> mine(PairSet<T, I> pairs, int minSupport) {
+		final IndexedSet.Universe<I> universe = pairs.allItems().getUniverse();
+		final Map<IndexedSet<I>, Integer> res = new LinkedHashMap<IndexedSet<I>, Integer>();
+		new FrequentItemsets(pairs.matrix(), minSupport).mine(new IntObjConsumer<IntSet>() {
+			@Override
+			public void accept(int support, IntSet itemset) {
+				res.put(new IndexedSet<I>(itemset, universe), support);
+			}
+		});
+		return res;
+	}
+}
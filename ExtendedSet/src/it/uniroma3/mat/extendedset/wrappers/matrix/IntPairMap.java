@@ -0,0 +1,343 @@
+/*
+ * (c) 2026 ExtendedSet contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.uniroma3.mat.extendedset.wrappers.matrix;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+
+/**
+ * A class that associates an <code>int</code> value to each pair within a
+ * {@link PairSet} instance.
+ * <p>
+ * Differently from {@link PairMap}, values are stored within an
+ * <code>int</code> array, according to the ordering of the keys, and the
+ * position of a key is computed through a rank index of the rows of the
+ * underlying {@link BinaryMatrix}. Missing keys are mapped to 0.
+ * <p>
+ * <b>NOTE:</b> the key set must be modified only through this map.
+ *
+ * @author ExtendedSet contributors
+ * @version $Id$
+ * @param <T>
+ *            transaction type
+ * @param <I>
+ *            item type
+ * @see PairMap
+ * @see DoublePairMap
+ */
+public class IntPairMap<T, I> implements Serializable, Cloneable {
+	/** generated serial ID */
+	private static final long serialVersionUID = 2296187702163935432L;
+
+	/** all existing keys */
+	private final PairSet<T, I> keys;
+
+	/** values related to existing keys, according to the ordering of {@link #keys} */
+	private int[] values;
+
+	/** position of each key within {@link #values} */
+	private transient CellRank rank;
+
+	/**
+	 * Creates an empty map
+	 *
+	 * @param keys
+	 *            {@link PairSet} instance internally used to store indices. If
+	 *            not empty, existing pairs are mapped to 0.
+	 */
+	public IntPairMap(PairSet<T, I> keys) {
+		this.keys = keys;
+		values = new int[keys.size()];
+	}
+
+	/**
+	 * Creates a map with the given values
+	 *
+	 * @param keys
+	 *            {@link PairSet} instance internally used to store indices
+	 * @param values
+	 *            values of the keys, according to their ordering
+	 */
+	IntPairMap(PairSet<T, I> keys, int[] values) {
+		if (values.length != keys.size())
+			throw new IllegalArgumentException("values: " + values.length + " != keys: " + keys.size());
+		this.keys = keys;
+		this.values = values;
+	}
+
+	/**
+	 * @return the rank index of the keys
+	 */
+	private CellRank rank() {
+		if (rank == null)
+			rank = new CellRank(keys.matrix());
+		return rank;
+	}
+
+	/**
+	 * @return the key set. It must not be modified directly.
+	 */
+	public PairSet<T, I> keys() {
+		return keys;
+	}
+
+	/**
+	 * @param transaction
+	 *            the transaction of the pair
+	 * @param item
+	 *            the item of the pair
+	 * @return the position of the pair within {@link #values}, or -1
+	 */
+	private int indexOf(T transaction, I item) {
+		int t = keys.transactionToIndex(transaction);
+		if (t < 0)
+			return -1;
+		int i = keys.itemToIndex(item);
+		if (i < 0)
+			return -1;
+		return rank().indexOf(t, i);
+	}
+
+	/**
+	 * Checks if the given transaction-item pair has a value
+	 *
+	 * @param transaction
+	 *            the transaction of the pair
+	 * @param item
+	 *            the item of the pair
+	 * @return <code>true</code> if the pair is a key of the map
+	 */
+	public boolean containsKey(T transaction, I item) {
+		return indexOf(transaction, item) >= 0;
+	}
+
+	/**
+	 * Gets the value associated to the given transaction-item pair
+	 *
+	 * @param transaction
+	 *            the transaction of the pair
+	 * @param item
+	 *            the item of the pair
+	 * @return the value, or 0 if the pair is not a key of the map
+	 */
+	public int get(T transaction, I item) {
+		return getOrDefault(transaction, item, 0);
+	}
+
+	/**
+	 * Gets the value associated to the given transaction-item pair
+	 *
+	 * @param transaction
+	 *            the transaction of the pair
+	 * @param item
+	 *            the item of the pair
+	 * @param defaultValue
+	 *            value to return for missing pairs
+	 * @return the value, or <code>defaultValue</code> if the pair is not a key
+	 *         of the map
+	 */
+	public int getOrDefault(T transaction, I item, int defaultValue) {
+		int index = indexOf(transaction, item);
+		return index < 0 ? defaultValue : values[index];
+	}
+
+	/**
+	 * Associates a value to the given transaction-item pair
+	 *
+	 * @param transaction
+	 *            the transaction of the pair
+	 * @param item
+	 *            the item of the pair
+	 * @param value
+	 *            the value
+	 * @return the previous value, or 0 if the pair was not a key of the map
+	 */
+	public int put(T transaction, I item, int value) {
+		final int t = keys.transactionToIndex(transaction);
+		final int i = keys.itemToIndex(item);
+		final CellRank r = rank();
+		if (keys.matrix().add(t, i)) {
+			r.cellAdded(t);
+			final int index = r.indexOf(t, i);
+			final int size = keys.size() - 1;
+			if (size == values.length)
+				values = Arrays.copyOf(values, Math.max(8, size + (size >>> 1)));
+			System.arraycopy(values, index, values, index + 1, size - index);
+			values[index] = value;
+			return 0;
+		}
+		final int index = r.indexOf(t, i);
+		final int old = values[index];
+		values[index] = value;
+		return old;
+	}
+
+	/**
+	 * Adds the given amount to the value of a transaction-item pair, that is
+	 * put into the map if missing
+	 *
+	 * @param transaction
+	 *            the transaction of the pair
+	 * @param item
+	 *            the item of the pair
+	 * @param delta
+	 *            the amount to add
+	 * @return the new value
+	 */
+	public int increment(T transaction, I item, int delta) {
+		int index = indexOf(transaction, item);
+		if (index < 0) {
+			put(transaction, item, delta);
+			return delta;
+		}
+		return values[index] += delta;
+	}
+
+	/**
+	 * Associates values to a sequence of pairs. This is much faster than
+	 * calling {@link #put(Object, Object, int)} for each pair, since keys and
+	 * values are merged in a single pass.
+	 *
+	 * @param sortedKeys
+	 *            pairs sorted according to the comparator of the key set,
+	 *            without duplicates
+	 * @param sortedValues
+	 *            values of the pairs, in the same order
+	 * @throws IllegalArgumentException
+	 *             if the pairs are not sorted, or if the number of pairs and
+	 *             values differ
+	 */
+	public void putAll(Collection<? extends Pair<T, I>> sortedKeys, int[] sortedValues) {
+		if (sortedKeys.size() != sortedValues.length)
+			throw new IllegalArgumentException(sortedKeys.size() + " keys and " + sortedValues.length + " values");
+		final int[][] cells = keys.sortedIndices(sortedKeys);
+		final int[] origins = rank().addAllSorted(cells[0], cells[1]);
+		final int[] res = new int[origins.length];
+		for (int k = 0; k < origins.length; k++) {
+			int o = origins[k];
+			res[k] = o >= 0 ? values[o] : sortedValues[~o];
+		}
+		values = res;
+	}
+
+	/**
+	 * Removes a transaction-item pair from the map
+	 *
+	 * @param transaction
+	 *            the transaction of the pair
+	 * @param item
+	 *            the item of the pair
+	 * @return the removed value, or 0 if the pair was not a key of the map
+	 */
+	public int remove(T transaction, I item) {
+		final int t = keys.transactionToIndex(transaction);
+		final int i = keys.itemToIndex(item);
+		final int index = t < 0 || i < 0 ? -1 : rank().indexOf(t, i);
+		if (index < 0)
+			return 0;
+		final int old = values[index];
+		keys.matrix().remove(t, i);
+		rank.cellRemoved(t);
+		System.arraycopy(values, index + 1, values, index, keys.size() - index);
+		return old;
+	}
+
+	/**
+	 * @return the number of keys
+	 */
+	public int size() {
+		return keys.size();
+	}
+
+	/**
+	 * @return <code>true</code> if the map contains no keys
+	 */
+	public boolean isEmpty() {
+		return keys.isEmpty();
+	}
+
+	/**
+	 * Removes all the keys
+	 */
+	public void clear() {
+		keys.clear();
+		rank().invalidate();
+	}
+
+	/**
+	 * @return a copy of the values, according to the ordering of the keys
+	 */
+	public int[] values() {
+		return Arrays.copyOf(values, keys.size());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IntPairMap<T, I> clone() {
+		IntPairMap<T, I> cloned = new IntPairMap<T, I>(keys.clone());
+		cloned.values = values();
+		return cloned;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof IntPairMap<?, ?>))
+			return false;
+		final IntPairMap<?, ?> other = (IntPairMap<?, ?>) obj;
+		if (!keys.equals(other.keys))
+			return false;
+		for (int k = 0; k < keys.size(); k++)
+			if (values[k] != other.values[k])
+				return false;
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		int h = keys.hashCode();
+		for (int k = 0; k < keys.size(); k++)
+			h = 31 * h + values[k];
+		return h;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder("{");
+		Iterator<Pair<T, I>> itr = keys.iterator();
+		for (int k = 0; itr.hasNext(); k++) {
+			s.append(itr.next()).append('=').append(values[k]);
+			if (itr.hasNext())
+				s.append(", ");
+		}
+		return s.append('}').toString();
+	}
+}
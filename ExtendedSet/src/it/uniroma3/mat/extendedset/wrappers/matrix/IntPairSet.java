@@ -0,0 +1,479 @@
+/*
+ * (c) 2026 ExtendedSet contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.uniroma3.mat.extendedset.wrappers.matrix;
+
+import it.uniroma3.mat.extendedset.intset.IntSet;
+import it.uniroma3.mat.extendedset.utilities.IntIntConsumer;
+import it.uniroma3.mat.extendedset.utilities.SizeOf;
+import it.uniroma3.mat.extendedset.wrappers.matrix.BinaryMatrix.CellIterator;
+
+import java.io.Serializable;
+import java.util.NoSuchElementException;
+
+/**
+ * A set of pairs of <code>int</code> transactions and items, internally
+ * represented by a binary matrix.
+ * <p>
+ * Unlike {@link PairSet}, transactions and items are directly used as row and
+ * column indices of the {@link BinaryMatrix}, hence there is neither boxing
+ * nor any mapping between elements and indices.
+ *
+ * @author ExtendedSet contributors
+ * @version $Id$
+ * @see PairSet
+ * @see BinaryMatrix
+ */
+public class IntPairSet implements Cloneable, Comparable<IntPairSet>, Serializable {
+	/** generated serial ID */
+	private static final long serialVersionUID = -5402879016316429574L;
+
+	/** binary matrix */
+	private final BinaryMatrix matrix;
+
+	/**
+	 * Creates an empty set
+	 *
+	 * @param template
+	 *            {@link IntSet} instance to create the rows of the matrix
+	 */
+	public IntPairSet(IntSet template) {
+		this(new BinaryMatrix(template));
+	}
+
+	/**
+	 * Wraps a {@link BinaryMatrix} instance, where rows are transactions and
+	 * columns are items. Changes to the set are reflected in the matrix and
+	 * vice versa.
+	 *
+	 * @param matrix
+	 *            the {@link BinaryMatrix} instance to wrap
+	 */
+	public IntPairSet(BinaryMatrix matrix) {
+		if (matrix == null)
+			throw new NullPointerException();
+		this.matrix = matrix;
+	}
+
+	/**
+	 * @return the underlying {@link BinaryMatrix} instance
+	 */
+	public BinaryMatrix matrix() {
+		return matrix;
+	}
+
+	/**
+	 * Views the set as a {@link PairSet} over the transactions and items
+	 * currently contained
+	 *
+	 * @return a {@link PairSet} instance sharing the same matrix
+	 * @see PairSet#createFromBinaryMatrix(BinaryMatrix)
+	 */
+	public PairSet<Integer, Integer> toPairSet() {
+		return PairSet.createFromBinaryMatrix(matrix);
+	}
+
+	/**
+	 * Adds a single transaction-item pair
+	 *
+	 * @param transaction
+	 *            the transaction of the pair
+	 * @param item
+	 *            the item of the pair
+	 * @return <code>true</code> if the set has been changed
+	 */
+	public boolean add(int transaction, int item) {
+		return matrix.add(transaction, item);
+	}
+
+	/**
+	 * Adds the given items to a transaction
+	 *
+	 * @param transaction
+	 *            the transaction
+	 * @param items
+	 *            the items to add
+	 * @return <code>true</code> if the set has been changed
+	 */
+	public boolean addAll(int transaction, IntSet items) {
+		return matrix.addAll(transaction, items);
+	}
+
+	/**
+	 * Removes a single transaction-item pair
+	 *
+	 * @param transaction
+	 *            the transaction of the pair
+	 * @param item
+	 *            the item of the pair
+	 * @return <code>true</code> if the set has been changed
+	 */
+	public boolean remove(int transaction, int item) {
+		return matrix.remove(transaction, item);
+	}
+
+	/**
+	 * Checks if the given transaction-item pair is contained within the set
+	 *
+	 * @param transaction
+	 *            the transaction of the pair
+	 * @param item
+	 *            the item of the pair
+	 * @return <code>true</code> if the given transaction-item pair is contained
+	 *         within the set
+	 */
+	public boolean contains(int transaction, int item) {
+		return matrix.contains(transaction, item);
+	}
+
+	/**
+	 * Adds the pair if not contained, removes it otherwise
+	 *
+	 * @param transaction
+	 *            the transaction of the pair
+	 * @param item
+	 *            the item of the pair
+	 */
+	public void flip(int transaction, int item) {
+		matrix.flip(transaction, item);
+	}
+
+	/**
+	 * @return the number of pairs
+	 */
+	public int size() {
+		return matrix.size();
+	}
+
+	/**
+	 * @return <code>true</code> if the set contains no pairs
+	 */
+	public boolean isEmpty() {
+		return matrix.isEmpty();
+	}
+
+	/**
+	 * Removes all the pairs
+	 */
+	public void clear() {
+		matrix.clear();
+	}
+
+	/**
+	 * Lists all items contained within a given transaction
+	 *
+	 * @param transaction
+	 *            the given transaction
+	 * @return a read-only view of the items contained within the given
+	 *         transaction
+	 */
+	public IntSet itemsOf(int transaction) {
+		return matrix.rowView(transaction);
+	}
+
+	/**
+	 * Lists all transactions involved with a specified item
+	 *
+	 * @param item
+	 *            the given item
+	 * @return transactions involved with a specified item
+	 */
+	public IntSet transactionsOf(int item) {
+		return matrix.getCol(item);
+	}
+
+	/**
+	 * @return transactions with at least one item
+	 */
+	public IntSet involvedTransactions() {
+		return matrix.involvedRows();
+	}
+
+	/**
+	 * @return items contained within at least one transaction
+	 */
+	public IntSet involvedItems() {
+		return matrix.involvedCols();
+	}
+
+	/**
+	 * Adds all the pairs of the given set
+	 *
+	 * @param other
+	 *            the other set
+	 * @return <code>true</code> if the set has been changed
+	 */
+	public boolean addAll(IntPairSet other) {
+		return matrix.addAll(other.matrix);
+	}
+
+	/**
+	 * Retains only the pairs contained within the given set
+	 *
+	 * @param other
+	 *            the other set
+	 * @return <code>true</code> if the set has been changed
+	 */
+	public boolean retainAll(IntPairSet other) {
+		return matrix.retainAll(other.matrix);
+	}
+
+	/**
+	 * Removes all the pairs contained within the given set
+	 *
+	 * @param other
+	 *            the other set
+	 * @return <code>true</code> if the set has been changed
+	 */
+	public boolean removeAll(IntPairSet other) {
+		return matrix.removeAll(other.matrix);
+	}
+
+	/**
+	 * @param other
+	 *            the other set
+	 * @return <code>true</code> if all the pairs of the given set are
+	 *         contained within this set
+	 */
+	public boolean containsAll(IntPairSet other) {
+		return matrix.containsAll(other.matrix);
+	}
+
+	/**
+	 * @param other
+	 *            the other set
+	 * @return <code>true</code> if at least one pair of the given set is
+	 *         contained within this set
+	 */
+	public boolean containsAny(IntPairSet other) {
+		return matrix.containsAny(other.matrix);
+	}
+
+	/**
+	 * @param other
+	 *            the other set
+	 * @return the pairs contained within both sets
+	 */
+	public IntPairSet intersection(IntPairSet other) {
+		return new IntPairSet(matrix.intersection(other.matrix));
+	}
+
+	/**
+	 * @param other
+	 *            the other set
+	 * @return the pairs contained within either set
+	 */
+	public IntPairSet union(IntPairSet other) {
+		return new IntPairSet(matrix.union(other.matrix));
+	}
+
+	/**
+	 * @param other
+	 *            the other set
+	 * @return the pairs of this set that are not contained within the given
+	 *         set
+	 */
+	public IntPairSet difference(IntPairSet other) {
+		return new IntPairSet(matrix.difference(other.matrix));
+	}
+
+	/**
+	 * @param other
+	 *            the other set
+	 * @return the pairs contained within exactly one of the sets
+	 */
+	public IntPairSet symmetricDifference(IntPairSet other) {
+		return new IntPairSet(matrix.symmetricDifference(other.matrix));
+	}
+
+	/**
+	 * @param other
+	 *            the other set
+	 * @return the number of pairs contained within both sets
+	 */
+	public int intersectionSize(IntPairSet other) {
+		return matrix.intersectionSize(other.matrix);
+	}
+
+	/**
+	 * @param other
+	 *            the other set
+	 * @return the number of pairs contained within either set
+	 */
+	public int unionSize(IntPairSet other) {
+		return matrix.unionSize(other.matrix);
+	}
+
+	/**
+	 * @param other
+	 *            the other set
+	 * @return the number of pairs of this set that are not contained within
+	 *         the given set
+	 */
+	public int differenceSize(IntPairSet other) {
+		return matrix.differenceSize(other.matrix);
+	}
+
+	/**
+	 * @return an empty set with the same row template
+	 */
+	public IntPairSet empty() {
+		return new IntPairSet(matrix.empty());
+	}
+
+	/**
+	 * Iterator over <code>int</code> transaction-item pairs. Each call to
+	 * {@link #next()} moves to the next pair, whose components are then
+	 * available through {@link #transaction()} and {@link #item()}.
+	 */
+	public interface IntPairIterator {
+		/**
+		 * @return <tt>true</tt> if the iterator has more pairs
+		 */
+		boolean hasNext();
+
+		/**
+		 * Moves to the next pair
+		 *
+		 * @exception NoSuchElementException
+		 *                iteration has no more pairs
+		 */
+		void next();
+
+		/**
+		 * @return the transaction of the current pair
+		 * @exception IllegalStateException
+		 *                if {@link #next()} has not yet been called
+		 */
+		int transaction();
+
+		/**
+		 * @return the item of the current pair
+		 * @exception IllegalStateException
+		 *                if {@link #next()} has not yet been called
+		 */
+		int item();
+	}
+
+	/**
+	 * Adapts a {@link CellIterator} to {@link IntPairIterator}, through the
+	 * cursor methods {@link CellIterator#advance()},
+	 * {@link CellIterator#row()}, and {@link CellIterator#col()}
+	 */
+	private static class CellPairIterator implements IntPairIterator {
+		private final CellIterator itr;
+
+		CellPairIterator(CellIterator itr) {
+			this.itr = itr;
+		}
+
+		@Override public boolean hasNext() {return itr.hasNext();}
+		@Override public int transaction() {return itr.row();}
+		@Override public int item() {return itr.col();}
+
+		@Override
+		public void next() {
+			if (!itr.advance())
+				throw new NoSuchElementException();
+		}
+	}
+
+	/**
+	 * @return an iterator over the pairs, sorted by transaction and then by
+	 *         item
+	 */
+	public IntPairIterator iterator() {
+		return new CellPairIterator(matrix.iterator());
+	}
+
+	/**
+	 * @return an iterator over the pairs, in reverse order
+	 */
+	public IntPairIterator descendingIterator() {
+		return new CellPairIterator(matrix.descendingIterator());
+	}
+
+	/**
+	 * Performs the given operation on each pair, in the same order of
+	 * {@link #iterator()}
+	 *
+	 * @param consumer
+	 *            operation that receives the transaction and the item of the
+	 *            pair
+	 */
+	public void forEachPair(IntIntConsumer consumer) {
+		matrix.forEachCell(consumer);
+	}
+
+	/**
+	 * @return the memory footprint of the set, in bytes
+	 */
+	public long sizeInBytes() {
+		return SizeOf.object(SizeOf.REFERENCE) + matrix.sizeInBytes();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public IntPairSet clone() {
+		return new IntPairSet(matrix.clone());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int compareTo(IntPairSet o) {
+		return matrix.compareTo(o.matrix);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!(obj instanceof IntPairSet))
+			return false;
+		return matrix.equals(((IntPairSet) obj).matrix);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int hashCode() {
+		return matrix.hashCode();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder("[");
+		IntPairIterator itr = iterator();
+		while (itr.hasNext()) {
+			itr.next();
+			s.append('(').append(itr.transaction()).append(", ").append(itr.item()).append(')');
+			if (itr.hasNext())
+				s.append(", ");
+		}
+		return s.append(']').toString();
+	}
+}
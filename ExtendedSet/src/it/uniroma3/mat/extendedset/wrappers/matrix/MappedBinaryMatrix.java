@@ -0,0 +1,204 @@
+/*
+ * (c) 2026 ExtendedSet contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package it.uniroma3.mat.extendedset.wrappers.matrix;
+
+import it.uniroma3.mat.extendedset.intset.ConciseSet;
+import it.uniroma3.mat.extendedset.intset.IntSet;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Read-only {@link BinaryMatrix} stored in a file written by
+ * {@link BinaryMatrix#write(java.io.OutputStream)}.
+ * <p>
+ * The file is memory-mapped, hence only the accessed rows are loaded into
+ * memory, by the operating system. Rows are decoded on demand as
+ * {@link ConciseSet} instances.
+ * <p>
+ * Instances are thread-safe.
+ *
+ * @author ExtendedSet contributors
+ * @version $Id$
+ * @see BinaryMatrix
+ */
+public class MappedBinaryMatrix implements Closeable {
+	/** bits of the size of each mapped region */
+	private final static int CHUNK_SHIFT = 30;
+
+	/** size of each mapped region, since a single region cannot exceed 2 GB */
+	private final static long CHUNK_SIZE = 1L << CHUNK_SHIFT;
+
+	/** size of the header, in bytes */
+	private final static long HEADER_SIZE = 12;
+
+	/** the mapped file */
+	private final RandomAccessFile file;
+
+	/** mapped regions of the file */
+	private final MappedByteBuffer[] chunks;
+
+	/** number of rows */
+	private final int rowCount;
+
+	/** position of the row offset table */
+	private final long offsetTablePosition;
+
+	/**
+	 * Maps a file written by {@link BinaryMatrix#write(java.io.OutputStream)}
+	 *
+	 * @param f
+	 *            the file
+	 * @throws IOException
+	 *             if an I/O error occurs, or if the file is not in the
+	 *             expected format
+	 */
+	public MappedBinaryMatrix(File f) throws IOException {
+		file = new RandomAccessFile(f, "r");
+		try {
+			final FileChannel channel = file.getChannel();
+			final long length = channel.size();
+			chunks = new MappedByteBuffer[(int) ((length + CHUNK_SIZE - 1) >>> CHUNK_SHIFT)];
+			for (int i = 0; i < chunks.length; i++) {
+				long from = (long) i << CHUNK_SHIFT;
+				chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, from, Math.min(CHUNK_SIZE, length - from));
+			}
+
+			if (length < HEADER_SIZE + 8
+					|| getInt(0) != BinaryMatrix.STORAGE_MAGIC
+					|| getInt(4) != BinaryMatrix.STORAGE_VERSION)
+				throw new IOException("Unknown format: " + f);
+			rowCount = getInt(8);
+			offsetTablePosition = length - 8L * (rowCount + 1);
+			if (rowCount < 0 || offsetTablePosition != HEADER_SIZE + 4 * offset(rowCount))
+				throw new IOException("Corrupted file: " + f);
+		} catch (IOException e) {
+			file.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @param position
+	 *            position within the file, multiple of 4
+	 * @return the <code>int</code> at the given position
+	 */
+	private int getInt(long position) {
+		// ints never cross chunk boundaries, since they are 4-byte aligned
+		return chunks[(int) (position >>> CHUNK_SHIFT)].getInt((int) (position & (CHUNK_SIZE - 1)));
+	}
+
+	/**
+	 * @param row
+	 *            row index, between 0 and {@link #rowCount}
+	 * @return the index of the first word of the row
+	 */
+	private long offset(int row) {
+		// longs may not be 8-byte aligned, hence they can cross chunks
+		final long position = offsetTablePosition + 8L * row;
+		return ((long) getInt(position) << 32) | (getInt(position + 4) & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * @return the greatest non-empty row, or -1 if the matrix is empty
+	 */
+	public int maxRow() {
+		return rowCount - 1;
+	}
+
+	/**
+	 * @return <tt>true</tt> if this matrix contains no cells
+	 */
+	public boolean isEmpty() {
+		return rowCount == 0;
+	}
+
+	/**
+	 * Reads the words of a row
+	 *
+	 * @param row
+	 *            the row index, less than {@link #rowCount}
+	 * @return the words of the row
+	 */
+	private int[] words(int row) {
+		final long from = offset(row);
+		final int[] res = new int[(int) (offset(row + 1) - from)];
+		final long position = HEADER_SIZE + 4 * from;
+		for (int i = 0; i < res.length; i++)
+			res[i] = getInt(position + 4L * i);
+		return res;
+	}
+
+	/**
+	 * Gets the row with the given index, by reading only its words
+	 *
+	 * @param row
+	 *            the row index
+	 * @return the content of the row
+	 */
+	public ConciseSet getRow(int row) {
+		if (row < 0)
+			throw new IllegalArgumentException("negative row index: " + row);
+		final ConciseSet template = new ConciseSet();
+		if (row >= rowCount)
+			return template;
+		final int[] words = words(row);
+		return template.fromWords(words, 0, words.length);
+	}
+
+	/**
+	 * Returns <tt>true</tt> if this matrix contains the specified cell.
+	 *
+	 * @param row
+	 *            row of the cell
+	 * @param col
+	 *            column of the cell
+	 * @return <tt>true</tt> if this matrix contains the specified cell
+	 */
+	public boolean contains(int row, int col) {
+		return row >= 0 && col >= 0 && row < rowCount && getRow(row).contains(col);
+	}
+
+	/**
+	 * Loads the whole matrix into heap
+	 *
+	 * @param template
+	 *            {@link IntSet} instance to create rows
+	 * @return the loaded matrix
+	 */
+	public BinaryMatrix toBinaryMatrix(IntSet template) {
+		BinaryMatrix res = new BinaryMatrix(template);
+		for (int r = 0; r < rowCount; r++) {
+			final int[] words = words(r);
+			res.appendRow(BinaryMatrix.fromWords(template, words, 0, words.length));
+		}
+		return res;
+	}
+
+	/**
+	 * Closes the underlying file. Mapped regions are released when garbage
+	 * collected.
+	 */
+	@Override
+	public void close() throws IOException {
+		file.close();
+	}
+}
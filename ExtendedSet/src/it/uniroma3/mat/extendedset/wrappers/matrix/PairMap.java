@@ -18,6 +18,9 @@
 
 package it.uniroma3.mat.extendedset.wrappers.matrix;
 
+import it.uniroma3.mat.extendedset.utilities.ObjObjConsumer;
+import it.uniroma3.mat.extendedset.utilities.ObjObjObjConsumer;
+
 import java.io.Serializable;
 import java.util.AbstractCollection;
 import java.util.AbstractMap;
@@ -51,6 +54,9 @@ public class PairMap<T, I, V> extends AbstractMap<Pair<T, I>, V> implements Seri
 	/** values related to existing keys, according to the ordering provided by {@link #keys} */
 	private final ArrayList<V> values;
 
+	/** position of each key within {@link #values} */
+	private transient CellRank rank;
+
 	/**
 	 * Creates an empty map
 	 * 
@@ -66,6 +72,34 @@ public class PairMap<T, I, V> extends AbstractMap<Pair<T, I>, V> implements Seri
 			values.add(null);
 	}
 
+	/**
+	 * @return the rank index of the keys
+	 */
+	private CellRank rank() {
+		if (rank == null)
+			rank = new CellRank(keys.matrix());
+		return rank;
+	}
+
+	/**
+	 * Provides the position of a key within {@link #values}. It only looks at
+	 * the row of the key, which in turn can be sped up through
+	 * {@link BinaryMatrix#buildRankIndex()} when keys do not change.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return the position of the key, or -1 if not found
+	 */
+	private int indexOf(Pair<T, I> key) {
+		int t = keys.transactionToIndex(key.transaction);
+		if (t < 0)
+			return -1;
+		int i = keys.itemToIndex(key.item);
+		if (i < 0)
+			return -1;
+		return rank().indexOf(t, i);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -73,6 +107,7 @@ public class PairMap<T, I, V> extends AbstractMap<Pair<T, I>, V> implements Seri
 	public void clear() {
 		keys.clear();
 		values.clear();
+		rank().invalidate();
 	}
 
 	/**
@@ -99,7 +134,7 @@ public class PairMap<T, I, V> extends AbstractMap<Pair<T, I>, V> implements Seri
 	public V get(Object key) {
 		if (key == null || !(key instanceof Pair<?, ?>))
 			return null;
-		int index = keys.indexOf((Pair<T, I>) key);
+		int index = indexOf((Pair<T, I>) key);
 		if (index < 0)
 			return null;
 		return values.get(index);
@@ -120,7 +155,9 @@ public class PairMap<T, I, V> extends AbstractMap<Pair<T, I>, V> implements Seri
 	@Override
 	public V put(Pair<T, I> key, V value) {
 		boolean isNew = keys.add(key);
-		int index = keys.indexOf(key);
+		if (isNew)
+			rank().cellAdded(keys.transactionToIndex(key.transaction));
+		int index = indexOf(key);
 		Object old = null;
 		if (isNew)
 			values.add(index, value);
@@ -137,10 +174,11 @@ public class PairMap<T, I, V> extends AbstractMap<Pair<T, I>, V> implements Seri
 	public V remove(Object key) {
 		if (key == null || !(key instanceof Pair<?, ?>))
 			return null;
-		int index = keys.indexOf((Pair<T, I>) key);
+		int index = indexOf((Pair<T, I>) key);
 		if (index < 0)
 			return null;
 		keys.remove(key);
+		rank.cellRemoved(keys.transactionToIndex(((Pair<T, I>) key).transaction));
 		return values.remove(index);
 	}
 
@@ -376,4 +414,23 @@ public class PairMap<T, I, V> extends AbstractMap<Pair<T, I>, V> implements Seri
 			}
 		};
 	}
+
+	/**
+	 * Performs the given operation on each entry, in the same order of
+	 * {@link #entrySet()}. Unlike {@link #entrySet()}, no {@link Pair} or
+	 * {@link Entry} instance is created.
+	 * 
+	 * @param consumer
+	 *            operation that receives the key and the value of the entry
+	 */
+	public void forEachEntry(final ObjObjObjConsumer<? super T, ? super I, ? super V> consumer) {
+		keys.forEachPair(new ObjObjConsumer<T, I>() {
+			int valueIndex = 0;
+
+			@Override
+			public void accept(T transaction, I item) {
+				consumer.accept(transaction, item, values.get(valueIndex++));
+			}
+		});
+	}
 }
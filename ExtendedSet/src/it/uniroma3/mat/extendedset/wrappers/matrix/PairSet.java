@@ -25,6 +25,9 @@ import it.uniroma3.mat.extendedset.intset.IntSet;
 import it.uniroma3.mat.extendedset.wrappers.IndexedSet;
 import it.uniroma3.mat.extendedset.wrappers.IntegerSet;
 import it.uniroma3.mat.extendedset.wrappers.matrix.BinaryMatrix.CellIterator;
+import it.uniroma3.mat.extendedset.utilities.IntIntConsumer;
+import it.uniroma3.mat.extendedset.utilities.ObjObjConsumer;
+import it.uniroma3.mat.extendedset.utilities.SizeOf;
 
 import java.io.Serializable;
 import java.util.*;
@@ -64,15 +67,41 @@ public class PairSet<T, I> extends AbstractExtendedSet<Pair<T, I>> implements Se
 	private final IndexedSet<I> allItems;
 	
 	/** maps a transaction to its index and returns -1 if not found */
-	private int transactionToIndex(T t) {
-		Integer r = allTransactions.absoluteIndexOf(t);
-		return r == null ? -1 : r;
+	int transactionToIndex(T t) {
+		return allTransactions.absoluteIndex(t);
 	}
 	
 	/** maps an item to its index and returns -1 if not found */
-	private int itemToIndex(I i) {
-		Integer r = allItems.absoluteIndexOf(i);
-		return r == null ? -1 : r;
+	int itemToIndex(I i) {
+		return allItems.absoluteIndex(i);
+	}
+
+	/**
+	 * Maps the given pairs to the corresponding cells of the matrix
+	 * 
+	 * @param pairs
+	 *            pairs sorted according to {@link #comparator()}, without
+	 *            duplicates
+	 * @return the rows and the columns of the cells
+	 * @throws IllegalArgumentException
+	 *             if a pair is not sorted or does not belong to the universe
+	 */
+	int[][] sortedIndices(Collection<? extends Pair<T, I>> pairs) {
+		final int[] rows = new int[pairs.size()];
+		final int[] cols = new int[pairs.size()];
+		int k = 0;
+		for (Pair<T, I> p : pairs) {
+			int r = transactionToIndex(p.transaction);
+			int c = itemToIndex(p.item);
+			if (r < 0 || c < 0)
+				throw new IllegalArgumentException("unknown pair: " + p);
+			if (k > 0 && (r < rows[k - 1] || (r == rows[k - 1] && c <= cols[k - 1])))
+				throw new IllegalArgumentException("unsorted pairs: " + p);
+			rows[k] = r;
+			cols[k] = c;
+			k++;
+		}
+		return new int[][] {rows, cols};
 	}
 
 	/** maps a pair of indices to the corresponding {@link Pair} */
@@ -213,10 +242,9 @@ public class PairSet<T, I> extends AbstractExtendedSet<Pair<T, I>> implements Se
 	 * @return a new {@link PairSet} instance, indexed by the given matrix
 	 */
 	public static PairSet<Integer, Integer> createFromBinaryMatrix(BinaryMatrix b) {
-		// TODO this is a little bit costly since PairSet will allocate an array
-		// and a HashMap of Integers to map elements of BinaryMatrix...
-		// Think about a IntegerPairSet class or to an "fake" IntegerIndexedSet
-		// just for this purpose.
+		// NOTE: this is a little bit costly since PairSet will allocate an
+		// array and a HashMap of Integers to map elements of BinaryMatrix.
+		// Use IntPairSet when transactions and items are plain integers.
 
 		IntegerSet t = new IntegerSet(b.emptyRow());
         t.intSet().add(b.maxRow() + 1);
@@ -699,7 +727,7 @@ public class PairSet<T, I> extends AbstractExtendedSet<Pair<T, I>> implements Se
 	 */
 	public IndexedSet<I> itemsOf(T transaction) {
 		IndexedSet<I> res = allItems.empty();
-		res.indices().addAll(matrix.getRow(transactionToIndex(transaction)));
+		res.indices().addAll(matrix.rowView(transactionToIndex(transaction)));
 		return res;
 	}
 
@@ -810,6 +838,15 @@ public class PairSet<T, I> extends AbstractExtendedSet<Pair<T, I>> implements Se
 		return matrix.collectionCompressionRatio();
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long sizeInBytes() {
+		// transactions and items are shared, hence they are not counted
+		return SizeOf.object(3 * SizeOf.REFERENCE) + matrix.sizeInBytes();
+	}
+
 	/**
 	 * Returns the set of indices. Modifications to this set are reflected to
 	 * this {@link PairSet} instance. Trying to perform operation on
@@ -822,6 +859,32 @@ public class PairSet<T, I> extends AbstractExtendedSet<Pair<T, I>> implements Se
 		return matrix;
 	}
 
+	/**
+	 * Performs the given operation on each transaction-item pair, in the same
+	 * order of {@link #iterator()}. Unlike {@link #iterator()}, no
+	 * {@link Pair} instance is created, and each transaction is looked up
+	 * only once.
+	 * 
+	 * @param consumer
+	 *            operation that receives the transaction and the item of the
+	 *            pair
+	 */
+	public void forEachPair(final ObjObjConsumer<? super T, ? super I> consumer) {
+		matrix.forEachCell(new IntIntConsumer() {
+			int lastRow = -1;
+			T transaction;
+
+			@Override
+			public void accept(int row, int col) {
+				if (row != lastRow) {
+					transaction = allTransactions.absoluteGet(row);
+					lastRow = row;
+				}
+				consumer.accept(transaction, allItems.absoluteGet(col));
+			}
+		});
+	}
+
 //	/**
 //	 * Extracts a subset represented by a certain range of transactions and
 //	 * items, according to the ordering provided by {@link #allTransactions()}
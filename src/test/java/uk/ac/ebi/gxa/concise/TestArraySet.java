@@ -0,0 +1,42 @@
+package uk.ac.ebi.gxa.concise;
+
+import it.uniroma3.mat.extendedset.intset.ArraySet;
+import it.uniroma3.mat.extendedset.intset.FastSet;
+import it.uniroma3.mat.extendedset.intset.IntSet;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class TestArraySet {
+    private static IntSet fill(IntSet s, Random rnd, int count, int max) {
+        for (int i = 0; i < count; i++)
+            s.add(rnd.nextInt(max));
+        return s;
+    }
+
+    @Test
+    public void testIntersection() {
+        Random rnd = new Random(42);
+        int[][] sizes = {{0, 10}, {5, 5}, {100, 100}, {1000, 1000}, {3, 10000}, {10, 100000}, {1000, 50}};
+        for (int[] s : sizes) {
+            for (int run = 0; run < 10; run++) {
+                ArraySet a = (ArraySet) fill(new ArraySet(), rnd, s[0], 20000);
+                ArraySet b = (ArraySet) fill(new ArraySet(), rnd, s[1], 20000);
+                FastSet fa = new FastSet();
+                fa.addAll(a);
+                FastSet fb = new FastSet();
+                fb.addAll(b);
+
+                FastSet expected = fa.intersection(fb);
+                assertEquals(expected.toString(), a.intersection(b).toString());
+                assertEquals(expected.size(), a.intersectionSize(b));
+                assertEquals(expected.size(), b.intersectionSize(a));
+                assertEquals(!expected.isEmpty(), a.containsAny(b) && !b.isEmpty());
+                if (!a.isEmpty() && !b.isEmpty())
+                    assertEquals(expected.size() >= 3, a.containsAtLeast(b, 3));
+            }
+        }
+    }
+}
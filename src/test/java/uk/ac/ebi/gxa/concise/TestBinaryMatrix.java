@@ -0,0 +1,467 @@
+package uk.ac.ebi.gxa.concise;
+
+import it.uniroma3.mat.extendedset.intset.ArraySet;
+import it.uniroma3.mat.extendedset.intset.ConciseSet;
+import it.uniroma3.mat.extendedset.intset.IntSet;
+import it.uniroma3.mat.extendedset.utilities.IntIntConsumer;
+import it.uniroma3.mat.extendedset.utilities.IntObjConsumer;
+import it.uniroma3.mat.extendedset.intset.FastSet;
+import it.uniroma3.mat.extendedset.intset.HashIntSet;
+import it.uniroma3.mat.extendedset.wrappers.IndexedSet;
+import it.uniroma3.mat.extendedset.wrappers.matrix.BinaryMatrix;
+import it.uniroma3.mat.extendedset.wrappers.matrix.FrequentItemsets;
+import it.uniroma3.mat.extendedset.wrappers.matrix.IntPairMap;
+import it.uniroma3.mat.extendedset.wrappers.matrix.MappedBinaryMatrix;
+import it.uniroma3.mat.extendedset.wrappers.matrix.PairSet;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestBinaryMatrix {
+    private static IntSet bruteForceCol(BinaryMatrix m, int col) {
+        IntSet res = new ConciseSet();
+        for (int row = 0; row <= m.maxRow(); row++)
+            if (m.contains(row, col))
+                res.add(row);
+        return res;
+    }
+
+    private static BinaryMatrix random(Random rnd, int rows, int cols, int cells) {
+        BinaryMatrix m = new BinaryMatrix(new ConciseSet());
+        for (int i = 0; i < cells; i++)
+            m.add(rnd.nextInt(rows), rnd.nextInt(cols));
+        return m;
+    }
+
+    private static void assertColumns(BinaryMatrix m) {
+        for (int col = 0; col <= m.maxCol() + 1; col++)
+            assertEquals(bruteForceCol(m, col), m.getCol(col));
+
+        BinaryMatrix t = m.transposed();
+        assertEquals(m.size(), t.size());
+        for (int row = 0; row <= m.maxRow(); row++)
+            assertEquals(m.getRow(row), t.getCol(row));
+    }
+
+    @Test
+    public void testColumnIndex() {
+        Random rnd = new Random(31);
+        BinaryMatrix m = new BinaryMatrix(new ConciseSet());
+        for (int i = 0; i < 500; i++)
+            m.add(rnd.nextInt(50), rnd.nextInt(80));
+        assertColumns(m);
+
+        // single-cell updates keep the index consistent
+        for (int i = 0; i < 500; i++) {
+            int row = rnd.nextInt(50);
+            int col = rnd.nextInt(100);
+            switch (rnd.nextInt(3)) {
+            case 0: m.add(row, col); break;
+            case 1: m.remove(row, col); break;
+            default: m.flip(row, col); break;
+            }
+        }
+        assertColumns(m);
+
+        // bulk updates discard it
+        m.clear(10, 10, 20, 40);
+        assertColumns(m);
+        m.addAll(new ConciseSet().convert(3, 7, 60), new ConciseSet().convert(1, 2, 90));
+        assertColumns(m);
+
+        // complemented() is read-only
+        BinaryMatrix copy = m.clone();
+        BinaryMatrix c = m.complemented();
+        assertEquals(copy, m);
+        assertColumns(m);
+        for (int row = 0; row <= m.maxRow(); row++)
+            for (int col = 0; col <= m.maxCol(); col++)
+                assertEquals(!m.contains(row, col), c.contains(row, col));
+
+        m.releaseColumnIndex();
+        m.clear();
+        assertEquals(new ConciseSet(), m.getCol(1));
+    }
+
+    @Test
+    public void testConcurrentColumnAccess() throws InterruptedException {
+        Random rnd = new Random(37);
+        final BinaryMatrix m = random(rnd, 200, 300, 5000);
+        final BinaryMatrix expected = m.clone().transposed();
+        final List<Throwable> errors = new ArrayList<Throwable>();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for (int col = 0; col <= m.maxCol(); col++)
+                            assertEquals(expected.getRow(col), m.getCol(col));
+                    } catch (Throwable e) {
+                        synchronized (errors) {
+                            errors.add(e);
+                        }
+                    }
+                }
+            };
+        }
+        for (Thread t : threads)
+            t.start();
+        for (Thread t : threads)
+            t.join();
+        assertEquals(new ArrayList<Throwable>(), errors);
+    }
+
+    @Test
+    public void testRowView() {
+        BinaryMatrix m = new BinaryMatrix(new ConciseSet());
+        m.add(0, 3);
+        m.add(0, 5);
+        m.add(2, 1);
+
+        IntSet view = m.rowView(0);
+        assertEquals(m.getRow(0), view);
+        assertEquals(2, view.intersectionSize(new ConciseSet().convert(3, 5, 7)));
+        assertEquals(2, new ConciseSet().convert(3, 5, 7).intersectionSize(view));
+        m.add(0, 7);
+        assertTrue(view.contains(7));
+        assertTrue(m.rowView(1).isEmpty());
+        assertTrue(m.rowView(10).isEmpty());
+        try {
+            view.add(10);
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+
+        final List<Integer> visited = new ArrayList<Integer>();
+        m.forEachRow(new IntObjConsumer<IntSet>() {
+            public void accept(int row, IntSet cols) {
+                visited.add(row);
+                assertEquals(m.getRow(row), cols);
+            }
+        });
+        assertEquals(2, visited.size());
+        assertEquals(Integer.valueOf(0), visited.get(0));
+        assertEquals(Integer.valueOf(2), visited.get(1));
+    }
+
+    @Test
+    public void testBulkConstruction() {
+        Random rnd = new Random(7);
+        int n = 2000;
+        int[] rows = new int[n];
+        int[] cols = new int[n];
+        BinaryMatrix expected = new BinaryMatrix(new ConciseSet());
+        for (int i = 0; i < n; i++) {
+            rows[i] = rnd.nextInt(100);
+            cols[i] = rnd.nextInt(300);
+            expected.add(rows[i], cols[i]);
+        }
+
+        BinaryMatrix m = BinaryMatrix.fromCells(new ConciseSet(), rows, cols);
+        assertEquals(expected, m);
+        assertEquals(expected.size(), m.size());
+
+        BinaryMatrix b = new BinaryMatrix.Builder(new ConciseSet(), expected.maxRow() + 1)
+                .addAll(expected.iterator())
+                .add(expected.maxRow(), expected.getRow(expected.maxRow()).last())
+                .build();
+        assertEquals(expected, b);
+
+        try {
+            new BinaryMatrix.Builder(new ConciseSet()).add(3, 1).add(2, 5);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        for (int[] cell : new int[][]{{-1, 0}, {-2, 0}, {0, -1}}) {
+            try {
+                new BinaryMatrix.Builder(new ConciseSet()).add(cell[0], cell[1]);
+                fail();
+            } catch (IndexOutOfBoundsException e) {
+                // expected
+            }
+            try {
+                BinaryMatrix.fromCells(new ConciseSet(), new int[]{cell[0]}, new int[]{cell[1]});
+                fail();
+            } catch (IndexOutOfBoundsException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testParallelOperations() {
+        Random rnd = new Random(11);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int run = 0; run < 20; run++) {
+                BinaryMatrix a = random(rnd, 1 + rnd.nextInt(300), 200, rnd.nextInt(3000));
+                BinaryMatrix b = random(rnd, 1 + rnd.nextInt(300), 200, rnd.nextInt(3000));
+                assertEquals(a.intersection(b), a.intersection(b, pool));
+                assertEquals(a.union(b), a.union(b, pool));
+                assertEquals(a.difference(b), a.difference(b, pool));
+                assertEquals(a.symmetricDifference(b).size(), a.symmetricDifference(b, pool).size());
+                assertEquals(a.intersectionSize(b), a.intersectionSize(b, pool));
+                assertEquals(a.containsAll(b), a.containsAll(b, pool));
+                assertTrue(a.containsAll(a.intersection(b), pool));
+            }
+            BinaryMatrix a = random(rnd, 100, 100, 1000);
+            BinaryMatrix b = a.clone();
+            b.add(50, 200);
+            assertFalse(a.containsAll(b, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testProducts() {
+        Random rnd = new Random(5);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            BinaryMatrix a = random(rnd, 60, 40, 300);
+            BinaryMatrix b = random(rnd, 45, 70, 300);
+
+            BinaryMatrix expected = new BinaryMatrix(new ConciseSet());
+            for (int i = 0; i <= a.maxRow(); i++)
+                for (int k = 0; k <= b.maxRow(); k++)
+                    if (a.contains(i, k))
+                        for (int j = 0; j <= b.maxCol(); j++)
+                            if (b.contains(k, j))
+                                expected.add(i, j);
+            assertEquals(expected, a.multiply(b));
+            assertEquals(expected, a.multiply(b, pool));
+
+            IntPairMap<Integer, Integer> counts = a.coOccurrenceCounts();
+            IntPairMap<Integer, Integer> frequent = a.coOccurrenceCounts(3);
+            int pairs = 0;
+            int frequentPairs = 0;
+            for (int j = 0; j <= a.maxCol(); j++) {
+                for (int k = 0; k <= a.maxCol(); k++) {
+                    int c = 0;
+                    for (int i = 0; i <= a.maxRow(); i++)
+                        if (a.contains(i, j) && a.contains(i, k))
+                            c++;
+                    assertEquals(c, counts.get(j, k));
+                    assertEquals(c >= 3 ? c : 0, frequent.get(j, k));
+                    pairs += c > 0 ? 1 : 0;
+                    frequentPairs += c >= 3 ? 1 : 0;
+                }
+            }
+            assertEquals(pairs, counts.size());
+            assertEquals(frequentPairs, frequent.size());
+            IntPairMap<Integer, Integer> parallel = a.coOccurrenceCounts(pool);
+            assertEquals(counts.keys().matrix(), parallel.keys().matrix());
+            assertTrue(Arrays.equals(counts.values(), parallel.values()));
+            parallel = a.coOccurrenceCounts(3, pool);
+            assertEquals(frequent.keys().matrix(), parallel.keys().matrix());
+            assertTrue(Arrays.equals(frequent.values(), parallel.values()));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        Random rnd = new Random(3);
+        for (IntSet template : new IntSet[]{new ConciseSet(), new ConciseSet(true), new FastSet(),
+                new ArraySet(), new HashIntSet()}) {
+            BinaryMatrix m = new BinaryMatrix(template);
+            for (int i = 0; i < 1000; i++)
+                m.add(rnd.nextInt(100), rnd.nextInt(100000));
+            m.remove(m.maxRow(), m.getRow(m.maxRow()).first());
+            m.getCol(0);
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream(bytes);
+            out.writeObject(m);
+            out.close();
+            BinaryMatrix copy = (BinaryMatrix) new ObjectInputStream(
+                    new ByteArrayInputStream(bytes.toByteArray())).readObject();
+            assertEquals(m, copy);
+            assertEquals(m.getCol(7), copy.getCol(7));
+            assertTrue(copy.rowView(1000).isEmpty());
+            assertEquals(template.getClass(), copy.emptyRow().getClass());
+        }
+    }
+
+    @Test
+    public void testMappedStorage() throws Exception {
+        Random rnd = new Random(13);
+        BinaryMatrix m = random(rnd, 300, 5000, 20000);
+        m.remove(5, m.getRow(5).first());
+        File f = File.createTempFile("matrix", ".bin");
+        f.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(f);
+        m.write(out);
+        out.close();
+
+        MappedBinaryMatrix mapped = new MappedBinaryMatrix(f);
+        try {
+            assertEquals(m.maxRow(), mapped.maxRow());
+            for (int row = 0; row <= m.maxRow() + 1; row++)
+                assertEquals(m.getRow(row), mapped.getRow(row));
+            int[] first = m.first();
+            assertTrue(mapped.contains(first[0], first[1]));
+            assertEquals(m, mapped.toBinaryMatrix(new FastSet()));
+        } finally {
+            mapped.close();
+        }
+
+        // empty matrix
+        out = new FileOutputStream(f);
+        new BinaryMatrix(new ConciseSet()).write(out);
+        out.close();
+        mapped = new MappedBinaryMatrix(f);
+        assertTrue(mapped.isEmpty());
+        assertTrue(mapped.getRow(0).isEmpty());
+        mapped.close();
+    }
+
+    @Test
+    public void testFrequentItemsets() {
+        Random rnd = new Random(61);
+        BinaryMatrix m = new BinaryMatrix(new ConciseSet());
+        for (int row = 0; row < 300; row++)
+            for (int k = 2 + rnd.nextInt(6); k > 0; k--)
+                m.add(row, (int) Math.sqrt(rnd.nextInt(400)));
+
+        // brute force: count all the subsets of each transaction
+        final int minSupport = 6;
+        Map<IntSet, Integer> counts = new HashMap<IntSet, Integer>();
+        for (int row = 0; row <= m.maxRow(); row++) {
+            Iterator<IntSet> itr = m.getRow(row).powerSetIterator();
+            while (itr.hasNext()) {
+                IntSet s = itr.next();
+                Integer c = counts.get(s);
+                counts.put(s, c == null ? 1 : c + 1);
+            }
+        }
+        Map<IntSet, Integer> expected = new HashMap<IntSet, Integer>();
+        Map<IntSet, Integer> expectedSmall = new HashMap<IntSet, Integer>();
+        for (Map.Entry<IntSet, Integer> e : counts.entrySet()) {
+            if (e.getValue() >= minSupport) {
+                expected.put(e.getKey(), e.getValue());
+                if (e.getKey().size() <= 2)
+                    expectedSmall.put(e.getKey(), e.getValue());
+            }
+        }
+        assertTrue(expected.size() > expectedSmall.size());
+
+        FrequentItemsets miner = new FrequentItemsets(m, minSupport);
+        assertEquals(expected, miner.mine());
+        miner.setDiffsets(true);
+        assertEquals(expected, miner.mine());
+        final Map<IntSet, Integer> parallel = new ConcurrentHashMap<IntSet, Integer>();
+        miner.mine(new IntObjConsumer<IntSet>() {
+            @Override
+            public void accept(int support, IntSet itemset) {
+                assertTrue(parallel.put(itemset, support) == null);
+            }
+        }, ForkJoinPool.commonPool());
+        assertEquals(expected, parallel);
+        miner.setMaxSize(2);
+        assertEquals(expectedSmall, miner.mine());
+
+        // transactions and items
+        PairSet<Integer, Integer> pairs = PairSet.createFromBinaryMatrix(m);
+        Map<IndexedSet<Integer>, Integer> itemsets = FrequentItemsets.mine(pairs, minSupport);
+        assertEquals(expected.size(), itemsets.size());
+        for (Map.Entry<IndexedSet<Integer>, Integer> e : itemsets.entrySet()) {
+            IntSet cols = new ConciseSet();
+            for (Integer col : e.getKey())
+                cols.add(col);
+            assertEquals(expected.get(cols), e.getValue());
+        }
+    }
+
+    @Test
+    public void testCellCursor() {
+        Random rnd = new Random(61);
+        BinaryMatrix m = random(rnd, 40, 60, 800);
+        final List<Integer> expected = new ArrayList<Integer>();
+        BinaryMatrix.CellIterator itr = m.iterator();
+        while (itr.hasNext()) {
+            int[] cell = itr.next();
+            expected.add(cell[0]);
+            expected.add(cell[1]);
+        }
+        assertEquals(2L * m.size(), (long) expected.size());
+
+        List<Integer> cursor = new ArrayList<Integer>();
+        itr = m.iterator();
+        while (itr.advance()) {
+            cursor.add(itr.row());
+            cursor.add(itr.col());
+        }
+        assertEquals(expected, cursor);
+        assertFalse(itr.advance());
+
+        final List<Integer> bulk = new ArrayList<Integer>();
+        m.forEachCell(new IntIntConsumer() {
+            @Override
+            public void accept(int row, int col) {
+                bulk.add(row);
+                bulk.add(col);
+            }
+        });
+        assertEquals(expected, bulk);
+
+        List<Integer> descending = new ArrayList<Integer>();
+        itr = m.descendingIterator();
+        while (itr.advance()) {
+            descending.add(0, itr.col());
+            descending.add(0, itr.row());
+        }
+        assertEquals(expected, descending);
+
+        itr = new BinaryMatrix(new ConciseSet()).iterator();
+        assertFalse(itr.advance());
+        try {
+            itr.row();
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        // implementations written before the cursor methods still work
+        final BinaryMatrix.CellIterator inner = m.iterator();
+        itr = new BinaryMatrix.CellIterator() {
+            @Override public boolean hasNext() {return inner.hasNext();}
+            @Override public int[] next() {return inner.next();}
+            @Override public void remove() {inner.remove();}
+            @Override public void skipAllBefore(int row, int col) {inner.skipAllBefore(row, col);}
+        };
+        int count = 0;
+        while (itr.advance())
+            count++;
+        assertEquals(m.size(), count);
+        try {
+            itr.row();
+            fail();
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+}
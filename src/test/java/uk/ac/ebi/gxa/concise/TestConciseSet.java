@@ -1,11 +1,24 @@
 package uk.ac.ebi.gxa.concise;
 
+import it.uniroma3.mat.extendedset.intset.ArraySet;
 import it.uniroma3.mat.extendedset.intset.ConciseSet;
+import it.uniroma3.mat.extendedset.intset.FastSet;
+import it.uniroma3.mat.extendedset.intset.HashIntSet;
+import it.uniroma3.mat.extendedset.intset.IntSet;
 import org.junit.Test;
 
 import java.io.*;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class TestConciseSet {
     @Test
@@ -34,4 +47,237 @@ public class TestConciseSet {
 
         assertEquals(cs, cs1);
     }
+
+    @Test
+    public void testSizeInBytes() {
+        ConciseSet cs = new ConciseSet();
+        long empty = cs.sizeInBytes();
+        assertTrue(empty > 0);
+
+        for (int i = 0; i < 10000; i += 100)
+            cs.add(i);
+        assertTrue(cs.sizeInBytes() > empty);
+        assertEquals(0L, cs.sizeInBytes() % 8);
+    }
+
+    @Test
+    public void testTrimToSize() {
+        ConciseSet cs = new ConciseSet();
+        for (int i = 0; i < 100000; i += 100)
+            cs.add(i);
+        ConciseSet copy = cs.clone();
+        long before = cs.sizeInBytes();
+
+        cs.trimToSize();
+        assertTrue(cs.sizeInBytes() <= before);
+        assertEquals(copy, cs);
+
+        cs.add(200000);
+        assertTrue(cs.contains(200000));
+    }
+
+    @Test
+    public void testRankIndex() {
+        Random rnd = new Random(19);
+        for (IntSet s : new IntSet[]{new ConciseSet(), new ConciseSet(true), new FastSet()}) {
+            // sparse bits, runs of ones, and runs of ones with a single hole
+            for (int i = 0; i < 300; i++)
+                s.add(rnd.nextInt(100000));
+            s.fill(20000, 25000);
+            s.fill(40000, 41000);
+            s.remove(40500);
+            s.add(90000);
+
+            int[] elements = s.toArray();
+            if (s instanceof ConciseSet)
+                ((ConciseSet) s).buildRankIndex();
+            else
+                ((FastSet) s).buildRankIndex();
+            for (int i = 0; i < elements.length; i++) {
+                assertEquals(elements[i], s.get(i));
+                assertEquals(i, s.indexOf(elements[i]));
+            }
+            for (int e = 0; e < 100100; e += 7)
+                if (!s.contains(e))
+                    assertEquals(-1, s.indexOf(e));
+
+            // the index is discarded after a modification
+            s.add(200000);
+            assertEquals(s.size() - 1, s.indexOf(200000));
+            assertEquals(200000, s.get(s.size() - 1));
+        }
+    }
+
+    @Test
+    public void testRangeViews() {
+        Random rnd = new Random(41);
+        IntSet[] sets = {new ConciseSet(), new FastSet(), new ArraySet(), new HashIntSet()};
+        for (IntSet s : sets) {
+            for (int i = 0; i < 500; i++)
+                s.add(rnd.nextInt(20000));
+            s.fill(5000, 6000);
+        }
+        IntSet other = new ConciseSet();
+        for (int i = 0; i < 500; i++)
+            other.add(rnd.nextInt(20000));
+        other.fill(5500, 5600);
+        IntSet otherArray = new ArraySet();
+        otherArray.addAll(other);
+
+        int[][] ranges = {{0, 20000}, {3, 4}, {4990, 5010}, {100, 7000}, {31, 65}, {19999, 30000}, {25000, 26000}, {7, 7},
+                {5550, Integer.MAX_VALUE}};
+        for (IntSet s : sets) {
+            for (int[] r : ranges) {
+                IntSet expected = s.empty();
+                for (int e : s.toArray())
+                    if (e >= r[0] && e < r[1])
+                        expected.add(e);
+                IntSet view = s.subSet(r[0], r[1]);
+                assertEquals(expected.size(), view.size());
+                assertEquals(expected.isEmpty(), view.isEmpty());
+                assertTrue(Arrays.equals(expected.toArray(), view.toArray()));
+                assertEquals(expected, view);
+                assertEquals(expected.intersection(other), view.intersection(other));
+                assertEquals(expected.union(other), view.union(other));
+                assertEquals(expected.difference(other), view.difference(other));
+                assertEquals(expected.intersectionSize(other), view.intersectionSize(other));
+                assertEquals(other.intersectionSize(expected), other.intersectionSize(view));
+                for (IntSet o : new IntSet[]{other, otherArray}) {
+                    assertTrue(Arrays.equals(expected.intersection(o).toArray(), view.intersection(o).toArray()));
+                    assertEquals(expected.intersectionSize(o), view.intersectionSize(o));
+                    assertEquals(expected.unionSize(o), view.unionSize(o));
+                    assertEquals(expected.differenceSize(o), view.differenceSize(o));
+                    assertEquals(expected.symmetricDifferenceSize(o), view.symmetricDifferenceSize(o));
+                    assertEquals(expected.containsAny(o), view.containsAny(o));
+                    assertEquals(expected.containsAtLeast(o, 3), view.containsAtLeast(o, 3));
+                    assertEquals(expected.containsAll(o), view.containsAll(o));
+                    assertEquals(o.containsAll(expected), o.containsAll(view));
+                }
+                assertTrue(view.containsAll(expected.subSet(r[0], (r[0] + r[1]) >>> 1)));
+                assertEquals(expected.complementSize(), view.complementSize());
+                for (int e = Math.max(0, r[0] - 3); e < r[0] + 3; e++)
+                    assertEquals(expected.contains(e), view.contains(e));
+                if (!expected.isEmpty()) {
+                    assertEquals(expected.first(), view.first());
+                    assertEquals(expected.last(), view.last());
+                    assertEquals(expected.last(), view.get(view.size() - 1));
+                    assertEquals(0, view.indexOf(expected.first()));
+                }
+                assertEquals(expected.size(), s.headSet(r[1]).size() - s.headSet(r[0]).size());
+                assertEquals(expected, s.tailSet(r[0]).headSet(r[1]));
+            }
+
+            // views reflect changes of the underlying set
+            IntSet view = s.subSet(30000, 30010);
+            assertTrue(view.isEmpty());
+            s.add(30005);
+            assertEquals(1, view.size());
+            assertTrue(view.contains(30005));
+            try {
+                view.add(30006);
+                fail();
+            } catch (UnsupportedOperationException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testRangeOperations() {
+        Random rnd = new Random(43);
+        for (boolean wah : new boolean[]{false, true}) {
+            ConciseSet a = new ConciseSet(wah);
+            ConciseSet b = new ConciseSet(wah);
+            for (int i = 0; i < 400; i++) {
+                a.add(rnd.nextInt(50000));
+                b.add(rnd.nextInt(50000));
+            }
+            // long sequences of 1's, with and without flipped bits
+            a.fill(1000, 9000);
+            a.remove(4000);
+            b.fill(3000, 12000);
+            b.fill(30000, 30100);
+            a.add(70000);
+
+            int[][] ranges = {{0, 100000}, {0, 1}, {31, 62}, {995, 1010}, {3000, 4000}, {3999, 4001},
+                    {8990, 9100}, {2000, 40000}, {60000, 80000}, {-5, 12}, {5, 5}, {0, 0}, {0, 0}, {0, 0}};
+            for (int i = ranges.length - 3; i < ranges.length; i++) {
+                int from = rnd.nextInt(70000);
+                ranges[i] = new int[]{from, from + rnd.nextInt(5000)};
+            }
+            for (int pass = 0; pass < 3; pass++) {
+                for (int[] r : ranges) {
+                    ConciseSet expected = new ConciseSet(wah);
+                    int expectedSize = 0;
+                    for (int e : a.toArray())
+                        if (e >= r[0] && e < r[1]) {
+                            expectedSize++;
+                            if (b.contains(e))
+                                expected.add(e);
+                        }
+                    assertEquals(expectedSize, a.rangeCardinality(r[0], r[1]));
+                    assertEquals(expected.size(), a.intersectionSize(b, r[0], r[1]));
+                    ConciseSet res = a.intersection(b, r[0], r[1]);
+                    assertEquals(expected, res);
+                    assertTrue(Arrays.equals(expected.toArray(), res.toArray()));
+                    assertEquals(expected.size(), res.size());
+                    assertEquals(a.subSet(r[0], r[1]), a.intersection(a, r[0], r[1]));
+                }
+                if (pass == 0)
+                    a.buildRankIndex();
+                else
+                    b.buildRankIndex();
+            }
+        }
+    }
+
+    @Test
+    public void testPowerSetIterator() {
+        IntSet[] sets = {new ConciseSet(), new ArraySet(), new FastSet()};
+        for (IntSet s : sets) {
+            s.addAll(new ConciseSet().convert(3, 5, 8, 13, 21, 34, 55, 89, 144));
+            for (int min = 1; min <= 10; min++) {
+                for (int max = min; max <= 11; max++) {
+                    List<? extends IntSet> expected = s.powerSet(min, max);
+                    List<IntSet> actual = new ArrayList<IntSet>();
+                    Iterator<IntSet> itr = s.powerSetIterator(min, max);
+                    while (itr.hasNext())
+                        actual.add(itr.next());
+                    assertEquals(expected, actual);
+
+                    actual.clear();
+                    itr = s.powerSetIterator(min, max, true);
+                    IntSet previous = null;
+                    while (itr.hasNext()) {
+                        IntSet x = itr.next();
+                        assertTrue(previous == null || previous == x);
+                        actual.add((previous = x).clone());
+                    }
+                    assertEquals(expected, actual);
+
+                    assertEquals(expected, s.powerSetStream(min, max).collect(Collectors.toList()));
+                    assertEquals(expected, s.powerSetStream(min, max).parallel().collect(Collectors.toList()));
+                    assertEquals(expected.size(), s.powerSetSize(min, max));
+                    assertEquals(BigInteger.valueOf(expected.size()), s.powerSetBigSize(min, max));
+                }
+            }
+            assertEquals(s.powerSet(), s.powerSetStream().parallel().collect(Collectors.toList()));
+            assertEquals(511, s.powerSetSize());
+        }
+
+        // sizes that do not fit an int, or a long
+        IntSet big = new ConciseSet();
+        for (int i = 0; i < 100; i++)
+            big.add(i * 3);
+        assertEquals(Integer.MAX_VALUE, big.powerSetSize());
+        assertEquals(BigInteger.ONE.shiftLeft(100).subtract(BigInteger.ONE), big.powerSetBigSize());
+        assertEquals(BigInteger.valueOf(4950 + 161700), big.powerSetBigSize(2, 3));
+        assertEquals(4950L + 161700L, big.powerSetStream(2, 3).parallel().count());
+        List<IntSet> first = big.powerSetStream().limit(101).collect(Collectors.toList());
+        assertEquals(new ConciseSet().convert(0), first.get(0));
+        assertEquals(new ConciseSet().convert(0, 3), first.get(100));
+        IntSet last = big.powerSetStream(99, 100).skip(100).findFirst().get();
+        assertEquals(big, last);
+        assertEquals(0L, new ConciseSet().powerSetStream().count());
+    }
 }
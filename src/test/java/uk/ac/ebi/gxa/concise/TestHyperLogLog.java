@@ -0,0 +1,91 @@
+package uk.ac.ebi.gxa.concise;
+
+import it.uniroma3.mat.extendedset.intset.ConciseSet;
+import it.uniroma3.mat.extendedset.intset.IntSet;
+import it.uniroma3.mat.extendedset.utilities.HyperLogLog;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestHyperLogLog {
+    @Test
+    public void testCardinality() {
+        Random rnd = new Random(53);
+        HyperLogLog h = new HyperLogLog();
+        IntSet s = new ConciseSet();
+        for (int i = 0; i < 4096; i++) {
+            int x = rnd.nextInt(100000);
+            h.add(x);
+            s.add(x);
+        }
+        assertTrue(h.isExact());
+        assertEquals((long) s.size(), h.cardinality());
+        assertEquals((long) s.size(), new HyperLogLog(s).cardinality());
+
+        for (int n : new int[]{5000, 20000, 100000, 1000000}) {
+            s = new ConciseSet();
+            for (int i = 0, x = 0; i < n; i++)
+                s.add(x += 1 + rnd.nextInt(500));
+            h = new HyperLogLog(s);
+            assertFalse(h.isExact());
+            assertEquals(n, h.cardinality(), 0.03 * n);
+        }
+
+        try {
+            new HyperLogLog(3);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testUnion() {
+        Random rnd = new Random(59);
+        List<IntSet> sets = new ArrayList<IntSet>();
+        List<HyperLogLog> sketches = new ArrayList<HyperLogLog>();
+        IntSet union = new ConciseSet();
+        HyperLogLog merged = new HyperLogLog();
+        HyperLogLog small = new HyperLogLog();
+        for (int i = 0; i < 200; i++) {
+            IntSet s = new ConciseSet();
+            for (int k = rnd.nextInt(2000); k > 0; k--)
+                s.add(rnd.nextInt(200000));
+            sets.add(s);
+            union.addAll(s);
+            sketches.add(new HyperLogLog(s));
+            merged.addAll(sketches.get(i));
+            if (i < 3) {
+                small.addAll(new HyperLogLog(s));
+                assertTrue(small.isExact());
+                assertEquals((long) sets.get(0).union(sets.get(i)).union(sets.get(i / 2)).size(), small.cardinality());
+            }
+        }
+        assertEquals(union.size(), HyperLogLog.unionSize(sets), 0.03 * union.size());
+        assertEquals(HyperLogLog.unionSize(sets), merged.cardinality());
+        assertEquals(merged.cardinality(), HyperLogLog.merge(sketches).cardinality());
+        assertEquals((long) sets.get(0).size(), HyperLogLog.merge(sketches.subList(0, 1)).cardinality());
+        assertEquals(0L, HyperLogLog.merge(new ArrayList<HyperLogLog>()).cardinality());
+        try {
+            HyperLogLog.merge(Arrays.asList(merged, new HyperLogLog(10)));
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        HyperLogLog c = merged.clone();
+        c.addAll(small);
+        assertEquals(merged.cardinality(), c.cardinality());
+        c.clear();
+        assertEquals(0L, c.cardinality());
+        assertTrue(c.isExact());
+    }
+}
@@ -0,0 +1,132 @@
+package uk.ac.ebi.gxa.concise;
+
+import it.uniroma3.mat.extendedset.intset.ConciseSet;
+import it.uniroma3.mat.extendedset.wrappers.IndexedSet;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestIndexedSet {
+    private static List<String> universe() {
+        Random rnd = new Random(37);
+        List<String> res = new ArrayList<String>();
+        for (int i = 0; i < 20000; i++)
+            res.add(Long.toString(rnd.nextLong(), 36));
+        // strings with the same hash code
+        res.addAll(Arrays.asList("Aa", "BB", "AaAa", "AaBB", "BBAa", "BBBB"));
+        return res;
+    }
+
+    @Test
+    public void testUniverseMapping() throws Exception {
+        List<String> universe = universe();
+        for (boolean perfect : new boolean[]{false, true}) {
+            IndexedSet<String> s = new IndexedSet<String>(new ConciseSet(), universe, perfect);
+            for (int i = 0; i < universe.size(); i++) {
+                assertEquals(i, s.absoluteIndex(universe.get(i)));
+                assertEquals(universe.get(i), s.absoluteGet(i));
+            }
+            assertEquals(-1, s.absoluteIndex("not in the universe"));
+            assertNull(s.absoluteIndexOf("not in the universe"));
+
+            s.add("BB");
+            s.add("AaAa");
+            assertTrue(s.contains("BB"));
+            assertFalse(s.contains("Aa"));
+            assertFalse(s.contains("not in the universe"));
+            try {
+                s.add("not in the universe");
+                fail();
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+
+            List<String> some = universe.subList(100, 200);
+            IndexedSet<String> c = s.convert(some);
+            assertEquals(100, c.size());
+            assertEquals(c.indices(), s.indicesOf(some));
+            assertTrue(c.containsAll(some));
+            assertEquals(0, c.indexOf(universe.get(100)));
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            ObjectOutputStream out = new ObjectOutputStream(bytes);
+            out.writeObject(s);
+            out.close();
+            @SuppressWarnings("unchecked")
+            IndexedSet<String> copy = (IndexedSet<String>) new ObjectInputStream(
+                    new ByteArrayInputStream(bytes.toByteArray())).readObject();
+            assertEquals(s.indices(), copy.indices());
+            assertTrue(copy.contains("AaAa"));
+            assertEquals(universe.size() - 1, copy.absoluteIndex("BBBB"));
+        }
+    }
+
+    @Test
+    public void testSharedUniverse() {
+        List<String> universe = universe();
+        IndexedSet.Universe<String> u = new IndexedSet.Universe<String>(universe);
+        IndexedSet<String> a = new IndexedSet<String>(new ConciseSet(), u);
+        IndexedSet<String> b = new IndexedSet<String>(new ConciseSet(), u);
+        a.addAll(universe.subList(0, 1000));
+        b.addAll(universe.subList(500, 1500));
+        assertEquals(500, a.intersectionSize(b));
+        assertTrue(a.getUniverse() == b.empty().getUniverse());
+        assertEquals(universe.size(), u.size());
+        assertEquals(7, u.indexOf(universe.get(7)));
+
+        // foreign collections are converted at each operation
+        Set<String> foreign = new HashSet<String>(universe.subList(900, 1200));
+        assertEquals(100, a.intersectionSize(foreign));
+        foreign.remove(universe.get(950));
+        foreign.add(universe.get(5000));
+        assertEquals(99, a.intersectionSize(foreign));
+
+        // modifications that preserve size and hash code
+        IndexedSet<Integer> s = new IndexedSet<Integer>(new ConciseSet(),
+                Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+        s.addAll(Arrays.asList(1, 2, 3));
+        Set<Integer> h = new HashSet<Integer>(Arrays.asList(1, 4));
+        assertEquals(Arrays.asList(1), new ArrayList<Integer>(s.intersection(h)));
+        h.clear();
+        h.add(2);
+        h.add(3);
+        assertEquals(Arrays.asList(2, 3), new ArrayList<Integer>(s.intersection(h)));
+        assertTrue(s.containsAll(h));
+
+        // registered collections, converted once
+        foreign = new HashSet<String>(universe.subList(900, 1200));
+        u.register(foreign);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(100, a.intersectionSize(foreign));
+            assertEquals(1200, a.union(foreign).size());
+        }
+        IndexedSet<String> converted = a.convert(foreign);
+        converted.clear();
+        assertEquals(100, a.intersectionSize(foreign));
+        foreign.remove(universe.get(950));
+        foreign.add(universe.get(5000));
+        u.register(foreign);
+        assertEquals(99, a.intersectionSize(foreign));
+        u.forget(foreign);
+        foreign.add(universe.get(1));
+        assertEquals(100, a.intersectionSize(foreign));
+        u.clearCache();
+        assertEquals(100, a.intersectionSize(foreign));
+        assertTrue(a.containsAll(a.unmodifiable()));
+    }
+}
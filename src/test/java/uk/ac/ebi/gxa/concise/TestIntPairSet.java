@@ -0,0 +1,91 @@
+package uk.ac.ebi.gxa.concise;
+
+import it.uniroma3.mat.extendedset.intset.ConciseSet;
+import it.uniroma3.mat.extendedset.utilities.IntIntConsumer;
+import it.uniroma3.mat.extendedset.wrappers.matrix.IntPairSet;
+import it.uniroma3.mat.extendedset.wrappers.matrix.Pair;
+import it.uniroma3.mat.extendedset.wrappers.matrix.PairSet;
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestIntPairSet {
+    @Test
+    public void testAgainstPairSet() {
+        Random rnd = new Random(17);
+        IntPairSet a = new IntPairSet(new ConciseSet());
+        IntPairSet b = new IntPairSet(new ConciseSet());
+        for (int i = 0; i < 1000; i++) {
+            a.add(rnd.nextInt(100), rnd.nextInt(200));
+            b.add(rnd.nextInt(100), rnd.nextInt(200));
+        }
+
+        PairSet<Integer, Integer> p = a.toPairSet();
+        assertEquals(a.size(), p.size());
+        IntPairSet.IntPairIterator itr = a.iterator();
+        for (Pair<Integer, Integer> pair : p) {
+            assertTrue(itr.hasNext());
+            itr.next();
+            assertEquals(pair.transaction.intValue(), itr.transaction());
+            assertEquals(pair.item.intValue(), itr.item());
+        }
+        assertFalse(itr.hasNext());
+        try {
+            itr.next();
+            fail();
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+        try {
+            b.iterator().item();
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+
+        final IntPairSet.IntPairIterator expected = a.iterator();
+        a.forEachPair(new IntIntConsumer() {
+            @Override
+            public void accept(int transaction, int item) {
+                expected.next();
+                assertEquals(expected.transaction(), transaction);
+                assertEquals(expected.item(), item);
+            }
+        });
+        assertFalse(expected.hasNext());
+
+        IntPairSet i = a.intersection(b);
+        assertEquals(i.size(), a.intersectionSize(b));
+        assertEquals(a.union(b).size(), a.unionSize(b));
+        assertEquals(a.difference(b).size(), a.differenceSize(b));
+        assertTrue(a.containsAll(i));
+        IntPairSet c = a.clone();
+        c.retainAll(b);
+        assertEquals(i, c);
+
+        itr = i.iterator();
+        while (itr.hasNext()) {
+            itr.next();
+            assertTrue(a.contains(itr.transaction(), itr.item()));
+            assertTrue(a.itemsOf(itr.transaction()).contains(itr.item()));
+            assertTrue(b.transactionsOf(itr.item()).contains(itr.transaction()));
+        }
+    }
+
+    @Test
+    public void testToString() {
+        IntPairSet s = new IntPairSet(new ConciseSet());
+        s.add(2, 5);
+        s.add(0, 1);
+        s.flip(0, 3);
+        assertEquals("[(0, 1), (0, 3), (2, 5)]", s.toString());
+        assertTrue(s.remove(0, 3));
+        assertFalse(s.contains(0, 3));
+    }
+}
@@ -0,0 +1,138 @@
+package uk.ac.ebi.gxa.concise;
+
+import it.uniroma3.mat.extendedset.intset.ArraySet;
+import it.uniroma3.mat.extendedset.intset.ConciseSet;
+import it.uniroma3.mat.extendedset.intset.FastSet;
+import it.uniroma3.mat.extendedset.intset.IntSet;
+import it.uniroma3.mat.extendedset.utilities.IntSetMetrics;
+import it.uniroma3.mat.extendedset.utilities.IntSetMetrics.Operation;
+import it.uniroma3.mat.extendedset.utilities.IntSetStatistics;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestIntSetMetrics {
+    @Test
+    public void testRecording() {
+        IntSetMetrics.reset();
+        ConciseSet a = new ConciseSet().convert(1, 2, 3, 100, 1000);
+        ConciseSet b = new ConciseSet().convert(2, 3, 4, 1000);
+
+        IntSetMetrics.setEnabled(false);
+        a.intersection(b);
+        assertEquals(0L, IntSetMetrics.getCount(Operation.INTERSECTION));
+
+        final AtomicInteger notified = new AtomicInteger();
+        IntSetMetrics.Listener listener = new IntSetMetrics.Listener() {
+            public void operationRecorded(Operation operation, long nanos, int leftSize, int rightSize, long allocatedBytes) {
+                notified.incrementAndGet();
+            }
+        };
+        IntSetMetrics.addListener(listener);
+        IntSetMetrics.setEnabled(true);
+        try {
+            a.intersection(b);
+            a.union(b);
+            a.intersectionSize(b);
+            assertEquals(1L, IntSetMetrics.getCount(Operation.INTERSECTION));
+            assertEquals(1L, IntSetMetrics.getCount(Operation.UNION));
+            assertEquals(1L, IntSetMetrics.getCount(Operation.INTERSECTION_SIZE));
+            assertTrue(IntSetMetrics.getAllocatedBytes(Operation.UNION) > 0);
+            assertEquals(3, notified.get());
+
+            long[] sizes = IntSetMetrics.getOperandSizeHistogram(Operation.INTERSECTION);
+            assertEquals(1L, sizes[3]); // 5 elements
+
+            // wrapped ConciseSet operations are not recorded twice
+            IntSet w = new IntSetStatistics(a);
+            w.intersection(b);
+            assertEquals(2L, IntSetMetrics.getCount(Operation.INTERSECTION));
+            assertEquals(2L, IntSetStatistics.getIntersectionCount());
+
+            IntSet f = new IntSetStatistics(new FastSet());
+            f.addAll(b);
+            f.intersection(b);
+            assertEquals(3L, IntSetMetrics.getCount(Operation.INTERSECTION));
+        } finally {
+            IntSetMetrics.setEnabled(false);
+            IntSetMetrics.removeListener(listener);
+            IntSetMetrics.reset();
+        }
+    }
+
+    @Test
+    public void testStatisticsWhenDisabled() {
+        IntSetMetrics.reset();
+        IntSetMetrics.setEnabled(false);
+        try {
+            IntSet b = new ConciseSet().convert(2, 3, 4, 1000);
+            IntSet w = new IntSetStatistics(new ConciseSet().convert(1, 2, 3));
+            w.intersection(b);
+            w.union(b);
+            IntSet f = new IntSetStatistics(new FastSet());
+            f.addAll(b);
+            f.intersection(b);
+            assertEquals(2L, IntSetStatistics.getIntersectionCount());
+            assertEquals(2L, IntSetStatistics.getUnionCount());
+
+            // calls are counted, but not timed
+            assertEquals(0L, IntSetMetrics.getTotalNanos(Operation.INTERSECTION));
+            long[] latency = IntSetMetrics.getLatencyHistogram(Operation.INTERSECTION);
+            for (long l : latency)
+                assertEquals(0L, l);
+
+            // only explicitly wrapped sets are recorded
+            ((ConciseSet) IntSetStatistics.extractContainer(w)).intersection(b);
+            assertEquals(2L, IntSetStatistics.getIntersectionCount());
+        } finally {
+            IntSetMetrics.reset();
+        }
+    }
+
+    @Test
+    public void testOperandsNotModified() {
+        IntSetMetrics.reset();
+        final int[] leftSize = new int[1];
+        IntSetMetrics.Listener listener = new IntSetMetrics.Listener() {
+            public void operationRecorded(Operation operation, long nanos, int left, int right, long allocatedBytes) {
+                leftSize[0] = left;
+            }
+        };
+        IntSetMetrics.addListener(listener);
+        IntSetMetrics.setEnabled(true);
+        try {
+            ConciseSet b = new ConciseSet().convert(2, 3, 4, 1000);
+            ConciseSet a = b.union(new ConciseSet().convert(5, 6));
+            a.intersection(b);
+            // the size of the union has not been computed yet
+            assertEquals(-1, leftSize[0]);
+            assertEquals(6, a.size());
+            a.intersection(b);
+            assertEquals(6, leftSize[0]);
+
+            // wrappers only use the cardinalities that are already known
+            ConciseSet c = b.union(new ConciseSet().convert(7));
+            new IntSetStatistics(c).containsAll(b);
+            assertEquals(-1, leftSize[0]);
+            new IntSetStatistics(new ArraySet().convert(1, 2, 3)).containsAll(b);
+            assertEquals(3, leftSize[0]);
+            assertEquals(5, c.size());
+        } finally {
+            IntSetMetrics.setEnabled(false);
+            IntSetMetrics.removeListener(listener);
+            IntSetMetrics.reset();
+        }
+    }
+
+    @Test
+    public void testMBean() throws Exception {
+        IntSetMetrics.registerMBean();
+        IntSetMetrics.registerMBean();
+        javax.management.ObjectName name = new javax.management.ObjectName(IntSetMetrics.OBJECT_NAME);
+        assertTrue(java.lang.management.ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+        IntSetMetrics.unregisterMBean();
+    }
+}
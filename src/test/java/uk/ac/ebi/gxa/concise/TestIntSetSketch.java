@@ -0,0 +1,86 @@
+package uk.ac.ebi.gxa.concise;
+
+import it.uniroma3.mat.extendedset.intset.ArraySet;
+import it.uniroma3.mat.extendedset.intset.ConciseSet;
+import it.uniroma3.mat.extendedset.intset.IntSet;
+import it.uniroma3.mat.extendedset.utilities.IntSetSketch;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestIntSetSketch {
+    @Test
+    public void testEstimates() {
+        Random rnd = new Random(43);
+        for (int t = 0; t < 20; t++) {
+            IntSet a = new ConciseSet();
+            IntSet b = new ConciseSet();
+            int shared = rnd.nextInt(2000);
+            for (int i = 0; i < shared; i++) {
+                int x = rnd.nextInt(1000000);
+                a.add(x);
+                b.add(x);
+            }
+            for (int i = rnd.nextInt(2000); i > 0; i--)
+                a.add(rnd.nextInt(1000000));
+            for (int i = rnd.nextInt(2000); i > 0; i--)
+                b.add(rnd.nextInt(1000000));
+            if (a.isEmpty() || b.isEmpty())
+                continue;
+
+            double j = a.jaccardSimilarity(b);
+            IntSetSketch sa = new IntSetSketch(a, 1024);
+            IntSetSketch sb = new IntSetSketch(b, 1024);
+            assertEquals(a.size(), sa.size());
+            assertEquals(j, sa.jaccardSimilarity(sb), 0.07);
+            assertEquals(a.union(b).size(), sa.unionSize(sb), 0.07 * a.union(b).size());
+            assertEquals(a.intersectionSize(b), sa.intersectionSize(sb), 0.07 * a.union(b).size());
+            assertEquals((double) a.intersectionSize(b) / a.size(), sa.containment(sb),
+                    0.07 * a.union(b).size() / a.size());
+
+            IntSetSketch ba = new IntSetSketch(a, 2048, 4, 17);
+            IntSetSketch bb = new IntSetSketch(new ArraySet().convert(b.toArray()), 2048, 4, 17);
+            assertEquals(j, ba.jaccardSimilarity(bb), 0.07);
+            assertTrue(ba.sizeInBytes() < sa.sizeInBytes());
+        }
+
+        IntSet a = new ConciseSet().convert(1, 2, 3);
+        assertEquals(1D, new IntSetSketch(a).jaccardSimilarity(new IntSetSketch(a.clone())), 0D);
+        assertEquals(0D, new IntSetSketch(a).jaccardSimilarity(new IntSetSketch(new ConciseSet())), 0D);
+        try {
+            new IntSetSketch(a, 64).jaccardSimilarity(new IntSetSketch(a, 128));
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testLsh() {
+        Random rnd = new Random(47);
+        List<IntSet> sets = new ArrayList<IntSet>();
+        IntSetSketch.LshIndex lsh = new IntSetSketch.LshIndex(16, 4, new ConciseSet());
+        for (int i = 0; i < 500; i++) {
+            IntSet s = new ConciseSet();
+            for (int k = 0; k < 200; k++)
+                s.add(rnd.nextInt(100000));
+            sets.add(s);
+            lsh.add(i, new IntSetSketch(s, 64));
+        }
+        for (int i = 0; i < sets.size(); i += 10) {
+            // a near duplicate is almost always a candidate, unrelated sets rarely are
+            IntSet q = sets.get(i).clone();
+            for (int k = 0; k < 10; k++)
+                q.add(rnd.nextInt(100000));
+            IntSet candidates = lsh.candidates(new IntSetSketch(q, 64));
+            assertTrue(candidates.contains(i));
+            assertTrue(candidates.size() < 10);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package uk.ac.ebi.gxa.concise;
+
+import it.uniroma3.mat.extendedset.intset.ArraySet;
+import it.uniroma3.mat.extendedset.intset.ConciseSet;
+import it.uniroma3.mat.extendedset.intset.IntSet;
+import it.uniroma3.mat.extendedset.wrappers.IndexedSet;
+import it.uniroma3.mat.extendedset.wrappers.IntegerSet;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestIntegerSet {
+    @Test
+    public void testUnboxedOperands() {
+        Random rnd = new Random(47);
+        for (IntSet template : new IntSet[]{new ConciseSet(), new ArraySet()}) {
+            IntegerSet s = new IntegerSet(template.empty());
+            TreeSet<Integer> expected = new TreeSet<Integer>();
+            int[] a = new int[300];
+            for (int i = 0; i < a.length; i++) {
+                a[i] = rnd.nextInt(2000);
+                expected.add(a[i]);
+            }
+            assertTrue(s.addAll(a));
+            assertFalse(s.addAll(a));
+            assertEquals(expected, s);
+            assertTrue(s.containsAll(a));
+
+            // a list with duplicates, in random order
+            List<Integer> list = new ArrayList<Integer>();
+            for (int i = 0; i < 200; i++)
+                list.add(rnd.nextInt(3000));
+            TreeSet<Integer> inter = new TreeSet<Integer>(expected);
+            inter.retainAll(list);
+
+            List<Integer> universe = new ArrayList<Integer>();
+            for (int i = 3000; i >= 0; i--)
+                universe.add(i);
+            IndexedSet<Integer> indexed = new IndexedSet<Integer>(new ConciseSet(), universe);
+            indexed.addAll(list);
+
+            int[] listArray = new int[list.size()];
+            for (int i = 0; i < listArray.length; i++)
+                listArray[i] = list.get(i);
+            IntegerSet other = s.convert(listArray);
+            assertEquals(other, s.convert(IntStream.of(listArray)));
+            assertEquals(other, s.convert(list));
+
+            for (Collection<Integer> c : Arrays.<Collection<Integer>>asList(
+                    list, other, other.unmodifiable(), other.headSet(4000), indexed)) {
+                assertEquals(inter, s.intersection(c));
+                assertEquals(inter.size(), s.intersectionSize(c));
+                assertEquals(!inter.isEmpty(), s.containsAny(c));
+                assertEquals(s.size() + other.size() - inter.size(), s.unionSize(c));
+            }
+            assertEquals(inter, s.intersection(listArray));
+            assertEquals(inter.size(), s.intersectionSize(listArray));
+            assertEquals(s.difference(list), s.difference(listArray));
+            assertEquals(s.union(list), s.union(listArray));
+
+            IntegerSet c = s.clone();
+            assertEquals(!inter.isEmpty(), c.removeAll(listArray));
+            assertEquals(expected.size() - inter.size(), c.size());
+            c = s.clone();
+            c.retainAll(listArray);
+            assertEquals(inter, c);
+            assertEquals(s.size(), s.unmodifiable().union(s.convert(new int[0])).size());
+        }
+    }
+}
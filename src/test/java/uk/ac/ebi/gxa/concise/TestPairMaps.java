@@ -0,0 +1,166 @@
+package uk.ac.ebi.gxa.concise;
+
+import it.uniroma3.mat.extendedset.intset.ConciseSet;
+import it.uniroma3.mat.extendedset.utilities.ObjObjConsumer;
+import it.uniroma3.mat.extendedset.utilities.ObjObjObjConsumer;
+import it.uniroma3.mat.extendedset.wrappers.matrix.BinaryMatrix;
+import it.uniroma3.mat.extendedset.wrappers.matrix.DoublePairMap;
+import it.uniroma3.mat.extendedset.wrappers.matrix.IntPairMap;
+import it.uniroma3.mat.extendedset.wrappers.matrix.Pair;
+import it.uniroma3.mat.extendedset.wrappers.matrix.PairMap;
+import it.uniroma3.mat.extendedset.wrappers.matrix.PairSet;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestPairMaps {
+    private static PairSet<String, String> keys(int transactions, int items) {
+        List<String> t = new ArrayList<String>();
+        for (int i = 0; i < transactions; i++)
+            t.add("t" + i);
+        List<String> it = new ArrayList<String>();
+        for (int i = 0; i < items; i++)
+            it.add("i" + i);
+        return new PairSet<String, String>(new BinaryMatrix(new ConciseSet()), t, it);
+    }
+
+    @Test
+    public void testIntPairMap() {
+        Random rnd = new Random(23);
+        IntPairMap<String, String> m = new IntPairMap<String, String>(keys(30, 40));
+        Map<Pair<String, String>, Integer> expected = new HashMap<Pair<String, String>, Integer>();
+        for (int k = 0; k < 3000; k++) {
+            String t = "t" + rnd.nextInt(30);
+            String i = "i" + rnd.nextInt(40);
+            Pair<String, String> p = new Pair<String, String>(t, i);
+            Integer old = expected.get(p);
+            int v = rnd.nextInt(1000);
+            switch (rnd.nextInt(4)) {
+            case 0:
+                assertEquals(old == null ? 0 : old.intValue(), m.remove(t, i));
+                expected.remove(p);
+                break;
+            case 1:
+                assertEquals((old == null ? 0 : old) + v, m.increment(t, i, v));
+                expected.put(p, (old == null ? 0 : old) + v);
+                break;
+            default:
+                assertEquals(old == null ? 0 : old.intValue(), m.put(t, i, v));
+                expected.put(p, v);
+            }
+        }
+        assertEquals(expected.size(), m.size());
+        for (Map.Entry<Pair<String, String>, Integer> e : expected.entrySet())
+            assertEquals(e.getValue().intValue(), m.get(e.getKey().transaction, e.getKey().item));
+        assertFalse(m.containsKey("t0", "unknown"));
+        assertEquals(-1, m.getOrDefault("t0", "unknown", -1));
+
+        IntPairMap<String, String> c = m.clone();
+        assertEquals(m, c);
+        assertEquals(m.hashCode(), c.hashCode());
+        c.put("t0", "i0", -5);
+        assertEquals(-5, c.get("t0", "i0"));
+        m.clear();
+        assertTrue(m.isEmpty());
+        assertEquals(0, m.get("t0", "i0"));
+    }
+
+    @Test
+    public void testPutAll() {
+        Random rnd = new Random(29);
+        PairSet<String, String> keys = keys(20, 20);
+        DoublePairMap<String, String> m = new DoublePairMap<String, String>(keys);
+        for (int k = 0; k < 100; k++)
+            m.put("t" + rnd.nextInt(20), "i" + rnd.nextInt(20), rnd.nextDouble());
+
+        // sorted by pair index, namely by transaction and then by item
+        TreeMap<Pair<String, String>, Double> batch = new TreeMap<Pair<String, String>, Double>(keys.comparator());
+        for (int k = 0; k < 100; k++)
+            batch.put(new Pair<String, String>("t" + rnd.nextInt(20), "i" + rnd.nextInt(20)), rnd.nextDouble());
+        double[] values = new double[batch.size()];
+        int k = 0;
+        for (double v : batch.values())
+            values[k++] = v;
+
+        DoublePairMap<String, String> expected = m.clone();
+        for (Map.Entry<Pair<String, String>, Double> e : batch.entrySet())
+            expected.put(e.getKey().transaction, e.getKey().item, e.getValue());
+        m.putAll(batch.keySet(), values);
+        assertEquals(expected, m);
+        assertTrue(Arrays.equals(expected.values(), m.values()));
+        m.remove("t3", "i3");
+        assertEquals(expected.size() - (expected.containsKey("t3", "i3") ? 1 : 0), m.size());
+
+        List<Pair<String, String>> unsorted = new ArrayList<Pair<String, String>>(batch.keySet());
+        java.util.Collections.reverse(unsorted);
+        try {
+            m.putAll(unsorted, values);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testPairMap() {
+        Random rnd = new Random(31);
+        PairSet<String, String> keys = keys(50, 50);
+        PairMap<String, String, Integer> m = new PairMap<String, String, Integer>(keys);
+        Map<Pair<String, String>, Integer> expected = new HashMap<Pair<String, String>, Integer>();
+        for (int k = 0; k < 2000; k++) {
+            Pair<String, String> p = new Pair<String, String>("t" + rnd.nextInt(50), "i" + rnd.nextInt(50));
+            if (rnd.nextInt(3) == 0) {
+                assertEquals(expected.remove(p), m.remove(p));
+            } else {
+                Integer v = rnd.nextInt();
+                assertEquals(expected.put(p, v), m.put(p, v));
+            }
+        }
+        keys.matrix().buildRankIndex();
+        assertEquals(expected.size(), m.size());
+        for (Map.Entry<Pair<String, String>, Integer> e : expected.entrySet())
+            assertEquals(e.getValue(), m.get(e.getKey()));
+        assertEquals(null, m.get(new Pair<String, String>("t0", "unknown")));
+    }
+
+    @Test
+    public void testForEachEntry() {
+        Random rnd = new Random(67);
+        PairSet<String, String> keys = keys(25, 30);
+        PairMap<String, String, Integer> m = new PairMap<String, String, Integer>(keys);
+        for (int k = 0; k < 300; k++)
+            m.put(new Pair<String, String>("t" + rnd.nextInt(25), "i" + rnd.nextInt(30)), k);
+
+        final List<Pair<String, String>> pairs = new ArrayList<Pair<String, String>>();
+        keys.forEachPair(new ObjObjConsumer<String, String>() {
+            @Override
+            public void accept(String t, String i) {
+                pairs.add(new Pair<String, String>(t, i));
+            }
+        });
+        assertEquals(new ArrayList<Pair<String, String>>(keys), pairs);
+
+        final List<String> entries = new ArrayList<String>();
+        m.forEachEntry(new ObjObjObjConsumer<String, String, Integer>() {
+            @Override
+            public void accept(String t, String i, Integer v) {
+                entries.add(t + "," + i + "=" + v);
+            }
+        });
+        List<String> expected = new ArrayList<String>();
+        for (Pair<String, String> p : keys)
+            expected.add(p.transaction + "," + p.item + "=" + m.get(p));
+        assertEquals(expected, entries);
+    }
+}
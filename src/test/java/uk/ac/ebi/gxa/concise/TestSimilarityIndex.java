@@ -0,0 +1,88 @@
+package uk.ac.ebi.gxa.concise;
+
+import it.uniroma3.mat.extendedset.intset.ArraySet;
+import it.uniroma3.mat.extendedset.intset.ConciseSet;
+import it.uniroma3.mat.extendedset.intset.IntSet;
+import it.uniroma3.mat.extendedset.utilities.SimilarityIndex;
+import it.uniroma3.mat.extendedset.utilities.SimilarityIndex.Match;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestSimilarityIndex {
+    private static IntSet randomSet(Random rnd, int size, int max) {
+        IntSet s = new ConciseSet();
+        for (int i = 0; i < size; i++)
+            s.add(rnd.nextInt(max));
+        return s;
+    }
+
+    private static List<Match> bruteForce(List<IntSet> sets, IntSet query, int k, double minSimilarity) {
+        List<Match> res = new ArrayList<Match>();
+        for (int i = 0; i < sets.size(); i++) {
+            double j = query.jaccardSimilarity(sets.get(i));
+            if (j > 0 && j >= minSimilarity)
+                res.add(new Match(i, j));
+        }
+        Collections.sort(res);
+        return res.subList(0, Math.min(k, res.size()));
+    }
+
+    private static void assertMatches(List<Match> expected, List<Match> actual) {
+        assertEquals(expected.toString(), actual.toString());
+    }
+
+    @Test
+    public void testTopK() throws Exception {
+        Random rnd = new Random(41);
+        List<IntSet> sets = new ArrayList<IntSet>();
+        for (int i = 0; i < 3000; i++)
+            sets.add(randomSet(rnd, 1 + rnd.nextInt(i % 10 == 0 ? 200 : 30), 1 + rnd.nextInt(2000)));
+        // duplicates, to check ties
+        sets.add(sets.get(7).clone());
+        sets.add(new ConciseSet());
+        SimilarityIndex index = new SimilarityIndex(sets);
+        assertEquals(sets.size(), index.size());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int t = 0; t < 100; t++) {
+                IntSet query = t == 0 ? sets.get(7) : randomSet(rnd, 1 + rnd.nextInt(100), 1 + rnd.nextInt(2000));
+                int k = 1 + rnd.nextInt(20);
+                assertMatches(bruteForce(sets, query, k, 0D), index.topK(query, k));
+                assertMatches(bruteForce(sets, query, k, 0D), index.topK(query, k, executor));
+                assertMatches(bruteForce(sets, query, 5000, 0.1), index.topK(query, 5000, 0.1, executor));
+                IntSet converted = new ArraySet().convert(query.toArray());
+                assertMatches(bruteForce(sets, query, k, 0D), index.topK(converted, k));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        List<Match> self = index.topK(sets.get(7), 2);
+        assertEquals(7, self.get(0).index);
+        assertEquals(sets.size() - 2, self.get(1).index);
+        assertEquals(1D, self.get(1).similarity, 0D);
+
+        List<Match> empty = index.topK(new ConciseSet(), 3);
+        assertEquals(1, empty.size());
+        assertEquals(sets.size() - 1, empty.get(0).index);
+        assertTrue(index.topK(new ConciseSet().convert(1000000), 3).isEmpty());
+
+        try {
+            index.topK(sets.get(0), 0);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package uk.ac.ebi.gxa.concise;
+
+import it.uniroma3.mat.extendedset.intset.ArraySet;
+import it.uniroma3.mat.extendedset.intset.IntSet;
+import it.uniroma3.mat.extendedset.intset.VByteIntSet;
+import org.junit.Test;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TestVByteIntSet {
+    private static void assertSame(IntSet expected, IntSet actual) {
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(expected.size(), actual.size());
+        IntSet.IntIterator e = expected.descendingIterator();
+        IntSet.IntIterator a = actual.descendingIterator();
+        while (e.hasNext())
+            assertEquals(e.next(), a.next());
+        assertTrue(!a.hasNext());
+    }
+
+    @Test
+    public void testAgainstArraySet() {
+        Random rnd = new Random(7);
+        for (int run = 0; run < 20; run++) {
+            ArraySet expected = new ArraySet();
+            VByteIntSet actual = new VByteIntSet();
+            int max = 1 + rnd.nextInt(100000);
+            for (int i = 0; i < 1000; i++) {
+                int e = rnd.nextInt(max);
+                if (rnd.nextInt(4) == 0 && !expected.isEmpty())
+                    assertEquals(expected.remove(e), actual.remove(e));
+                else
+                    assertEquals(expected.add(e), actual.add(e));
+            }
+            assertSame(expected, actual);
+            for (int i = 0; i < expected.size(); i += 17) {
+                assertEquals(expected.get(i), actual.get(i));
+                assertEquals(i, actual.indexOf(expected.get(i)));
+            }
+            for (int i = 0; i < 200; i++) {
+                int e = rnd.nextInt(max);
+                assertEquals(expected.contains(e), actual.contains(e));
+            }
+
+            ArraySet other = new ArraySet();
+            for (int i = 0; i < 300; i++)
+                other.add(rnd.nextInt(max));
+            assertSame(expected.intersection(other), actual.intersection(other));
+            assertSame(expected.union(other), actual.union(other));
+            assertSame(expected.difference(other), actual.difference(other));
+            assertSame(expected.symmetricDifference(other), actual.symmetricDifference(other));
+            assertEquals(expected.intersectionSize(other), actual.intersectionSize(other));
+            assertSame(expected.complemented(), actual.complemented());
+        }
+    }
+
+    @Test
+    public void testSkipAndRemove() {
+        VByteIntSet s = new VByteIntSet();
+        for (int i = 0; i < 1000; i++)
+            s.add(i * 3);
+        IntSet.IntIterator itr = s.iterator();
+        itr.skipAllBefore(1000);
+        assertEquals(1002, itr.next());
+        itr.remove();
+        assertEquals(1005, itr.next());
+        assertEquals(999, s.size());
+
+        itr = s.descendingIterator();
+        itr.skipAllBefore(500);
+        assertEquals(498, itr.next());
+        itr.remove();
+        assertEquals(495, itr.next());
+        assertEquals(998, s.size());
+    }
+
+    @Test
+    public void testIllegalArguments() {
+        VByteIntSet s = new VByteIntSet();
+        s.add(0);
+        s.add(7);
+        IntSet.IntIterator[] itrs = {s.iterator(), s.descendingIterator()};
+        for (IntSet.IntIterator itr : itrs) {
+            try {
+                itr.remove();
+                fail();
+            } catch (IllegalStateException e) {
+                // expected
+            }
+            itr.next();
+            itr.remove();
+            try {
+                itr.remove();
+                fail();
+            } catch (IllegalStateException e) {
+                // expected
+            }
+            s.add(0);
+            s.add(7);
+        }
+        assertEquals(2, s.size());
+
+        try {
+            s.convert(new TreeSet<Integer>(Arrays.asList(-1, 2)));
+            fail();
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // expected
+        }
+        try {
+            s.convert(Arrays.asList(2, -1));
+            fail();
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testSerialization() throws IOException, ClassNotFoundException {
+        VByteIntSet s = new VByteIntSet();
+        for (int i = 0; i < 500; i++)
+            s.add(i * i);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new ObjectOutputStream(baos).writeObject(s);
+        VByteIntSet s1 = (VByteIntSet) new ObjectInputStream(new ByteArrayInputStream(baos.toByteArray())).readObject();
+
+        assertEquals(s, s1);
+        assertEquals(s.last(), s1.last());
+    }
+}